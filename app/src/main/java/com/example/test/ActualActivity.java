@@ -1,46 +1,80 @@
 package com.example.test;
 
-import android.Manifest;
-import android.bluetooth.BluetoothAdapter;
-import android.bluetooth.BluetoothDevice;
-import android.bluetooth.BluetoothGatt;
-import android.bluetooth.BluetoothGattCallback;
-import android.bluetooth.BluetoothGattCharacteristic;
-import android.bluetooth.BluetoothGattService;
 import android.content.Intent;
-import android.content.pm.PackageManager;
+import android.content.pm.ApplicationInfo;
 import android.database.Cursor;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
+import android.widget.ToggleButton;
 
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.content.ContextCompat;
 
+import com.example.test.ble.FrameCapture;
+import com.example.test.ble.GattSession;
+import com.example.test.ble.GattSessionManager;
 import com.example.test.helper.DatabaseHelper;
+import com.example.test.helper.InferenceSettings;
 import com.example.test.helper.NavigationService;
+import com.example.test.metrics.Counter;
+import com.example.test.metrics.LatencyHistogram;
+import com.example.test.metrics.MetricsOverlay;
+import com.example.test.metrics.MetricsRegistry;
+import com.example.test.ml.ActuatorCommandEncoder;
+import com.example.test.ml.GesturePredictor;
+import com.example.test.ml.InterpreterPool;
+import com.example.test.ml.ModelFiles;
+import com.example.test.ml.WindowedGesturePredictor;
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+import com.example.test.sensor.SensorPacketDecoder;
+import com.example.test.sensor.SensorRingBuffer;
+import com.example.test.sensor.SensorSampleStore;
 
 import org.tensorflow.lite.Interpreter;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
-import java.util.UUID;
+import java.io.InputStream;
 
 public class ActualActivity extends AppCompatActivity {
-    private static final UUID SERVICE_UUID = UUID.fromString("4fafc201-1fb5-459e-8fcc-c5c9c331914b");
-    private static final UUID CHARACTERISTIC_UUID = UUID.fromString("beb5483e-36e1-4688-b7f5-ea07361b26a8");
-
-    private BluetoothGatt bluetoothGatt;
+    private static final String TAG = "ActualActivity";
+    // Shared connection owned by GattSessionManager (stays open across screens)
+    private GattSession gattSession;
+    private final GattSession.StateListener stateListener = this::onConnectionStateChanged;
+    private final SensorPacketDecoder.SampleListener sampleListener = this::processSensorSample;
     private Interpreter tflite;
     private TextView logTextView;
     private String deviceMac;
     private DatabaseHelper dbHelper;
+    private SensorRingBuffer liveSamples;
+    // Only held while started; read from the BLE callback thread
+    private volatile GesturePredictor predictor;
+    private volatile WindowedGesturePredictor windowedPredictor;
+    private final ActuatorCommandEncoder commandEncoder = new ActuatorCommandEncoder();
+    private long lastLoggedAt = 0;
+    private static final long LOG_INTERVAL_MS = 500;
+    // Hot-path metrics, looked up once so recording does not allocate
+    private static final LatencyHistogram INFERENCE_TIME = MetricsRegistry.getInstance().histogram("ml.inference_us");
+    private static final Counter COMMANDS_SENT = MetricsRegistry.getInstance().counter("ml.commands_sent");
+    // Debug builds only
+    private MetricsOverlay metricsOverlay;
+    // Debug builds only: records received packets to a capture file for replay
+    private ToggleButton captureToggle;
+    // Debug builds only: path of a capture file to replay instead of connecting to the glove
+    // (e.g. adb shell am start -n com.example.test/.ActualActivity --es device_address <mac> --es replay_capture <path>)
+    static final String EXTRA_REPLAY_CAPTURE = "replay_capture";
+    // Optional: how many times per window a windowed model runs (hop = window / divisor), saved for later launches
+    // (e.g. adb shell am start -n com.example.test/.ActualActivity --es device_address <mac> --ei window_hop_divisor 2)
+    // The window length itself is fixed by the model's input shape
+    static final String EXTRA_WINDOW_HOP_DIVISOR = "window_hop_divisor";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,25 +83,13 @@ public class ActualActivity extends AppCompatActivity {
 
         logTextView = findViewById(R.id.log_text_view);
         Button retrainButton = findViewById(R.id.retrain_button);
+        setUpMetricsOverlay();
+        setUpCaptureToggle();
 
-        dbHelper = new DatabaseHelper(this);
-        try {
-            dbHelper.createDatabase();
-            dbHelper.openDatabase();
-        } catch (IOException e) {
-            throw new RuntimeException("Error creating database", e);
-        }
+        dbHelper = DatabaseHelper.getInstance(this);
 
         // Get the Bluetooth device address from the intent
-        deviceMac = getIntent().getStringExtra("device_address");
-        BluetoothAdapter bluetoothAdapter = BluetoothAdapter.getDefaultAdapter();
-        BluetoothDevice device = bluetoothAdapter.getRemoteDevice(deviceMac);
-
-        // Load the trained model from the database
-        loadModelFromDatabase();
-
-        // Connect to the Bluetooth device
-        connectToDevice(device);
+        setDevice(getIntent());
 
         // Set up retrain button
         retrainButton.setOnClickListener(v -> {
@@ -77,6 +99,58 @@ public class ActualActivity extends AppCompatActivity {
         });
     }
 
+    // RunningActivity brings this instance back to the top after retraining (CLEAR_TOP | SINGLE_TOP)
+    @Override
+    protected void onNewIntent(Intent intent) {
+        super.onNewIntent(intent);
+        setIntent(intent);
+        setDevice(intent);
+    }
+
+    private void setDevice(Intent intent) {
+        deviceMac = intent.getStringExtra("device_address");
+        liveSamples = SensorSampleStore.getInstance().get(deviceMac);
+        int hopDivisor = intent.getIntExtra(EXTRA_WINDOW_HOP_DIVISOR, 0);
+        if (hopDivisor > 0) {
+            InferenceSettings.setWindowHopDivisor(this, hopDivisor);
+        }
+    }
+
+    // Only a visible screen holds the model and listens to the glove, so an instance
+    // left in the back stack (e.g. while retraining) does not keep sending commands
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Load the latest trained model from the database (it may have been retrained while stopped)
+        commandEncoder.reset();
+        loadModelFromDatabase();
+
+        // Connect to the Bluetooth device
+        connectToDevice();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // A capture only covers the time this screen is visible
+        if (captureToggle != null) {
+            captureToggle.setChecked(false);
+        }
+        // Unsubscribe before releasing the model; the connection itself stays open
+        if (gattSession != null) {
+            gattSession.removeSampleListener(sampleListener);
+            gattSession.removeStateListener(stateListener);
+            gattSession = null;
+        }
+        if (tflite != null) {
+            // Keep the interpreter warm in the pool instead of closing it
+            predictor = null;
+            windowedPredictor = null;
+            InterpreterPool.getInstance(this).release(tflite);
+            tflite = null;
+        }
+    }
+
     private void loadModelFromDatabase() {
         Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
                 "SELECT model_name FROM tb_deep_learning WHERE device_mac = ? ORDER BY model_idx DESC LIMIT 1",
@@ -89,135 +163,200 @@ public class ActualActivity extends AppCompatActivity {
         cursor.close();
     }
 
-    private void connectToDevice(BluetoothDevice device) {
+    private void connectToDevice() {
         try {
-            if (ContextCompat.checkSelfPermission(this, Manifest.permission.BLUETOOTH_CONNECT) == PackageManager.PERMISSION_GRANTED) {
-                bluetoothGatt = device.connectGatt(this, false, new BluetoothGattCallback() {
-                    @Override
-                    public void onConnectionStateChange(BluetoothGatt gatt, int status, int newState) {
-                        if (newState == BluetoothGatt.STATE_CONNECTED) {
-                            runOnUiThread(() -> {
-                                Toast.makeText(ActualActivity.this, "Connected to " + device.getName(), Toast.LENGTH_SHORT).show();
-                                logTextView.append("Connected to " + device.getName() + "\n");
-                            });
-                            gatt.discoverServices();
-                        } else if (newState == BluetoothGatt.STATE_DISCONNECTED) {
-                            runOnUiThread(() -> {
-                                Toast.makeText(ActualActivity.this, "Disconnected from " + device.getName(), Toast.LENGTH_SHORT).show();
-                                logTextView.append("Disconnected from " + device.getName() + "\n");
-                            });
-                            gatt.close();
-                        }
-                    }
-
-                    @Override
-                    public void onServicesDiscovered(BluetoothGatt gatt, int status) {
-                        if (status == BluetoothGatt.GATT_SUCCESS) {
-                            BluetoothGattService service = gatt.getService(SERVICE_UUID);
-                            if (service != null) {
-                                BluetoothGattCharacteristic characteristic = service.getCharacteristic(CHARACTERISTIC_UUID);
-                                if (characteristic != null) {
-                                    readCharacteristic(gatt, characteristic);
-                                }
-                            }
-                        }
-                    }
-
-                    @Override
-                    public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
-                        if (status == BluetoothGatt.GATT_SUCCESS) {
-                            byte[] data = characteristic.getValue();
-                            processSensorData(data);
-                        }
-                    }
-                });
-            } else {
-                throw new SecurityException("Bluetooth connect permission not granted");
+            // Reuse the glove's shared connection instead of reconnecting for this screen
+            String replayPath = isDebuggable() ? getIntent().getStringExtra(EXTRA_REPLAY_CAPTURE) : null;
+            gattSession = replayPath != null ? startReplay(replayPath) : GattSessionManager.getInstance(this).connect(deviceMac);
+            if (gattSession == null) {
+                return;
             }
+            gattSession.addStateListener(stateListener);
+            // Subscribing starts streaming (notify, or polling on older firmware)
+            gattSession.addSampleListener(sampleListener);
         } catch (SecurityException e) {
             NavigationService.navigateToMainActivity(this);
         }
     }
 
-    private void readCharacteristic(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic) {
-        try {
-            if (gatt != null && characteristic != null) {
-                if (ContextCompat.checkSelfPermission(this, Manifest.permission.BLUETOOTH_CONNECT) == PackageManager.PERMISSION_GRANTED) {
-                    gatt.readCharacteristic(characteristic);
-                } else {
-                    throw new SecurityException("Bluetooth connect permission not granted");
-                }
-            }
-        } catch (SecurityException e) {
-            NavigationService.navigateToMainActivity(this);
+    private void onConnectionStateChanged(GattSession session, GattSession.State state) {
+        if (state != GattSession.State.READY && state != GattSession.State.DISCONNECTED) {
+            return;
         }
+        runOnUiThread(() -> {
+            try {
+                String name = session.getDevice().getName();
+                String message = state == GattSession.State.READY ? "Connected to " + name : "Disconnected from " + name;
+                Toast.makeText(ActualActivity.this, message, Toast.LENGTH_SHORT).show();
+                logTextView.append(message + "\n");
+            } catch (SecurityException e) {
+                NavigationService.navigateToMainActivity(this);
+            }
+        });
     }
 
-    private void processSensorData(byte[] data) {
-        // Assume the data is in the same format as the training data
-        ByteBuffer inputBuffer = ByteBuffer.allocateDirect(data.length * 4).order(ByteOrder.nativeOrder());
-        for (byte b : data) {
-            inputBuffer.putFloat(b);
+    private void processSensorSample(SensorFrame sensorFrame, long timestampMicros) {
+        // The session decodes single and packed packets into the same 8 channels used for training
+        // Read once: onStop may clear the fields while a callback is still in flight
+        GesturePredictor predictor = this.predictor;
+        WindowedGesturePredictor windowedPredictor = this.windowedPredictor;
+        if (predictor == null && windowedPredictor == null) {
+            return;
         }
+        liveSamples.write(sensorFrame, timestampMicros / 1000);
 
-        float[][] output = new float[1][2];
-        tflite.run(inputBuffer, output);
+        // Run the model with preallocated input/output buffers
+        long start = System.nanoTime();
+        float[] output;
+        if (windowedPredictor != null) {
+            // Temporal models see the last N samples and only run once per hop
+            output = windowedPredictor.onSample();
+            if (output == null) {
+                return;
+            }
+        } else {
+            output = predictor.predict(sensorFrame);
+        }
+        INFERENCE_TIME.recordNanos(System.nanoTime() - start);
 
         // Use the model's output to control the Arduino sensors
         controlArduinoSensors(output);
     }
 
-    private void controlArduinoSensors(float[][] output) {
-        // Implement the logic to control Arduino sensors based on the model's output
-        String command = "SENSOR_CONTROL:" + output[0][0] + "," + output[0][1];
-        writeCharacteristic(command);
+    private void controlArduinoSensors(float[] output) {
+        // Only send a new command when the model output moved by more than the encoder's tolerance
+        if (!commandEncoder.update(output[0], output[1])) {
+            return;
+        }
+        writeCharacteristic(commandEncoder.getCommandBytes());
+        COMMANDS_SENT.increment();
+
+        // Log the command sent to Arduino, at most once per LOG_INTERVAL_MS
+        long now = SystemClock.uptimeMillis();
+        if (now - lastLoggedAt >= LOG_INTERVAL_MS) {
+            lastLoggedAt = now;
+            String command = commandEncoder.getCommand();
+            runOnUiThread(() -> logTextView.append("Command sent: " + command + "\n"));
+        }
+    }
+
+    private void writeCharacteristic(byte[] value) {
+        // Queued behind any in-flight GATT operation; a command still waiting is replaced by this one
+        if (gattSession != null) {
+            gattSession.write(value, true);
+        }
+    }
 
-        // Log the command sent to Arduino
-        runOnUiThread(() -> logTextView.append("Command sent: " + command + "\n"));
+    // Replays a recorded session through the same decode/infer/command path (only if no session exists for the device)
+    private GattSession startReplay(String path) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+            FrameCapture capture = FrameCapture.read(in);
+            logTextView.append("Replaying " + capture.size() + " packets from " + path + "\n");
+            return GattSessionManager.getInstance(this).replay(deviceMac, capture, 1.0, null);
+        } catch (IOException e) {
+            Toast.makeText(this, "Cannot replay " + path + ": " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            return null;
+        }
     }
 
-    private void writeCharacteristic(String value) {
-        try {
-            if (bluetoothGatt != null) {
-                BluetoothGattService service = bluetoothGatt.getService(SERVICE_UUID);
-                if (service != null) {
-                    BluetoothGattCharacteristic characteristic = service.getCharacteristic(CHARACTERISTIC_UUID);
-                    if (characteristic != null) {
-                        characteristic.setValue(value);
-                        bluetoothGatt.writeCharacteristic(characteristic);
-                    }
-                }
+    private boolean isDebuggable() {
+        return (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    private void setUpCaptureToggle() {
+        if (!isDebuggable()) {
+            return;
+        }
+        captureToggle = findViewById(R.id.capture_toggle);
+        captureToggle.setVisibility(View.VISIBLE);
+        captureToggle.setOnCheckedChangeListener((button, checked) -> setCapturing(checked));
+    }
+
+    // Capture files go next to the metrics dumps so they can be pulled with adb and replayed
+    private void setCapturing(boolean capturing) {
+        if (gattSession == null) {
+            if (capturing) {
+                captureToggle.setChecked(false);
             }
-        } catch (SecurityException e) {
-            NavigationService.navigateToMainActivity(this);
+            return;
+        }
+        if (!capturing) {
+            long frames = gattSession.stopCapture();
+            Toast.makeText(this, "Captured " + frames + " packets", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        File dir = getExternalFilesDir(null);
+        File file = new File(dir != null ? dir : getFilesDir(),
+                "capture-" + deviceMac.replace(":", "") + "-" + System.currentTimeMillis() + FrameCapture.FILE_EXTENSION);
+        try {
+            gattSession.startCapture(new FileOutputStream(file));
+            logTextView.append("Capturing to " + file.getPath() + "\n");
+        } catch (IOException e) {
+            Toast.makeText(this, "Cannot capture: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            captureToggle.setChecked(false);
         }
     }
 
-    private void loadModelFile(String modelName) {
+    private void setUpMetricsOverlay() {
+        if (!isDebuggable()) {
+            return;
+        }
+        TextView metricsTextView = findViewById(R.id.metrics_text_view);
+        metricsTextView.setVisibility(View.VISIBLE);
+        metricsOverlay = new MetricsOverlay(metricsTextView, MetricsRegistry.getInstance());
+        // Long-press dumps the current metrics to app storage
+        metricsTextView.setOnLongClickListener(v -> {
+            dumpMetrics();
+            return true;
+        });
+    }
+
+    private void dumpMetrics() {
+        long now = System.currentTimeMillis();
+        File dir = getExternalFilesDir(null);
+        File file = new File(dir != null ? dir : getFilesDir(), "metrics-" + now + ".txt");
         try {
-            File modelFile = new File(getFilesDir(), modelName + ".tflite");
-            FileInputStream inputStream = new FileInputStream(modelFile);
-            FileChannel fileChannel = inputStream.getChannel();
-            long startOffset = 0;
-            long declaredLength = fileChannel.size();
-            MappedByteBuffer mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, startOffset, declaredLength);
-            tflite = new Interpreter(mappedByteBuffer);
+            MetricsRegistry.getInstance().writeTo(file, "# " + deviceMac + " " + now);
+            Toast.makeText(this, "Metrics saved to " + file.getPath(), Toast.LENGTH_SHORT).show();
         } catch (IOException e) {
-            e.printStackTrace();
+            Toast.makeText(this, "Cannot save metrics: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
 
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (bluetoothGatt != null) {
-            try {
-                bluetoothGatt.close();
-                bluetoothGatt = null;
-            } catch (SecurityException e) {
-                bluetoothGatt.close();
-                bluetoothGatt = null;
+    protected void onResume() {
+        super.onResume();
+        if (metricsOverlay != null) {
+            metricsOverlay.start();
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (metricsOverlay != null) {
+            metricsOverlay.stop();
+        }
+    }
+
+    private void loadModelFile(String modelName) {
+        try {
+            // Reuse a cached interpreter if the model was loaded before
+            // Trained weights from RunningActivity are restored from the model's checkpoint by the pool
+            // Each glove has its own checkpoint, keyed by the model name stored in tb_deep_learning
+            tflite = InterpreterPool.getInstance(this).acquire(modelName);
+            // Normalize live samples with the ranges the model was trained on
+            SensorNormalizer normalizer = ModelFiles.loadNormalizer(this, modelName);
+            if (WindowedGesturePredictor.isWindowedModel(tflite)) {
+                // Run once every (window / divisor) samples; the divisor is set with EXTRA_WINDOW_HOP_DIVISOR
+                int window = WindowedGesturePredictor.getModelWindowLength(tflite);
+                int hop = InferenceSettings.getHopSize(window, InferenceSettings.getWindowHopDivisor(this));
+                windowedPredictor = new WindowedGesturePredictor(tflite, liveSamples, window, hop, normalizer);
+            } else {
+                predictor = GesturePredictor.create(tflite, normalizer);
             }
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to load model " + modelName, e);
         }
     }
 }
@@ -1,142 +1,254 @@
 package com.example.test;
 
+import android.content.Context;
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.test.helper.DatabaseHelper;
 import com.example.test.helper.NavigationService;
+import com.example.test.ml.InterpreterPool;
+import com.example.test.ml.ModelFiles;
+import com.example.test.ml.ModelTrainer;
+import com.example.test.ml.SignatureTrainableModel;
+import com.example.test.storage.SensingDataCleaner;
+import com.example.test.storage.SensingDataLoader;
+import com.example.test.storage.SensorRecordFile;
 
 import org.tensorflow.lite.Interpreter;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 public class RunningActivity extends AppCompatActivity {
     //DB에 저장된 센서 데이터를 토대로 학습을 실행하는 액티비티
-    private DatabaseHelper dbHelper;
-    private Interpreter tflite;
+    private static final String TAG = "RunningActivity";
+
+    // 진행 중인 학습 (메인 스레드에서만 변경)
+    // 화면 회전 등으로 액티비티가 다시 만들어져도 학습 스레드를 새로 시작하지 않고 이어서 표시합니다.
+    private static TrainingTask runningTask;
+
     private String deviceMac; // device_mac를 저장할 변수
+    private TextView progressTextView;
+    private TrainingTask task;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_running);
 
-        dbHelper = new DatabaseHelper(this);
+        progressTextView = findViewById(R.id.training_progress_text);
 
         Intent intent = getIntent();
         deviceMac = intent.getStringExtra("device_address");
 
-        try {
-            dbHelper.createDatabase();
-            dbHelper.openDatabase();
-            trainAndSaveModel();
-        } catch (IOException e) {
-            throw new RuntimeException("Error creating database", e);
+        if (runningTask != null && !runningTask.deviceMac.equals(deviceMac)) {
+            // 다른 장갑의 학습은 더 이상 표시할 화면이 없으므로 중단
+            runningTask.cancel();
+            runningTask = null;
         }
+        if (runningTask == null) {
+            // 학습은 별도 스레드에서 실행 (메인 스레드를 막지 않음)
+            runningTask = new TrainingTask(getApplicationContext(), deviceMac);
+            new Thread(runningTask, "model-trainer").start();
+        }
+        task = runningTask;
+        task.attach(this);
     }
 
-    private void trainAndSaveModel() {
-        // 학습 데이터 가져오기
-        List<float[]> dataList = getSensingData();
+    private void showProgress(String progress) {
+        progressTextView.setText(progress);
+    }
 
-        if (dataList.isEmpty()) {
+    private void onTrainingFinished(boolean success, boolean hasData) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        if (success) {
+            openActualActivity();
+        } else if (!hasData) {
             Toast.makeText(this, "학습할 데이터가 없습니다.", Toast.LENGTH_SHORT).show();
             NavigationService.navigateToWorkActivity(this);
+        } else {
+            Toast.makeText(this, "모델 학습에 실패했습니다.", Toast.LENGTH_SHORT).show();
+            NavigationService.navigateToWorkActivity(this);
+        }
+    }
+
+    private void openActualActivity() {
+        // 학습이 끝나면 ActualActivity로 이동
+        // 재학습이면 백 스택에 남아 있는 ActualActivity로 돌아감 (그 위의 WorkActivity 등은 정리)
+        Intent intent = new Intent(RunningActivity.this, ActualActivity.class);
+        intent.putExtra("device_address", deviceMac);
+        intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        startActivity(intent);
+        finish();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        task.detach(this);
+        // 구성 변경으로 다시 만들어지는 경우에는 학습을 이어감
+        if (isChangingConfigurations()) {
             return;
         }
+        // 화면을 벗어나면 학습 중단 (체크포인트는 저장하지 않음)
+        task.cancel();
+        if (runningTask == task) {
+            runningTask = null;
+        }
+    }
 
-        // 데이터를 float 배열로 변환
-        float[][] dataArray = dataList.toArray(new float[dataList.size()][]);
+    // 학습 스레드 하나에서 실행하는 학습 작업 (액티비티가 아닌 앱 Context만 사용)
+    // 진행 상황과 결과는 메인 스레드에서 현재 연결된 액티비티에 전달합니다.
+    private static class TrainingTask implements Runnable {
+        private final Context context;
+        private final DatabaseHelper dbHelper;
+        private final String deviceMac;
+        private final String modelName; // 장갑별 모델 이름 (체크포인트, tb_deep_learning.model_name)
+        private final Handler mainHandler = new Handler(Looper.getMainLooper());
+        private volatile ModelTrainer trainer;
+        private volatile boolean cancelRequested;
+        // 메인 스레드에서만 사용
+        private RunningActivity activity;
+        private String lastProgress;
+
+        TrainingTask(Context context, String deviceMac) {
+            this.context = context;
+            this.dbHelper = DatabaseHelper.getInstance(context);
+            this.deviceMac = deviceMac;
+            this.modelName = ModelFiles.getModelName(deviceMac);
+        }
 
-        // 모델 정의 및 학습
-        try {
-            tflite = new Interpreter(loadModelFile());
+        void attach(RunningActivity activity) {
+            this.activity = activity;
+            if (lastProgress != null) {
+                activity.showProgress(lastProgress);
+            }
+        }
 
-            // 데이터 전처리 및 모델 학습
-            ByteBuffer inputBuffer = ByteBuffer.allocateDirect(dataArray.length * dataArray[0].length * 4).order(ByteOrder.nativeOrder());
-            for (float[] data : dataArray) {
-                for (float value : data) {
-                    inputBuffer.putFloat(value);
-                }
+        void detach(RunningActivity activity) {
+            if (this.activity == activity) {
+                this.activity = null;
+            }
+        }
+
+        void cancel() {
+            cancelRequested = true;
+            ModelTrainer modelTrainer = trainer;
+            if (modelTrainer != null) {
+                modelTrainer.cancel();
             }
+        }
 
-            // 모델 학습
-            float[][] output = new float[dataArray.length][2];
-            tflite.run(inputBuffer, output);
+        // 학습 스레드에서 실행
+        @Override
+        public void run() {
+            InterpreterPool pool = InterpreterPool.getInstance(context);
+            Interpreter tflite = null;
+            SensingDataLoader loader = null;
+            File snapshotFile = null;
+            try {
+                if (dbHelper.getSensingDataCount(deviceMac) == 0) {
+                    finish(false, false);
+                    return;
+                }
 
-            // 학습 결과 평가
-            float predictionRate = evaluateModel(output);
+                // 모델 정의 (train/infer/save 시그니처가 있는 학습용 모델)
+                tflite = pool.acquire(modelName);
+                ModelTrainer modelTrainer = new ModelTrainer(new SignatureTrainableModel(tflite));
+                trainer = modelTrainer;
+                if (cancelRequested) {
+                    modelTrainer.cancel();
+                }
 
-            // 학습 결과 저장
-            saveModel("Sensor Pair Model", "남", deviceMac, "Analysis Result", predictionRate);
-        } catch (Exception e) {
-            Log.e("RunningActivity", "Error during model training", e);
+                // 학습 데이터 로더 (배치 크기만큼씩 읽음)
+                // 에폭마다 데이터베이스/보관 파일을 다시 읽지 않도록 한 번 레코드 파일로 만든 뒤 메모리 매핑해서 읽음
+                // 이전 학습 스레드가 아직 매핑하고 있을 수 있으므로 학습마다 새 파일 사용
+                snapshotFile = File.createTempFile("training", SensorRecordFile.FILE_EXTENSION, context.getCacheDir());
+                loader = new SensingDataLoader(dbHelper, deviceMac, modelTrainer.getBatchSize());
+                loader.createSnapshot(snapshotFile);
+
+                // 모델 학습, 에폭마다 loss와 처리량 표시
+                ModelTrainer.Result result = modelTrainer.train(loader::forEachChunk, ModelTrainer.DEFAULT_EPOCHS,
+                        ModelFiles.getCheckpointFile(context, modelName),
+                        (epoch, epochs, loss, samplesPerSecond) -> postProgress(String.format(Locale.US,
+                                "Epoch %d/%d\nloss %.4f\n%.0f samples/s", epoch, epochs, loss, samplesPerSecond)));
+
+                // 추론에서 같은 범위로 정규화하도록 체크포인트와 함께 저장
+                ModelFiles.saveNormalizer(context, modelName, loader.getNormalizer());
+
+                // 학습 결과 저장
+                saveModel("남", "Analysis Result", result.predictionRate);
+                finish(true, true);
+            } catch (CancellationException e) {
+                Log.i(TAG, "Model training cancelled");
+            } catch (Exception e) {
+                Log.e(TAG, "Error during model training", e);
+                finish(false, true);
+            } finally {
+                if (tflite != null) {
+                    pool.release(tflite);
+                }
+                closeQuietly(loader);
+                if (snapshotFile != null) {
+                    snapshotFile.delete();
+                }
+            }
         }
-    }
 
-    private List<float[]> getSensingData() {
-        List<float[]> dataList = new ArrayList<>();
-        Cursor cursor = dbHelper.getReadableDatabase().rawQuery("SELECT middle_flex_sensor, middle_pressure_sensor, ring_flex_sensor, ring_pressure_sensor, pinky_flex_sensor, acceleration, gyroscope, magnetic_field FROM tb_sensing WHERE device_mac = ?", new String[]{deviceMac});
-        while (cursor.moveToNext()) {
-            float[] data = new float[8];
-            data[0] = cursor.getInt(0);
-            data[1] = cursor.getInt(1);
-            data[2] = cursor.getInt(2);
-            data[3] = cursor.getInt(3);
-            data[4] = cursor.getInt(4);
-            data[5] = cursor.getInt(5);
-            data[6] = cursor.getInt(6);
-            data[7] = cursor.getInt(7);
-            dataList.add(data);
-        }
-        cursor.close();
-        return dataList;
-    }
+        private void saveModel(String sex, String analysisResult, float predictionRate) {
+            long currentTime = new Date().getTime();
+            dbHelper.insertDeepLearningData(modelName, sex, deviceMac, analysisResult, predictionRate, currentTime);
 
-    private MappedByteBuffer loadModelFile() throws IOException {
-        File modelFile = new File(getFilesDir(), "sensor_pair_model.tflite");
-        FileInputStream inputStream = new FileInputStream(modelFile);
-        FileChannel fileChannel = inputStream.getChannel();
-        long startOffset = 0;
-        long declaredLength = fileChannel.size();
-        return fileChannel.map(FileChannel.MapMode.READ_ONLY, startOffset, declaredLength);
-    }
+            // 학습이 끝나면 센싱 데이터 초기화 (폐기 표시 후 백그라운드에서 삭제)
+            dbHelper.resetSensingData();
+            SensingDataCleaner.getInstance(dbHelper).requestCleanup();
+        }
 
-    private void saveModel(String modelName, String sex, String deviceMac, String analysisResult, float predictionRate) {
-        long currentTime = new Date().getTime();
-        dbHelper.insertDeepLearningData(modelName, sex, deviceMac, analysisResult, predictionRate, currentTime);
+        private void postProgress(String progress) {
+            post(current -> current.showProgress(progress), () -> lastProgress = progress);
+        }
 
-        // 학습이 끝나면 센싱 테이블 초기화
-        dbHelper.resetSensingData();
+        // 학습이 끝났으면 진행 중 표시를 지우고 현재 화면에 결과 전달
+        private void finish(boolean success, boolean hasData) {
+            post(current -> current.onTrainingFinished(success, hasData), () -> {
+                if (runningTask == this) {
+                    runningTask = null;
+                }
+            });
+        }
 
-        // 학습이 끝나면 ActualActivity로 이동
-        Intent intent = new Intent(RunningActivity.this, ActualActivity.class);
-        intent.putExtra("device_address", deviceMac);
-        startActivity(intent);
-        finish();
-    }
+        // 메인 스레드에서 before 실행 후 연결된 액티비티가 있으면 action 실행
+        private void post(Consumer<RunningActivity> action, Runnable before) {
+            mainHandler.post(() -> {
+                before.run();
+                if (activity != null) {
+                    action.accept(activity);
+                }
+            });
+        }
 
-    private float evaluateModel(float[][] output) {
-        // 모델의 예측 결과를 평가하는 로직을 구현합니다.
-        // 여기서는 단순히 예측 정확도의 평균을 계산하는 예제를 제공합니다.
-        float totalAccuracy = 0;
-        for (float[] prediction : output) {
-            totalAccuracy += (prediction[0] + prediction[1]) / 2;
+        private static void closeQuietly(SensingDataLoader loader) {
+            if (loader == null) {
+                return;
+            }
+            try {
+                loader.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to close training snapshot", e);
+            }
         }
-        return totalAccuracy / output.length;
     }
 }
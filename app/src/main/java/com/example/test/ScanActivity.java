@@ -1,12 +1,9 @@
 package com.example.test;
 
 import android.bluetooth.BluetoothAdapter;
-import android.bluetooth.BluetoothDevice;
-import android.bluetooth.BluetoothGatt;
-import android.bluetooth.BluetoothGattCallback;
-import android.bluetooth.BluetoothGattService;
 import android.bluetooth.le.ScanCallback;
 import android.bluetooth.le.ScanFilter;
+import android.bluetooth.le.ScanRecord;
 import android.bluetooth.le.ScanResult;
 import android.bluetooth.le.ScanSettings;
 import android.content.Intent;
@@ -22,41 +19,66 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.test.ble.GattSession;
+import com.example.test.ble.GattSessionManager;
+import com.example.test.ble.HandlerScheduler;
+import com.example.test.ble.ScanEngine;
+import com.example.test.ble.ScannedDevice;
 import com.example.test.helper.DatabaseHelper;
+import com.example.test.helper.KnownDevices;
 import com.example.test.helper.NavigationService;
 import com.example.test.helper.PermissionHelper;
+import com.example.test.ml.InterpreterPool;
+import com.example.test.storage.SensingArchiver;
+import com.example.test.storage.SensingDataCleaner;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class ScanActivity extends AppCompatActivity {
 
     // BluetoothAdapter와 관련된 변수 선언
     private BluetoothAdapter bluetoothAdapter;
-    private List<BluetoothDevice> bluetoothDevices;
+    private ScanEngine scanEngine;
+    private List<ScannedDevice> shownDevices = new ArrayList<>();  // 목록에 표시 중인 기기 (클릭 위치와 같은 순서)
     private ArrayAdapter<String> devicesAdapter;
-    private DatabaseHelper dbHelper;
-    private BluetoothGatt bluetoothGatt;  // BluetoothGatt 객체 선언
+    private DatabaseHelper dbHelper;  // backgroundExecutor에서만 사용
+    private GattSession gattSession;  // 선택한 기기의 연결 세션
+    private GattSession.StateListener connectionListener;
+    // DB 조회, 모델 미리 읽기용 (메인 스레드에서 하지 않음)
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+    private KnownDevices knownDevices;  // 백그라운드에서 읽기 전에는 null
+    private boolean bluetoothReady;  // 권한 허용 및 블루투스 켜짐
+    private String reconnectMac;  // 스캔 없이 바로 연결(autoConnect) 중인 기기
+    private Future<?> modelWarmUp;  // 모델 미리 읽기 (끝난 뒤 ActualActivity로 이동)
     private String tag = "로그";
 
-    // UUID 정의
-    private static final UUID SERVICE_UUID = UUID.fromString("4fafc201-1fb5-459e-8fcc-c5c9c331914b");
-
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_scan);
 
-        // DatabaseHelper 초기화 및 데이터베이스 설정
-        dbHelper = new DatabaseHelper(this);
-        initializeDatabase();
+        // 데이터베이스 준비(첫 실행 시 assets 복사)와 학습한 기기 목록 조회는 스캔과 동시에 백그라운드에서 진행
+        backgroundExecutor.execute(() -> {
+            dbHelper = DatabaseHelper.getInstance(this);
+            KnownDevices loaded = KnownDevices.load(this, dbHelper);
+            runOnUiThread(() -> onKnownDevicesLoaded(loaded));
+            // 이전 실행에서 끝나지 않은 센싱 데이터 정리와 보관 파일 이동 이어서 진행
+            SensingDataCleaner.getInstance(dbHelper).requestCleanup();
+            SensingArchiver.getInstance(dbHelper).requestArchive();
+        });
 
         // BluetoothAdapter와 관련된 변수 초기화
         bluetoothAdapter = BluetoothAdapter.getDefaultAdapter();
-        bluetoothDevices = new ArrayList<>();
         devicesAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1);
+        devicesAdapter.setNotifyOnChange(false);
+        scanEngine = new ScanEngine(new HandlerScheduler(), scanListener);
+        // 이미 학습한 장갑을 찾으면 바로 스캔 종료
+        scanEngine.setStopOnKnownDevice(true);
 
         // ListView 설정
         ListView devicesListView = findViewById(R.id.devices_list_view);
@@ -64,15 +86,14 @@ public class ScanActivity extends AppCompatActivity {
 
         // ListView 항목 클릭 리스너 설정
         devicesListView.setOnItemClickListener((parent, view, position, id) -> {
-            BluetoothDevice device = bluetoothDevices.get(position);
+            ScannedDevice device = shownDevices.get(position);
             connectToDevice(device);
         });
 
         // 새로고침 버튼 클릭 리스너 설정
         Button refreshButton = findViewById(R.id.refresh_button);
         refreshButton.setOnClickListener(v -> {
-            devicesAdapter.clear();
-            bluetoothDevices.clear();
+            stopScanning();
             startScanning();
         });
 
@@ -81,7 +102,9 @@ public class ScanActivity extends AppCompatActivity {
             @Override
             public void onPermissionsGranted() {
                 if (bluetoothAdapter != null && bluetoothAdapter.isEnabled()) {
+                    bluetoothReady = true;
                     startScanning();
+                    startFastReconnect();
                 } else {
                     Toast.makeText(ScanActivity.this, "Bluetooth is not enabled or not supported", Toast.LENGTH_SHORT).show();
                 }
@@ -95,13 +118,42 @@ public class ScanActivity extends AppCompatActivity {
         });
     }
 
-    // 데이터베이스 초기화
-    private void initializeDatabase() {
+    // 학습한 기기 목록을 읽은 뒤 스캔 목록에 표시하고 마지막 장갑에 바로 연결 시도
+    private void onKnownDevicesLoaded(KnownDevices loaded) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        knownDevices = loaded;
+        scanEngine.setKnownDevices(loaded.getDeviceMacs());
+        startFastReconnect();
+    }
+
+    // 마지막으로 사용한 장갑(모델 있음)에 스캔과 동시에 autoConnect로 연결하고, 연결되는 동안 모델을 미리 읽음
+    private void startFastReconnect() {
+        if (knownDevices == null || !bluetoothReady || reconnectMac != null || gattSession != null) {
+            return;
+        }
+        String deviceMac = knownDevices.getReconnectDeviceMac();
+        if (deviceMac == null) {
+            return;
+        }
+        String modelName = knownDevices.getModelName(deviceMac);
+        modelWarmUp = backgroundExecutor.submit(() -> {
+            try {
+                InterpreterPool.getInstance(this).warmUp(modelName);
+            } catch (IOException e) {
+                Log.w(tag, "모델 미리 읽기 실패: " + e.getMessage());
+            }
+        });
         try {
-            dbHelper.createDatabase();
-            dbHelper.openDatabase();
-        } catch (IOException e) {
-            throw new RuntimeException("Error creating database", e);
+            reconnectMac = deviceMac;
+            connectionListener = (session, state) -> handleConnectionStateChange(session, state, true);
+            gattSession = GattSessionManager.getInstance(this).connect(deviceMac, true);
+            gattSession.addStateListener(connectionListener);
+        } catch (SecurityException e) {
+            Log.d(tag, "빠른 재연결 실패: " + e.getMessage());
+            reconnectMac = null;
+            gattSession = null;
         }
     }
 
@@ -112,12 +164,14 @@ public class ScanActivity extends AppCompatActivity {
             if (PermissionHelper.hasAllBluetoothPermissions(this)) {
                 // UUID를 사용하여 스캔 필터 설정
                 ScanFilter filter = new ScanFilter.Builder()
-                        .setServiceUuid(new ParcelUuid(SERVICE_UUID))
+                        .setServiceUuid(new ParcelUuid(GattSession.SERVICE_UUID))
                         .build();
                 ScanSettings settings = new ScanSettings.Builder()
                         .setScanMode(ScanSettings.SCAN_MODE_LOW_LATENCY)
                         .build();
                 bluetoothAdapter.getBluetoothLeScanner().startScan(List.of(filter), settings, scanCallback);
+                // 스캔 콜백은 메인 스레드에서 오므로 시작 직후 엔진을 켜도 결과를 놓치지 않음
+                scanEngine.start();
             } else {
                 throw new SecurityException("Bluetooth scan permission not granted");
             }
@@ -127,6 +181,35 @@ public class ScanActivity extends AppCompatActivity {
         }
     }
 
+    // 블루투스 스캔 종료
+    private void stopScanning() {
+        scanEngine.stop();
+    }
+
+    // 스캔 엔진 결과를 화면에 반영 (ScanEngine이 초당 몇 번으로 묶어서 호출)
+    private final ScanEngine.Listener scanListener = new ScanEngine.Listener() {
+        @Override
+        public void onDevicesChanged(List<ScannedDevice> devices) {
+            shownDevices = devices;
+            devicesAdapter.clear();
+            for (ScannedDevice device : devices) {
+                String name = device.getName() != null ? device.getName() : "Unknown";
+                String label = (device.isKnown() ? "★ " : "") + name + "\n" + device.getMac() + "  " + device.getRssi() + " dBm";
+                devicesAdapter.add(label);
+            }
+            devicesAdapter.notifyDataSetChanged();
+        }
+
+        @Override
+        public void onScanStopped(ScanEngine.StopReason reason) {
+            try {
+                bluetoothAdapter.getBluetoothLeScanner().stopScan(scanCallback);
+            } catch (SecurityException e) {
+                Log.d(tag, "스캔 종료할때: " + e.getMessage());
+            }
+        }
+    };
+
     // 스캔 결과 콜백
     private final ScanCallback scanCallback = new ScanCallback() {
         @Override
@@ -144,54 +227,36 @@ public class ScanActivity extends AppCompatActivity {
         @Override
         public void onScanFailed(int errorCode) {
             Toast.makeText(ScanActivity.this, "블루투스 기기검색에 실패했습니다 : " + errorCode, Toast.LENGTH_SHORT).show();
+            scanEngine.stop();
         }
     };
 
-    // 스캔 결과 처리
+    // 스캔 결과 처리 (광고마다 호출되므로 권한 확인/화면 갱신 없이 엔진에만 전달)
+    // 이름은 BLUETOOTH_CONNECT 권한이 필요 없는 광고 데이터에서 읽음
     private void handleScanResult(ScanResult result) {
-        BluetoothDevice device = result.getDevice();
-        try {
-            if (PermissionHelper.hasAllBluetoothPermissions(this) && !bluetoothDevices.contains(device)) {
-                bluetoothDevices.add(device);
-                devicesAdapter.add(device.getName() + "\n" + device.getAddress());
-                devicesAdapter.notifyDataSetChanged();
-            } else {
-                throw new SecurityException("Bluetooth connect permission not granted");
-            }
-        } catch (SecurityException e) {
-            Log.d(tag, "결과 처리할때: 권한이 부족하여 메인 액티비티로 이동합니다. 예외: " + e.getMessage());
-        }
+        ScanRecord record = result.getScanRecord();
+        String name = record != null ? record.getDeviceName() : null;
+        scanEngine.onAdvertisement(result.getDevice().getAddress(), name, result.getRssi());
     }
 
-    // 디바이스 연결
-    private void connectToDevice(BluetoothDevice device) {
+    // 디바이스 연결 (연결은 GattSessionManager가 유지하여 다음 화면에서 재사용)
+    private void connectToDevice(ScannedDevice device) {
         try {
             if (PermissionHelper.hasAllBluetoothPermissions(this)) {
                 Toast.makeText(this, "Connecting to " + device.getName(), Toast.LENGTH_SHORT).show();
+                // 연결 중에는 스캔을 멈춤 (스캔과 연결이 무선 시간을 나눠 씀)
+                stopScanning();
 
-                // device_mac을 기준으로 tb_deep_learning 테이블을 조회
-                boolean isDeviceInDeepLearning = dbHelper.isDeviceInDeepLearning(device.getAddress());
-
-                // device.connectGatt 호출
-                bluetoothGatt = device.connectGatt(this, false, new BluetoothGattCallback() {
-                    @Override
-                    public void onConnectionStateChange(BluetoothGatt gatt, int status, int newState) {
-                        handleConnectionStateChange(newState, device, isDeviceInDeepLearning);
-                    }
-
-                    @Override
-                    public void onServicesDiscovered(BluetoothGatt gatt, int status) {
-                        if (status == BluetoothGatt.GATT_SUCCESS) {
-                            // GATT 서비스 검색이 성공했을 때
-                            BluetoothGattService service = gatt.getService(SERVICE_UUID);
-                            if (service != null) {
-                                // 지정된 UUID를 가진 서비스가 존재할 때
-                                // 이곳에서 서비스 검색이 성공했음을 알리는 작업을 수행할 수 있습니다.
-                                runOnUiThread(() -> Toast.makeText(ScanActivity.this, "Service discovered for " + gatt.getDevice().getName(), Toast.LENGTH_SHORT).show());
-                            }
-                        }
-                    }
-                });
+                String deviceMac = device.getMac();
+                if (knownDevices != null) {
+                    startConnection(deviceMac, knownDevices.contains(deviceMac));
+                } else {
+                    // 기기 목록을 아직 읽지 못했으면 device_mac을 기준으로 tb_deep_learning 테이블을 백그라운드에서 조회
+                    backgroundExecutor.execute(() -> {
+                        boolean isDeviceInDeepLearning = dbHelper.isDeviceInDeepLearning(deviceMac);
+                        runOnUiThread(() -> startConnection(deviceMac, isDeviceInDeepLearning));
+                    });
+                }
             } else {
                 throw new SecurityException("Bluetooth connect permission not granted");
             }
@@ -201,27 +266,89 @@ public class ScanActivity extends AppCompatActivity {
         }
     }
 
+    private void startConnection(String deviceMac, boolean isDeviceInDeepLearning) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        releaseSession();
+        cancelFastReconnect();
+        try {
+            connectionListener = (session, state) -> handleConnectionStateChange(session, state, isDeviceInDeepLearning);
+            gattSession = GattSessionManager.getInstance(this).connect(deviceMac);
+            gattSession.addStateListener(connectionListener);
+        } catch (SecurityException e) {
+            Log.d(tag, "연결 성공때");
+            NavigationService.navigateToMainActivity(this);
+        }
+    }
+
+    // 아직 연결되지 않은 autoConnect 연결 취소 (기기가 나타날 때까지 계속 기다리므로)
+    private void cancelFastReconnect() {
+        if (reconnectMac == null) {
+            return;
+        }
+        GattSessionManager manager = GattSessionManager.getInstance(this);
+        GattSession pending = manager.get(reconnectMac);
+        if (pending != null && pending.getState() == GattSession.State.CONNECTING) {
+            manager.disconnect(reconnectMac);
+        }
+        reconnectMac = null;
+    }
+
     // 연결 상태 변경 처리
-    private void handleConnectionStateChange(int newState, BluetoothDevice device, boolean isDeviceInDeepLearning) {
-        if (newState == BluetoothGatt.STATE_CONNECTED) {
-            if (isDeviceInDeepLearning) {
-                // device_mac이 tb_deep_learning 테이블에 있는 경우 ActualActivity로 이동
-                navigateToActivity(ActualActivity.class, device.getAddress());
-            } else {
-                // device_mac이 tb_deep_learning 테이블에 없는 경우 WorkActivity로 이동
-                navigateToActivity(WorkActivity.class, device.getAddress());
-            }
-        } else if (newState == BluetoothGatt.STATE_DISCONNECTED) {
+    private void handleConnectionStateChange(GattSession session, GattSession.State state, boolean isDeviceInDeepLearning) {
+        if (state == GattSession.State.CONNECTED || state == GattSession.State.READY) {
+            runOnUiThread(() -> {
+                if (isFinishing()) {
+                    return;
+                }
+                if (isDeviceInDeepLearning) {
+                    // device_mac이 tb_deep_learning 테이블에 있는 경우 ActualActivity로 이동
+                    navigateAfterWarmUp(session.getDeviceMac());
+                } else {
+                    // device_mac이 tb_deep_learning 테이블에 없는 경우 WorkActivity로 이동
+                    navigateToActivity(WorkActivity.class, session.getDeviceMac());
+                }
+            });
+        } else if (state == GattSession.State.DISCONNECTED) {
             try {
-                runOnUiThread(() -> Toast.makeText(ScanActivity.this, "Failed to connect to " + device.getName(), Toast.LENGTH_SHORT).show());
+                runOnUiThread(() -> Toast.makeText(ScanActivity.this, "Failed to connect to " + session.getDevice().getName(), Toast.LENGTH_SHORT).show());
             } catch (SecurityException e) {
                 Log.d(tag, "블루투스 연결 실패");
             }
         }
     }
 
+    // 이 화면의 연결 상태 리스너 해제 (연결은 유지)
+    private void releaseSession() {
+        if (gattSession != null) {
+            gattSession.removeStateListener(connectionListener);
+            gattSession = null;
+        }
+    }
+
+    // 모델 미리 읽기가 진행 중이면 끝난 뒤 ActualActivity로 이동
+    // (ActualActivity가 미리 읽기와 동시에 같은 Interpreter를 읽고 실행하지 않도록)
+    private void navigateAfterWarmUp(String deviceAddress) {
+        if (modelWarmUp == null || modelWarmUp.isDone()) {
+            navigateToActivity(ActualActivity.class, deviceAddress);
+            return;
+        }
+        if (backgroundExecutor.isShutdown()) {
+            return;
+        }
+        // 단일 스레드 실행기이므로 미리 읽기 다음에 실행됨
+        backgroundExecutor.execute(() -> runOnUiThread(() -> {
+            if (!isFinishing()) {
+                navigateToActivity(ActualActivity.class, deviceAddress);
+            }
+        }));
+    }
+
     // 다른 액티비티로 이동
     private void navigateToActivity(Class<?> activityClass, String deviceAddress) {
+        // 다음 실행 때 이 장갑에 바로 재연결
+        KnownDevices.setLastDeviceMac(this, deviceAddress);
         Intent intent = new Intent(ScanActivity.this, activityClass);
         intent.putExtra("device_address", deviceAddress);
         startActivity(intent);
@@ -231,25 +358,12 @@ public class ScanActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        try {
-            if (PermissionHelper.hasAllBluetoothPermissions(this)) {
-                bluetoothAdapter.getBluetoothLeScanner().stopScan(scanCallback);
-            } else {
-                throw new SecurityException("Bluetooth scan permission not granted");
-            }
-        } catch (SecurityException e) {
-            Log.d(tag, "액티비티 끌때");
-        }
+        stopScanning();
+        backgroundExecutor.shutdown();
 
-        // bluetoothGatt 객체가 null이 아닌 경우 close() 메서드 호출
-        if (bluetoothGatt != null) {
-            try {
-                bluetoothGatt.close();
-                bluetoothGatt = null;
-            } catch (SecurityException e) {
-                bluetoothGatt = null;
-            }
-        }
+        // 연결은 다음 화면에서 계속 사용하므로 리스너만 해제
+        releaseSession();
+        cancelFastReconnect();
     }
 
     @Override
@@ -265,7 +379,9 @@ public class ScanActivity extends AppCompatActivity {
             }
             if (allGranted) {
                 // 모든 권한이 허용된 경우 스캔 시작 이동
+                bluetoothReady = bluetoothAdapter != null && bluetoothAdapter.isEnabled();
                 startScanning();
+                startFastReconnect();
             } else {
                 // 권한이 거부된 경우 사용자에게 알림
                 Toast.makeText(this, "Bluetooth permissions are required to scan devices.", Toast.LENGTH_SHORT).show();
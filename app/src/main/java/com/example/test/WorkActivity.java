@@ -1,54 +1,68 @@
 package com.example.test;
 
-import android.Manifest;
-import android.bluetooth.BluetoothAdapter;
-import android.bluetooth.BluetoothDevice;
-import android.bluetooth.BluetoothGatt;
-import android.bluetooth.BluetoothGattCallback;
-import android.bluetooth.BluetoothGattCharacteristic;
-import android.bluetooth.BluetoothGattService;
 import android.content.Intent;
-import android.content.pm.PackageManager;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
-import android.os.Handler;
+import android.util.Log;
+import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.Spinner;
+import android.widget.TextView;
 import android.widget.Toast;
-import android.database.Cursor;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.content.ContextCompat;
 
+import com.example.test.ble.GattSession;
+import com.example.test.ble.GattSessionManager;
 import com.example.test.helper.DatabaseHelper;
 import com.example.test.helper.NavigationService;
+import com.example.test.metrics.MetricsOverlay;
+import com.example.test.metrics.MetricsRegistry;
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorPacketDecoder;
+import com.example.test.storage.SensingArchiver;
+import com.example.test.storage.SensingBatchWriter;
+import com.example.test.storage.SensingCounter;
+import com.example.test.storage.SensingDataCleaner;
+import com.example.test.storage.SensingPipeline;
+import com.example.test.storage.SensingSample;
+import com.example.test.storage.SensingTimestampFormatter;
 
+import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class WorkActivity extends AppCompatActivity {
 
-    // Bluetooth 서비스와 특성의 UUID 정의
-    private static final UUID SERVICE_UUID = UUID.fromString("4fafc201-1fb5-459e-8fcc-c5c9c331914b");
-    private static final UUID CHARACTERISTIC_UUID = UUID.fromString("beb5483e-36e1-4688-b7f5-ea07361b26a8");
-
-    // BluetoothGatt 객체 선언
-    private BluetoothGatt bluetoothGatt;
+    // 기기 연결 세션 (GattSessionManager가 소유, 화면을 닫아도 연결 유지)
+    private GattSession gattSession;
+    private final GattSession.StateListener stateListener = this::onConnectionStateChanged;
+    // 수집 중에만 세션에 등록하는 센서 샘플 리스너 (패킷 디코딩은 세션에서 처리)
+    private final SensorPacketDecoder.SampleListener sampleListener = this::handleSensorSample;
     // 데이터베이스 헬퍼 객체 선언
     private DatabaseHelper dbHelper;
+    // 센싱 데이터 배치 저장 객체 (저장 스레드에서만 사용)
+    private SensingBatchWriter sensingWriter;
+    // 센싱 데이터 저장 파이프라인 (GATT 콜백 스레드는 대기열에 넣기만 함)
+    private SensingPipeline sensingPipeline;
+    // 기기별 센싱 데이터 개수 (매 프레임마다 COUNT(*) 조회하지 않음)
+    private final SensingCounter sensingCounter = new SensingCounter();
     // Bluetooth 장치의 MAC 주소를 저장할 변수
     private String deviceMac;
-    // 핸들러 및 Runnable 객체 선언
-    private Handler handler;
-    private Runnable runnable;
+    // 샘플 시각을 저장 형식 문자열로 변환 (GATT 콜백 스레드에서만 사용, 패킷 디코딩은 GattSession에서 처리)
+    private final SensingTimestampFormatter timestampFormatter = new SensingTimestampFormatter();
     // 데이터 수집 상태를 나타내는 변수
     private boolean isRecording = false;
     // 선택된 성별을 저장할 변수
     private String selectedGender;
+    // 학습을 시작하는 센싱 데이터 개수
+    private static final int TRAINING_SAMPLE_THRESHOLD = 6000;
+    // 학습 화면으로 한 번만 이동 (저장 스레드에서 flush마다 확인하므로 중복 실행 방지)
+    private final AtomicBoolean trainingRequested = new AtomicBoolean();
+    // 디버그 빌드에서만 표시하는 지표 오버레이 (수집/저장 경로의 ble.*, storage.* 지표 확인용)
+    private MetricsOverlay metricsOverlay;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -56,25 +70,31 @@ public class WorkActivity extends AppCompatActivity {
         setContentView(R.layout.activity_work);
 
         // 데이터베이스 초기화 및 설정
-        dbHelper = new DatabaseHelper(this);
+        dbHelper = DatabaseHelper.getInstance(this);
+        sensingWriter = new SensingBatchWriter(dbHelper);
+        sensingPipeline = new SensingPipeline(sensingWriter, sensingCounter, new SensingPipeline.Listener() {
+            @Override
+            public void onFlushed(int flushedCount) {
+                // 센싱 데이터 개수가 6000개 이상인 경우 모델학습을 위해 RunningActivity로 이동
+                checkSensingDataCount();
+            }
 
-        try {
-            dbHelper.createDatabase();
-            dbHelper.openDatabase();
-        } catch (IOException e) {
-            throw new RuntimeException("Error creating database", e);
-        }
+            @Override
+            public void onError(RuntimeException e) {
+                Log.e("WorkActivity", "Error saving sensing data", e);
+            }
+        });
+        sensingPipeline.start();
 
         // 인텐트에서 Bluetooth 장치의 MAC 주소를 가져옴
         Intent intent = getIntent();
         deviceMac = intent.getStringExtra("device_address");
 
-        // BluetoothAdapter와 BluetoothDevice 객체 초기화
-        BluetoothAdapter bluetoothAdapter = BluetoothAdapter.getDefaultAdapter();
-        BluetoothDevice device = bluetoothAdapter.getRemoteDevice(deviceMac);
+        // 세션 시작 시 한 번만 데이터베이스에서 센싱 데이터 개수 조회
+        sensingPipeline.submit(() -> sensingCounter.seed(deviceMac, dbHelper.getSensingDataCount(deviceMac)));
 
         // Bluetooth 장치에 연결
-        connectToDevice(device);
+        connectToDevice();
 
         // 성별 선택 스피너 설정
         Spinner genderSpinner = findViewById(R.id.gender_spinner);
@@ -101,173 +121,175 @@ public class WorkActivity extends AppCompatActivity {
             }
 
             // 학습 데이터 개수 확인 및 RunningActivity로 이동
-            if (getSensingDataCount() > 6000) {
-                Intent runningIntent = new Intent(WorkActivity.this, RunningActivity.class);
-                runningIntent.putExtra("device_address", deviceMac);
-                runningIntent.putExtra("selected_gender", selectedGender);
-                startActivity(runningIntent);
-            }
+            sensingPipeline.submit(this::checkSensingDataCount);
         });
 
         resetButton.setOnClickListener(v -> resetSensingData());
+
+        setUpMetricsOverlay();
+    }
+
+    // 디버그 빌드에서 지표 오버레이 표시, 길게 누르면 현재 지표를 파일로 저장
+    private void setUpMetricsOverlay() {
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) {
+            return;
+        }
+        TextView metricsTextView = findViewById(R.id.metrics_text_view);
+        metricsTextView.setVisibility(View.VISIBLE);
+        metricsOverlay = new MetricsOverlay(metricsTextView, MetricsRegistry.getInstance());
+        metricsTextView.setOnLongClickListener(v -> {
+            dumpMetrics();
+            return true;
+        });
+    }
+
+    // 외부 앱 저장소(getExternalFilesDir)에 저장, 사용할 수 없으면 내부 저장소(getFilesDir)
+    private void dumpMetrics() {
+        long now = System.currentTimeMillis();
+        File dir = getExternalFilesDir(null);
+        File file = new File(dir != null ? dir : getFilesDir(), "metrics-" + now + ".txt");
+        try {
+            MetricsRegistry.getInstance().writeTo(file, "# " + deviceMac + " " + now);
+            Toast.makeText(this, "Metrics saved to " + file.getPath(), Toast.LENGTH_SHORT).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "Cannot save metrics: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (metricsOverlay != null) {
+            metricsOverlay.start();
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (metricsOverlay != null) {
+            metricsOverlay.stop();
+        }
     }
 
     // 데이터 수집 시작
     private void startRecording() {
         isRecording = true;
-        handler = new Handler();
-        runnable = new Runnable() {
-            @Override
-            public void run() {
-                if (isRecording) {
-                    // 센서 데이터 읽기
-                    readCharacteristicData();
-                    handler.postDelayed(this, 50); // 50ms 간격으로 실행 (초당 20번)
-                }
-            }
-        };
-        handler.post(runnable);
+        // 기록할 때마다 새 세션 (저장 스레드에서 순서대로 실행되므로 이후 샘플은 새 세션으로 저장)
+        sensingPipeline.submit(() -> sensingWriter.setSessionId(dbHelper.startSensingSession(deviceMac)));
+        // 프레임 리스너를 등록하면 세션이 센서 수집을 시작 (notify 스트리밍, 미지원 시 폴링)
+        if (gattSession != null) {
+            gattSession.addSampleListener(sampleListener);
+        }
     }
 
     // 데이터 수집 중지
     private void stopRecording() {
         isRecording = false;
-        if (handler != null && runnable != null) {
-            handler.removeCallbacks(runnable);
+        if (gattSession != null) {
+            gattSession.removeSampleListener(sampleListener);
         }
+        // 버퍼에 남은 센싱 데이터 저장 후 세션 종료, 끝난 세션은 백그라운드에서 보관 파일로 옮김
+        sensingPipeline.flush();
+        sensingPipeline.submit(() -> {
+            long sessionId = sensingWriter.getSessionId();
+            if (sessionId == SensingBatchWriter.NO_SESSION) {
+                return;
+            }
+            sensingWriter.setSessionId(SensingBatchWriter.NO_SESSION);
+            dbHelper.endSensingSession(sessionId);
+            SensingArchiver.getInstance(dbHelper).requestArchive();
+        });
     }
 
     // 센싱 데이터 초기화
     private void resetSensingData() {
-        dbHelper.resetSensingData();
-        Toast.makeText(this, "학습데이터 초기화 완료.", Toast.LENGTH_SHORT).show();
+        sensingPipeline.reset(() -> {
+            dbHelper.resetSensingData();
+            SensingDataCleaner.getInstance(dbHelper).requestCleanup();
+            // 기록 중이던 세션도 폐기되었으므로 이후 샘플은 새 세션으로 저장
+            if (sensingWriter.getSessionId() != SensingBatchWriter.NO_SESSION) {
+                sensingWriter.setSessionId(dbHelper.startSensingSession(deviceMac));
+            }
+            runOnUiThread(() -> Toast.makeText(this, "학습데이터 초기화 완료.", Toast.LENGTH_SHORT).show());
+        });
     }
 
-    // 센싱 데이터 개수 가져오기
-    private int getSensingDataCount() {
-        Cursor cursor = dbHelper.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM tb_sensing", null);
-        int count = 0;
-        if (cursor.moveToFirst()) {
-            count = cursor.getInt(0);
+    // 학습 데이터 개수 확인 후 RunningActivity로 이동 (저장 스레드에서 실행)
+    private void checkSensingDataCount() {
+        if (getSensingDataCount() > TRAINING_SAMPLE_THRESHOLD && trainingRequested.compareAndSet(false, true)) {
+            runOnUiThread(this::startTraining);
         }
-        cursor.close();
-        return count;
     }
 
-    // Bluetooth 장치에 연결
-    private void connectToDevice(BluetoothDevice device) {
-        try {
-            if (ContextCompat.checkSelfPermission(this, Manifest.permission.BLUETOOTH_CONNECT) == PackageManager.PERMISSION_GRANTED) {
-                bluetoothGatt = device.connectGatt(this, false, new BluetoothGattCallback() {
-                    @Override
-                    public void onConnectionStateChange(BluetoothGatt gatt, int status, int newState) {
-                        if (newState == BluetoothGatt.STATE_CONNECTED) {
-                            // 연결 성공 시
-                            runOnUiThread(() -> Toast.makeText(WorkActivity.this, "Connected to " + device.getName(), Toast.LENGTH_SHORT).show());
-                            gatt.discoverServices();
-                        } else if (newState == BluetoothGatt.STATE_DISCONNECTED) {
-                            // 연결 해제 시
-                            runOnUiThread(() -> Toast.makeText(WorkActivity.this, "Disconnected from " + device.getName(), Toast.LENGTH_SHORT).show());
-                            gatt.close();
-                        }
-                    }
-
-                    @Override
-                    public void onServicesDiscovered(BluetoothGatt gatt, int status) {
-                        if (status == BluetoothGatt.GATT_SUCCESS) {
-                            // 서비스 검색 성공 시
-                            BluetoothGattService service = gatt.getService(SERVICE_UUID);
-                            if (service != null) {
-                                BluetoothGattCharacteristic characteristic = service.getCharacteristic(CHARACTERISTIC_UUID);
-                                if (characteristic != null) {
-                                    readCharacteristic(gatt, characteristic);
-                                }
-                            }
-                        }
-                    }
-
-                    // 특성 읽기
-                    private void readCharacteristic(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic) {
-                        if (gatt != null && characteristic != null) {
-                            if (ContextCompat.checkSelfPermission(WorkActivity.this, Manifest.permission.BLUETOOTH_CONNECT) == PackageManager.PERMISSION_GRANTED) {
-                                gatt.readCharacteristic(characteristic);
-                            } else {
-                                throw new SecurityException("Bluetooth connect permission not granted");
-                            }
-                        }
-                    }
-
-                    @Override
-                    public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
-                        if (status == BluetoothGatt.GATT_SUCCESS) {
-                            // 특성 읽기 성공 시
-                            byte[] data = characteristic.getValue();
-                            int middleFlexSensor = (data[0] << 8) | (data[1] & 0xFF);
-                            int middlePressureSensor = (data[2] << 8) | (data[3] & 0xFF);
-                            int ringFlexSensor = (data[4] << 8) | (data[5] & 0xFF);
-                            int ringPressureSensor = (data[6] << 8) | (data[7] & 0xFF);
-                            int pinkyFlexSensor = (data[8] << 8) | (data[9] & 0xFF);
-                            int acceleration = (data[10] << 8) | (data[11] & 0xFF);
-                            int gyroscope = (data[12] << 8) | (data[13] & 0xFF);
-                            int magneticField = (data[14] << 8) | (data[15] & 0xFF);
-                            String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date());
-
-                            // 센싱 데이터 데이터베이스에 저장
-                            dbHelper.insertSensingData(deviceMac, selectedGender, middleFlexSensor, middlePressureSensor, ringFlexSensor,
-                                    ringPressureSensor, pinkyFlexSensor, acceleration, gyroscope, magneticField, timestamp);
-
-                            // 센싱 데이터 개수가 6000개 이상인 경우 모델학습을 위해 RunningActivity로 이동
-                            if (getSensingDataCount() > 6000) {
-                                Intent runningIntent = new Intent(WorkActivity.this, RunningActivity.class);
-                                runningIntent.putExtra("device_address", deviceMac);
-                                runningIntent.putExtra("selected_gender", selectedGender);
-                                startActivity(runningIntent);
-                            }
-                        }
-                    }
-                });
-            } else {
-                throw new SecurityException("Bluetooth connect permission not granted");
-            }
-        } catch (SecurityException e) {
-            NavigationService.navigateToMainActivity(this);
+    // 수집을 멈추고 학습 화면으로 한 번만 이동, 이 화면은 닫으며 파이프라인은 onDestroy에서 종료
+    private void startTraining() {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        if (isRecording) {
+            stopRecording();
         }
+        Intent runningIntent = new Intent(WorkActivity.this, RunningActivity.class);
+        runningIntent.putExtra("device_address", deviceMac);
+        runningIntent.putExtra("selected_gender", selectedGender);
+        startActivity(runningIntent);
+        finish();
+    }
+
+    // 센싱 데이터 개수 가져오기 (저장이 끝난 샘플만 포함)
+    private int getSensingDataCount() {
+        return sensingCounter.get(deviceMac);
     }
 
-    // 특성 데이터 읽기
-    private void readCharacteristicData() {
+    // Bluetooth 장치에 연결 (이미 연결된 세션이 있으면 재사용)
+    private void connectToDevice() {
         try {
-            if (bluetoothGatt != null) {
-                BluetoothGattService service = bluetoothGatt.getService(SERVICE_UUID);
-                if (service != null) {
-                    BluetoothGattCharacteristic characteristic = service.getCharacteristic(CHARACTERISTIC_UUID);
-                    if (characteristic != null) {
-                        if (ContextCompat.checkSelfPermission(this, Manifest.permission.BLUETOOTH_CONNECT) == PackageManager.PERMISSION_GRANTED) {
-                            bluetoothGatt.readCharacteristic(characteristic);
-                        } else {
-                            throw new SecurityException("Bluetooth connect permission not granted");
-                        }
-                    }
-                }
-            }
+            gattSession = GattSessionManager.getInstance(this).connect(deviceMac);
+            gattSession.addStateListener(stateListener);
         } catch (SecurityException e) {
             NavigationService.navigateToMainActivity(this);
         }
     }
 
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // BluetoothGatt 객체가 null이 아닌 경우 close() 메서드 호출
-        if (bluetoothGatt != null) {
+    // 연결 상태 변경 알림
+    private void onConnectionStateChanged(GattSession session, GattSession.State state) {
+        if (state != GattSession.State.READY && state != GattSession.State.DISCONNECTED) {
+            return;
+        }
+        runOnUiThread(() -> {
             try {
-                bluetoothGatt.close();
+                String name = session.getDevice().getName();
+                String message = state == GattSession.State.READY ? "Connected to " + name : "Disconnected from " + name;
+                Toast.makeText(WorkActivity.this, message, Toast.LENGTH_SHORT).show();
             } catch (SecurityException e) {
-                bluetoothGatt.close();
+                NavigationService.navigateToMainActivity(this);
             }
-            bluetoothGatt = null;
+        });
+    }
+
+    // 센서 데이터 처리
+    // timestampMicros: 묶음 패킷은 기기 시각 기준, 기존 16바이트 패킷은 수신 시각
+    private void handleSensorSample(SensorFrame sensorFrame, long timestampMicros) {
+        String timestamp = timestampFormatter.format(timestampMicros);
+
+        // 센싱 데이터 저장 대기열에 추가 (데이터베이스 저장은 저장 스레드에서 배치 단위로 처리)
+        sensingPipeline.offer(new SensingSample(deviceMac, selectedGender, sensorFrame.getMiddleFlexSensor(),
+                sensorFrame.getMiddlePressureSensor(), sensorFrame.getRingFlexSensor(), sensorFrame.getRingPressureSensor(),
+                sensorFrame.getPinkyFlexSensor(), sensorFrame.getAcceleration(), sensorFrame.getGyroscope(),
+                sensorFrame.getMagneticField(), timestamp));
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        stopRecording();
+        // 연결은 끊지 않고 이 화면의 리스너만 해제 (다음 화면에서 같은 연결 사용)
+        if (gattSession != null) {
+            gattSession.removeStateListener(stateListener);
+            gattSession = null;
         }
-        // 데이터베이스 닫기
-        dbHelper.close();
+        // 남은 센싱 데이터 저장 (데이터베이스는 앱 전체에서 공유하므로 닫지 않음)
+        sensingPipeline.close();
     }
 }
@@ -0,0 +1,80 @@
+package com.example.test.ble;
+
+import android.Manifest;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+import android.content.Context;
+import android.content.pm.PackageManager;
+
+import androidx.core.content.ContextCompat;
+
+import java.util.UUID;
+
+// BluetoothGatt 기반 GattTransport 구현
+public class AndroidGattTransport implements GattTransport {
+
+    // Client Characteristic Configuration Descriptor UUID
+    public static final UUID CCCD_UUID = UUID.fromString("00002902-0000-1000-8000-00805f9b34fb");
+
+    private final Context context;
+    private final BluetoothGatt gatt;
+    private final BluetoothGattCharacteristic characteristic;
+
+    public AndroidGattTransport(Context context, BluetoothGatt gatt, BluetoothGattCharacteristic characteristic) {
+        this.context = context;
+        this.gatt = gatt;
+        this.characteristic = characteristic;
+    }
+
+    @Override
+    public boolean supportsNotify() {
+        return (characteristic.getProperties() & BluetoothGattCharacteristic.PROPERTY_NOTIFY) != 0
+                && characteristic.getDescriptor(CCCD_UUID) != null;
+    }
+
+    @Override
+    public boolean enableNotifications() {
+        return writeNotificationState(true);
+    }
+
+    @Override
+    public boolean disableNotifications() {
+        return writeNotificationState(false);
+    }
+
+    @Override
+    public boolean requestRead() {
+        checkConnectPermission();
+        return gatt.readCharacteristic(characteristic);
+    }
+
+    @Override
+    public boolean requestWrite(byte[] value, boolean withResponse) {
+        checkConnectPermission();
+        boolean noResponse = !withResponse
+                && (characteristic.getProperties() & BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE) != 0;
+        characteristic.setWriteType(noResponse ? BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE
+                : BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT);
+        characteristic.setValue(value);
+        return gatt.writeCharacteristic(characteristic);
+    }
+
+    // 로컬 notify 등록 후 기기 쪽 CCCD에 설정값 쓰기
+    private boolean writeNotificationState(boolean enable) {
+        checkConnectPermission();
+        BluetoothGattDescriptor descriptor = characteristic.getDescriptor(CCCD_UUID);
+        if (descriptor == null || !gatt.setCharacteristicNotification(characteristic, enable)) {
+            return false;
+        }
+        descriptor.setValue(enable ? BluetoothGattDescriptor.ENABLE_NOTIFICATION_VALUE
+                : BluetoothGattDescriptor.DISABLE_NOTIFICATION_VALUE);
+        return gatt.writeDescriptor(descriptor);
+    }
+
+    private void checkConnectPermission() {
+        if (ContextCompat.checkSelfPermission(context, Manifest.permission.BLUETOOTH_CONNECT) != PackageManager.PERMISSION_GRANTED) {
+            throw new SecurityException("Bluetooth connect permission not granted");
+        }
+    }
+}
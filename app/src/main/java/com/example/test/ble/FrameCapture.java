@@ -0,0 +1,86 @@
+package com.example.test.ble;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+// 센서 특성으로 받은 패킷 기록 파일(.exfc)과 메모리에 읽어 들인 기록
+//
+//   [0..3]  "EXFC"
+//   [4]     버전 (1)
+//   레코드 반복 (파일 끝까지, 빅엔디언):
+//     수신 시각 (마이크로초, long, 단조 시계 기준이므로 간격만 의미 있음)
+//     패킷 길이 (부호 없는 16비트)
+//     패킷
+// 재생(ReplayGattTransport)은 수신 시각 간격을 그대로 또는 배속으로 재현합니다.
+public final class FrameCapture {
+
+    public static final byte[] MAGIC = {'E', 'X', 'F', 'C'};
+    public static final int VERSION = 1;
+    public static final String FILE_EXTENSION = ".exfc";
+    public static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+    private final long[] arrivalMicros;
+    private final byte[][] frames;
+
+    FrameCapture(long[] arrivalMicros, byte[][] frames) {
+        this.arrivalMicros = arrivalMicros;
+        this.frames = frames;
+    }
+
+    // 기록 전체를 읽음, 형식이 잘못되었으면 IOException
+    // 기록 중 앱이 종료되어 마지막 레코드가 잘렸으면 그 레코드만 버립니다.
+    public static FrameCapture read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        for (byte expected : MAGIC) {
+            if (data.read() != (expected & 0xFF)) {
+                throw new IOException("Not a frame capture");
+            }
+        }
+        int version = data.read();
+        if (version != VERSION) {
+            throw new IOException("Unsupported frame capture version " + version);
+        }
+        long[] times = new long[256];
+        byte[][] payloads = new byte[256][];
+        int count = 0;
+        while (true) {
+            long time;
+            byte[] frame;
+            try {
+                time = data.readLong();
+                frame = new byte[data.readUnsignedShort()];
+                data.readFully(frame);
+            } catch (EOFException e) {
+                break;
+            }
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+                payloads = Arrays.copyOf(payloads, count * 2);
+            }
+            times[count] = time;
+            payloads[count] = frame;
+            count++;
+        }
+        return new FrameCapture(Arrays.copyOf(times, count), Arrays.copyOf(payloads, count));
+    }
+
+    public int size() {
+        return frames.length;
+    }
+
+    public long getArrivalMicros(int index) {
+        return arrivalMicros[index];
+    }
+
+    public byte[] getFrame(int index) {
+        return frames[index];
+    }
+
+    // 첫 패킷부터 마지막 패킷까지 걸린 시간 (마이크로초)
+    public long getDurationMicros() {
+        return frames.length == 0 ? 0 : arrivalMicros[frames.length - 1] - arrivalMicros[0];
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.test.ble;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// 수신한 패킷을 FrameCapture 형식으로 기록
+// GATT 콜백 스레드에서 호출되므로 버퍼(64KB)에 모았다가 가득 찰 때만 파일에 씁니다.
+public class FrameCaptureWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private long frameCount;
+    private boolean closed;
+
+    public FrameCaptureWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        this.out.write(FrameCapture.MAGIC);
+        this.out.write(FrameCapture.VERSION);
+    }
+
+    public synchronized void write(byte[] frame, long arrivalMicros) throws IOException {
+        if (closed) {
+            throw new IOException("Capture writer is closed");
+        }
+        if (frame.length > FrameCapture.MAX_FRAME_LENGTH) {
+            throw new IOException("Frame too long: " + frame.length);
+        }
+        out.writeLong(arrivalMicros);
+        out.writeShort(frame.length);
+        out.write(frame);
+        frameCount++;
+    }
+
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        out.close();
+    }
+}
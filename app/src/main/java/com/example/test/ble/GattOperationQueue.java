@@ -0,0 +1,338 @@
+package com.example.test.ble;
+
+import com.example.test.metrics.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 연결 하나의 GATT 요청을 순서대로 하나씩 실행하는 대기열
+// 안드로이드 GATT는 연결당 진행 중인 요청을 하나만 허용하므로, 이전 요청의 콜백(onComplete)이 와야 다음 요청을 보냅니다.
+// 요청마다 시간 제한과 재시도 횟수를 두고, 종류별 완료/실패/시간 초과 횟수와 지연 시간 히스토그램을 기록합니다.
+// 대기 중인 요청은 MAX_PENDING개까지만 받고, 구동기 명령처럼 최신 값만 의미 있는 요청은 enqueueLatest로 교체합니다.
+public class GattOperationQueue {
+
+    public enum Type {
+        READ,
+        WRITE,
+        WRITE_NO_RESPONSE,
+        DESCRIPTOR_WRITE,
+        MTU,
+        PHY;
+
+        // 응답 없는 쓰기도 onCharacteristicWrite 콜백으로 완료됨
+        boolean completesWith(Type callbackType) {
+            return this == callbackType || (this == WRITE_NO_RESPONSE && callbackType == WRITE);
+        }
+    }
+
+    public static final long DEFAULT_TIMEOUT_MS = 1000;
+    public static final int DEFAULT_MAX_RETRIES = 2;
+    // 대기 중인 요청 최대 개수 (진행 중인 요청 제외), 넘으면 새 요청을 받지 않음
+    public static final int MAX_PENDING = 32;
+
+    // 대기열에 넣을 GATT 요청
+    public abstract static class Operation {
+        private final Type type;
+        private final long timeoutMs;
+        private final int maxRetries;
+        private int attempts;
+        private long sentAt;
+        // enqueueLatest로 추가됨 (대기 중에 같은 종류의 새 요청으로 교체될 수 있음)
+        private boolean replaceable;
+        // 현재 전송에 대한 시간 제한 작업 (전송마다 새로 만듦)
+        private Runnable timeoutTask;
+
+        protected Operation(Type type) {
+            this(type, DEFAULT_TIMEOUT_MS, DEFAULT_MAX_RETRIES);
+        }
+
+        protected Operation(Type type, long timeoutMs, int maxRetries) {
+            this.type = type;
+            this.timeoutMs = timeoutMs;
+            this.maxRetries = maxRetries;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        // 요청 전송, 전송되었으면 true (결과는 GATT 콜백으로 도착)
+        public abstract boolean execute();
+
+        // 재시도 후에도 실패했거나 시간 초과, 또는 대기열이 닫혀 실행되지 않은 경우
+        public void onFailed() {
+        }
+    }
+
+    // 요청 종류별 통계
+    public static class Stats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+        private final AtomicLong retried = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong replaced = new AtomicLong();
+
+        // 전송부터 콜백까지 지연 시간 (마이크로초)
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getCompletedCount() {
+            return completed.get();
+        }
+
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        public long getTimedOutCount() {
+            return timedOut.get();
+        }
+
+        public long getRetriedCount() {
+            return retried.get();
+        }
+
+        // 대기열이 가득 차서 받지 않은 요청 수
+        public long getRejectedCount() {
+            return rejected.get();
+        }
+
+        // 전송 전에 새 요청으로 교체된 요청 수
+        public long getReplacedCount() {
+            return replaced.get();
+        }
+    }
+
+    private final SensorStreamer.Scheduler scheduler;
+    private final LongSupplier nanoClock;
+    private final Map<Type, Stats> stats = new EnumMap<>(Type.class);
+    private final ArrayDeque<Operation> pending = new ArrayDeque<>();
+    private Operation inFlight;
+    private boolean closed;
+
+    public GattOperationQueue(SensorStreamer.Scheduler scheduler) {
+        this(scheduler, System::nanoTime);
+    }
+
+    public GattOperationQueue(SensorStreamer.Scheduler scheduler, LongSupplier nanoClock) {
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        for (Type type : Type.values()) {
+            stats.put(type, new Stats());
+        }
+    }
+
+    public Stats getStats(Type type) {
+        return stats.get(type);
+    }
+
+    // 요청 추가, 진행 중인 요청이 없으면 바로 실행
+    // 대기열이 닫혔거나 가득 찼거나, 바로 실행한 요청의 전송이 재시도 후에도 실패하면 false (이 경우 onFailed는 호출하지 않음)
+    public boolean enqueue(Operation operation) {
+        return enqueue(operation, false);
+    }
+
+    // 최신 값만 보내면 되는 요청 추가 (구동기 명령)
+    // 같은 종류로 enqueueLatest한 요청이 아직 대기 중이면 그 자리에서 새 요청으로 교체하므로 대기열에는 최대 하나만 남습니다.
+    // 진행 중인 요청은 교체하지 않으며, 교체된 요청은 실행하지 않고 onFailed도 호출하지 않습니다.
+    public boolean enqueueLatest(Operation operation) {
+        return enqueue(operation, true);
+    }
+
+    private boolean enqueue(Operation operation, boolean replaceable) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            operation.replaceable = replaceable;
+            if (inFlight != null || !pending.isEmpty()) {
+                if (replaceable && replacePending(operation)) {
+                    return true;
+                }
+                if (pending.size() >= MAX_PENDING) {
+                    stats.get(operation.type).rejected.incrementAndGet();
+                    return false;
+                }
+                pending.addLast(operation);
+                return true;
+            }
+            inFlight = operation;
+        }
+        if (sendWithRetry(operation)) {
+            return true;
+        }
+        drain();
+        return false;
+    }
+
+    // 대기 중인 같은 종류의 교체 가능한 요청을 operation으로 교체 (순서 유지), 없으면 false
+    private boolean replacePending(Operation operation) {
+        boolean found = false;
+        for (int i = pending.size(); i > 0; i--) {
+            Operation queued = pending.pollFirst();
+            if (!found && queued.replaceable && queued.type == operation.type) {
+                stats.get(queued.type).replaced.incrementAndGet();
+                queued = operation;
+                found = true;
+            }
+            pending.addLast(queued);
+        }
+        return found;
+    }
+
+    // 진행 중인 요청의 GATT 콜백이 도착했을 때 호출
+    // 종류가 다르면 이미 시간 초과로 넘어간 요청의 늦은 콜백이므로 무시합니다.
+    public void onComplete(Type callbackType, boolean success) {
+        Operation completed;
+        synchronized (this) {
+            if (inFlight == null || !inFlight.type.completesWith(callbackType)) {
+                return;
+            }
+            completed = inFlight;
+            cancelTimeout(completed);
+            Stats typeStats = stats.get(completed.type);
+            typeStats.latency.recordNanos(nanoClock.getAsLong() - completed.sentAt);
+            if (success) {
+                typeStats.completed.incrementAndGet();
+                inFlight = null;
+                completed = null;
+            }
+        }
+        if (completed != null) {
+            // 기기가 오류로 응답한 경우 남은 횟수만큼 다시 전송
+            retryOrFail(completed);
+        }
+        drain();
+    }
+
+    public synchronized boolean isBusy() {
+        return inFlight != null;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    // 대기 중인 요청을 모두 취소 (연결 해제 시), 이후 요청은 받지 않음
+    public void close() {
+        Operation[] cancelled;
+        synchronized (this) {
+            closed = true;
+            if (inFlight != null) {
+                cancelTimeout(inFlight);
+                pending.addFirst(inFlight);
+                inFlight = null;
+            }
+            cancelled = pending.toArray(new Operation[0]);
+            pending.clear();
+        }
+        for (Operation operation : cancelled) {
+            operation.onFailed();
+        }
+    }
+
+    // 다시 연결되었을 때 대기열 재사용
+    public synchronized void reopen() {
+        closed = false;
+    }
+
+    // attempt번째 전송의 응답이 시간 안에 오지 않은 경우
+    private void onTimeout(Operation operation, int attempt) {
+        synchronized (this) {
+            if (inFlight != operation || operation.attempts != attempt) {
+                // 이미 완료되었거나 다시 전송된 요청
+                return;
+            }
+            stats.get(operation.type).timedOut.incrementAndGet();
+        }
+        retryOrFail(operation);
+        drain();
+    }
+
+    // 진행 중인 요청을 다시 보내거나, 재시도 횟수를 넘으면 실패 처리
+    private void retryOrFail(Operation operation) {
+        boolean retry;
+        synchronized (this) {
+            if (inFlight != operation) {
+                return;
+            }
+            retry = !closed && operation.attempts <= operation.maxRetries;
+            if (!retry) {
+                inFlight = null;
+                stats.get(operation.type).failed.incrementAndGet();
+            }
+        }
+        if (!retry || !sendWithRetry(operation)) {
+            operation.onFailed();
+        }
+    }
+
+    // 전송에 성공한 요청이 나올 때까지 대기열에서 꺼내 실행
+    private void drain() {
+        while (true) {
+            Operation next;
+            synchronized (this) {
+                if (inFlight != null || closed || pending.isEmpty()) {
+                    return;
+                }
+                next = pending.pollFirst();
+                inFlight = next;
+            }
+            if (sendWithRetry(next)) {
+                return;
+            }
+            next.onFailed();
+        }
+    }
+
+    private void cancelTimeout(Operation operation) {
+        if (operation.timeoutTask != null) {
+            scheduler.cancel(operation.timeoutTask);
+            operation.timeoutTask = null;
+        }
+    }
+
+    // 요청 전송 (전송 자체가 실패하면 재시도 횟수 안에서 바로 다시 시도)
+    // 전송되면 시간 제한 예약, 끝내 실패하면 진행 중 표시를 해제하고 false
+    // attempts/sentAt은 onTimeout, onComplete와 같은 잠금 안에서 갱신하고, execute()만 잠금 밖에서 호출합니다.
+    private boolean sendWithRetry(Operation operation) {
+        while (true) {
+            synchronized (this) {
+                if (operation.attempts > 0) {
+                    stats.get(operation.type).retried.incrementAndGet();
+                }
+                operation.attempts++;
+                operation.sentAt = nanoClock.getAsLong();
+            }
+            boolean sent;
+            try {
+                sent = operation.execute();
+            } catch (SecurityException e) {
+                sent = false;
+            }
+            synchronized (this) {
+                if (sent) {
+                    if (inFlight == operation) {
+                        int attempt = operation.attempts;
+                        operation.timeoutTask = () -> onTimeout(operation, attempt);
+                        scheduler.schedule(operation.timeoutTask, operation.timeoutMs);
+                    }
+                    return true;
+                }
+                if (closed || operation.attempts > operation.maxRetries) {
+                    if (inFlight == operation) {
+                        inFlight = null;
+                    }
+                    stats.get(operation.type).failed.incrementAndGet();
+                    return false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,647 @@
+package com.example.test.ble;
+
+import android.Manifest;
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+import android.bluetooth.BluetoothGattService;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.test.metrics.Counter;
+import com.example.test.metrics.LatencyHistogram;
+import com.example.test.metrics.MetricsRegistry;
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorPacketDecoder;
+import com.example.test.sensor.SequenceTracker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 장갑 한 대와의 GATT 연결 (화면 전환과 관계없이 유지)
+// 모든 GATT 요청은 연결별 GattOperationQueue로 순서대로 실행하고, 센서 프레임은 등록된 리스너 모두에게 전달합니다.
+// 샘플 리스너에는 연결별 디코더 하나로 디코딩한 샘플을 전달하므로 패킷 손실 통계도 연결 단위로 집계됩니다.
+// 실제 기기 대신 기록한 패킷을 재생(startReplay)할 수 있고, 받은 패킷을 파일로 기록(startCapture)할 수 있습니다.
+// 패킷 도착 간격, 디코딩 시간, 샘플 수, 대기열 길이, 요청 지연 시간은 "ble.<MAC>." 지표로 기록합니다.
+public class GattSession {
+
+    private static final String TAG = "GattSession";
+
+    // 장갑 펌웨어의 서비스/센서 특성 UUID
+    public static final UUID SERVICE_UUID = UUID.fromString("4fafc201-1fb5-459e-8fcc-c5c9c331914b");
+    public static final UUID CHARACTERISTIC_UUID = UUID.fromString("beb5483e-36e1-4688-b7f5-ea07361b26a8");
+
+    // 요청할 MTU (데이터 길이 확장 시 링크 계층 패킷 하나에 들어가는 최대 크기)
+    // ATT 헤더를 뺀 244바이트 = 묶음 패킷 헤더 10바이트 + 16바이트 프레임 최대 14개
+    public static final int PREFERRED_MTU = 247;
+    // MTU 협상은 연결 직후 한 번만 하므로 시간 제한을 길게 둠
+    private static final long LINK_REQUEST_TIMEOUT_MS = 3000;
+    // PHY가 이미 2M이거나 기기가 요청을 무시하면 onPhyUpdate가 오지 않을 수 있으므로
+    // 센서 수집(CCCD 쓰기)이 오래 기다리지 않도록 짧게 기다린 뒤 현재 PHY를 읽음 (onPhyRead)
+    private static final long PHY_REQUEST_TIMEOUT_MS = 300;
+
+    public enum State {
+        DISCONNECTED,
+        CONNECTING,
+        // 연결됨, 서비스 검색 중
+        CONNECTED,
+        // 서비스 검색 완료, 센서 수집/명령 전송 가능
+        READY
+    }
+
+    // 연결 상태 리스너 (GATT 콜백 스레드에서 호출될 수 있음)
+    public interface StateListener {
+        void onStateChanged(GattSession session, State state);
+    }
+
+    private final Context context;
+    private final BluetoothDevice device;
+    private final String deviceMac;
+    private final GattOperationQueue operations = new GattOperationQueue(new HandlerScheduler());
+    private final CopyOnWriteArrayList<StateListener> stateListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<SensorStreamer.FrameListener> frameListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<SensorPacketDecoder.SampleListener> sampleListeners = new CopyOnWriteArrayList<>();
+    private final SensorStreamer.FrameListener dispatcher = this::dispatchFrame;
+    private final SensorPacketDecoder packetDecoder = new SensorPacketDecoder();
+    private final SensorPacketDecoder.SampleListener sampleDispatcher = this::dispatchSample;
+
+    private volatile State state = State.DISCONNECTED;
+    private BluetoothGatt gatt;
+    // GATT 콜백/폴링 스레드에서 잠금 없이 읽음 (세션 잠금과 SensorStreamer 잠금의 순서 역전 방지)
+    private volatile GattTransport transport;
+    private volatile SensorStreamer streamer;
+    // 실제로 협상된 링크 설정
+    private volatile LinkParameters linkParameters = LinkParameters.DEFAULT;
+    private volatile FrameCaptureWriter captureWriter;
+
+    private final LatencyHistogram notifyInterval;
+    private final LatencyHistogram readInterval;
+    private final LatencyHistogram decodeTime;
+    private final Counter sampleCount;
+    // 마지막 패킷 도착 시각 (GATT 콜백 스레드에서 갱신, 연결 시작 시 초기화)
+    private volatile long lastNotifyNanos;
+    private volatile long lastReadNanos;
+    // 디코딩 중 샘플 리스너에서 보낸 시간 (packetDecoder 잠금 안에서만 사용)
+    private long listenerNanos;
+
+    GattSession(Context context, BluetoothDevice device) {
+        this.context = context;
+        this.device = device;
+        this.deviceMac = device.getAddress();
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        String prefix = "ble." + deviceMac + ".";
+        notifyInterval = metrics.histogram(prefix + "notify_interval_us");
+        readInterval = metrics.histogram(prefix + "read_interval_us");
+        decodeTime = metrics.histogram(prefix + "decode_ns");
+        sampleCount = metrics.counter(prefix + "samples");
+        metrics.gauge(prefix + "queue_depth", operations::getPendingCount);
+        metrics.gauge(prefix + "writes_replaced", operations.getStats(GattOperationQueue.Type.WRITE)::getReplacedCount);
+        metrics.register(prefix + "read_us", operations.getStats(GattOperationQueue.Type.READ).getLatency());
+        metrics.register(prefix + "write_us", operations.getStats(GattOperationQueue.Type.WRITE).getLatency());
+    }
+
+    public String getDeviceMac() {
+        return deviceMac;
+    }
+
+    public BluetoothDevice getDevice() {
+        return device;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public synchronized SensorStreamer.Mode getStreamingMode() {
+        return streamer != null ? streamer.getMode() : SensorStreamer.Mode.IDLE;
+    }
+
+    public LinkParameters getLinkParameters() {
+        return linkParameters;
+    }
+
+    // 요청 종류별 완료/실패/시간 초과 횟수와 지연 시간
+    public GattOperationQueue.Stats getOperationStats(GattOperationQueue.Type type) {
+        return operations.getStats(type);
+    }
+
+    // 리스너 등록 시 현재 상태를 한 번 전달
+    public void addStateListener(StateListener listener) {
+        stateListeners.addIfAbsent(listener);
+        listener.onStateChanged(this, state);
+    }
+
+    public void removeStateListener(StateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    // 프레임(원본 패킷) 또는 샘플 리스너가 하나 이상이면 센서 수집, 모두 해제되면 수집 중지
+    public void addFrameListener(SensorStreamer.FrameListener listener) {
+        frameListeners.addIfAbsent(listener);
+        updateStreaming();
+    }
+
+    public void removeFrameListener(SensorStreamer.FrameListener listener) {
+        frameListeners.remove(listener);
+        updateStreaming();
+    }
+
+    // 디코딩된 샘플 리스너 (기존 16바이트 패킷과 묶음 패킷 모두 샘플 단위로 전달)
+    public void addSampleListener(SensorPacketDecoder.SampleListener listener) {
+        sampleListeners.addIfAbsent(listener);
+        updateStreaming();
+    }
+
+    public void removeSampleListener(SensorPacketDecoder.SampleListener listener) {
+        sampleListeners.remove(listener);
+        updateStreaming();
+    }
+
+    // 연결 이후 패킷 순번 기준 손실/중복/순서 바뀜 통계 (묶음 패킷만 해당)
+    public SequenceTracker getLossStats() {
+        return packetDecoder.getSequenceTracker();
+    }
+
+    // 센서 특성에 명령 쓰기 (대기열을 거쳐 이전 요청이 끝난 뒤 전송)
+    public boolean write(String value) {
+        return write(value.getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    public boolean write(byte[] value, boolean withResponse) {
+        GattTransport current = transport;
+        if (current == null) {
+            return false;
+        }
+        GattOperationQueue.Type type = withResponse ? GattOperationQueue.Type.WRITE : GattOperationQueue.Type.WRITE_NO_RESPONSE;
+        // 재시도하지 않음: 시간 초과는 기기가 명령을 받았는지 알 수 없으므로 다시 보내면 구동기 명령이 중복될 수 있음
+        // (명령은 모델 출력이 바뀔 때마다 새로 보내므로 놓친 명령은 다음 명령으로 대체됨)
+        // 이전 명령이 아직 대기 중이면 새 명령으로 교체하여 오래된 명령이 쌓이지 않도록 함
+        return operations.enqueueLatest(new GattOperationQueue.Operation(type, GattOperationQueue.DEFAULT_TIMEOUT_MS, 0) {
+            @Override
+            public boolean execute() {
+                return current.requestWrite(value, withResponse);
+            }
+
+            @Override
+            public void onFailed() {
+                Log.w(TAG, "Write failed on " + deviceMac);
+            }
+        });
+    }
+
+    // 연결 시작 (이미 연결 중이거나 연결되어 있으면 무시)
+    // autoConnect: 기기가 범위에 들어오면 연결 (스캔 없이 이전에 쓰던 기기에 재연결할 때 사용, 시간 제한 없음)
+    synchronized void connect(boolean autoConnect) {
+        if (gatt != null || transport != null) {
+            return;
+        }
+        checkConnectPermission();
+        operations.reopen();
+        synchronized (packetDecoder) {
+            packetDecoder.reset();
+        }
+        lastNotifyNanos = 0;
+        lastReadNanos = 0;
+        setState(State.CONNECTING);
+        gatt = device.connectGatt(context, autoConnect, callback);
+    }
+
+    // 실제 기기 대신 기록한 패킷 재생 (이미 연결 중이거나 연결되어 있으면 무시)
+    // 서비스 검색이 끝난 것처럼 바로 READY가 되고, 이후 데이터 경로(디코딩, 리스너, 명령 쓰기)는 실제 연결과 같습니다.
+    synchronized void startReplay(ReplayGattTransport replay) {
+        if (gatt != null || transport != null) {
+            return;
+        }
+        operations.reopen();
+        synchronized (packetDecoder) {
+            packetDecoder.reset();
+        }
+        lastNotifyNanos = 0;
+        lastReadNanos = 0;
+        replay.setCallback(transportCallback);
+        transport = replay;
+        streamer = new SensorStreamer(new QueuedTransport(replay), new HandlerScheduler(), dispatcher);
+        setState(State.READY);
+        updateStreaming();
+    }
+
+    // 받은 패킷을 out에 기록 시작 (FrameCapture 형식, 재생/벤치마크용), 이전 기록은 종료
+    public void startCapture(OutputStream out) throws IOException {
+        FrameCaptureWriter previous = captureWriter;
+        captureWriter = new FrameCaptureWriter(out);
+        closeCapture(previous);
+    }
+
+    // 기록 종료, 기록한 패킷 수 반환
+    public long stopCapture() {
+        FrameCaptureWriter writer = captureWriter;
+        captureWriter = null;
+        closeCapture(writer);
+        return writer != null ? writer.getFrameCount() : 0;
+    }
+
+    // 연결 종료 및 자원 해제
+    void close() {
+        BluetoothGatt closing;
+        synchronized (this) {
+            closing = gatt;
+            gatt = null;
+            stopStreamer();
+            if (transport instanceof ReplayGattTransport) {
+                ((ReplayGattTransport) transport).stop();
+            }
+            transport = null;
+            linkParameters = LinkParameters.DEFAULT;
+        }
+        operations.close();
+        stopCapture();
+        if (closing != null) {
+            try {
+                closing.disconnect();
+                closing.close();
+            } catch (SecurityException e) {
+                Log.w(TAG, "Cannot close " + deviceMac, e);
+            }
+        }
+        setState(State.DISCONNECTED);
+    }
+
+    private final BluetoothGattCallback callback = new BluetoothGattCallback() {
+        @Override
+        public void onConnectionStateChange(BluetoothGatt gatt, int status, int newState) {
+            if (!isCurrent(gatt)) {
+                // 이미 닫은 이전 연결의 콜백
+                return;
+            }
+            if (newState == BluetoothGatt.STATE_CONNECTED) {
+                setState(State.CONNECTED);
+                try {
+                    gatt.discoverServices();
+                } catch (SecurityException e) {
+                    close();
+                }
+            } else if (newState == BluetoothGatt.STATE_DISCONNECTED) {
+                close();
+            }
+        }
+
+        @Override
+        public void onServicesDiscovered(BluetoothGatt gatt, int status) {
+            if (status != BluetoothGatt.GATT_SUCCESS) {
+                return;
+            }
+            BluetoothGattService service = gatt.getService(SERVICE_UUID);
+            BluetoothGattCharacteristic characteristic = service != null ? service.getCharacteristic(CHARACTERISTIC_UUID) : null;
+            if (characteristic == null) {
+                Log.w(TAG, "Sensor characteristic not found on " + deviceMac);
+                return;
+            }
+            synchronized (GattSession.this) {
+                transport = new AndroidGattTransport(context, gatt, characteristic);
+                streamer = new SensorStreamer(new QueuedTransport(transport), new HandlerScheduler(), dispatcher);
+            }
+            // 센서 수집(CCCD 쓰기)보다 먼저 대기열에 넣어 큰 MTU/2M PHY에서 수집 시작
+            tuneLink(gatt);
+            setState(State.READY);
+            updateStreaming();
+        }
+
+        @Override
+        public void onDescriptorWrite(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
+            if (AndroidGattTransport.CCCD_UUID.equals(descriptor.getUuid())) {
+                transportCallback.onNotificationStateWritten(status == BluetoothGatt.GATT_SUCCESS);
+            } else {
+                operations.onComplete(GattOperationQueue.Type.DESCRIPTOR_WRITE, status == BluetoothGatt.GATT_SUCCESS);
+            }
+        }
+
+        @Override
+        public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+            transportCallback.onCharacteristicRead(characteristic.getValue(), status == BluetoothGatt.GATT_SUCCESS);
+        }
+
+        @Override
+        public void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+            transportCallback.onCharacteristicWrite(status == BluetoothGatt.GATT_SUCCESS);
+        }
+
+        @Override
+        public void onMtuChanged(BluetoothGatt gatt, int mtu, int status) {
+            if (status == BluetoothGatt.GATT_SUCCESS) {
+                linkParameters = linkParameters.withMtu(mtu);
+                Log.i(TAG, "Link tuned on " + deviceMac + ": " + linkParameters);
+            }
+            operations.onComplete(GattOperationQueue.Type.MTU, status == BluetoothGatt.GATT_SUCCESS);
+        }
+
+        @Override
+        public void onPhyUpdate(BluetoothGatt gatt, int txPhy, int rxPhy, int status) {
+            // 기기 쪽에서 PHY를 바꾼 경우에도 호출됨
+            if (status == BluetoothGatt.GATT_SUCCESS) {
+                linkParameters = linkParameters.withPhy(txPhy, rxPhy);
+                Log.i(TAG, "Link tuned on " + deviceMac + ": " + linkParameters);
+            }
+            operations.onComplete(GattOperationQueue.Type.PHY, status == BluetoothGatt.GATT_SUCCESS);
+        }
+
+        @Override
+        public void onPhyRead(BluetoothGatt gatt, int txPhy, int rxPhy, int status) {
+            // PHY 요청이 시간 초과된 뒤 읽은 현재 PHY (대기열 요청 아님)
+            if (status == BluetoothGatt.GATT_SUCCESS && isCurrent(gatt)) {
+                linkParameters = linkParameters.withPhy(txPhy, rxPhy);
+                Log.i(TAG, "Link PHY on " + deviceMac + ": " + linkParameters);
+            }
+        }
+
+        @Override
+        public void onCharacteristicChanged(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic) {
+            if (CHARACTERISTIC_UUID.equals(characteristic.getUuid())) {
+                transportCallback.onCharacteristicChanged(characteristic.getValue());
+            }
+        }
+    };
+
+    // 센서 특성 요청 결과 처리 (실제 GATT 콜백과 재생 transport가 함께 사용)
+    private final GattTransport.Callback transportCallback = new GattTransport.Callback() {
+        @Override
+        public void onNotificationStateWritten(boolean success) {
+            // 실패하면 대기열이 CCCD 쓰기를 다시 보내므로 여기서는 성공만 전달
+            // (재시도까지 실패하면 QueuedTransport.enableNotifications의 onFailed에서 폴링으로 전환)
+            operations.onComplete(GattOperationQueue.Type.DESCRIPTOR_WRITE, success);
+            SensorStreamer current = getStreamer();
+            if (success && current != null) {
+                current.onNotificationsEnabled(true);
+            }
+        }
+
+        @Override
+        public void onCharacteristicRead(byte[] value, boolean success) {
+            operations.onComplete(GattOperationQueue.Type.READ, success);
+            if (success) {
+                lastReadNanos = recordInterval(readInterval, lastReadNanos);
+            }
+            SensorStreamer current = getStreamer();
+            if (current != null) {
+                current.onCharacteristicRead(value, success);
+            }
+        }
+
+        @Override
+        public void onCharacteristicWrite(boolean success) {
+            operations.onComplete(GattOperationQueue.Type.WRITE, success);
+        }
+
+        @Override
+        public void onCharacteristicChanged(byte[] value) {
+            lastNotifyNanos = recordInterval(notifyInterval, lastNotifyNanos);
+            SensorStreamer current = getStreamer();
+            if (current != null) {
+                current.onCharacteristicChanged(value);
+            }
+        }
+    };
+
+    // 이전 도착 이후 간격 기록, 현재 시각 반환
+    private static long recordInterval(LatencyHistogram histogram, long lastNanos) {
+        long now = System.nanoTime();
+        if (lastNanos != 0) {
+            histogram.recordNanos(now - lastNanos);
+        }
+        return now;
+    }
+
+    private synchronized boolean isCurrent(BluetoothGatt callbackGatt) {
+        return gatt == callbackGatt;
+    }
+
+    private SensorStreamer getStreamer() {
+        return streamer;
+    }
+
+    // 리스너 수와 연결 상태에 맞춰 수집 시작/중지
+    private void updateStreaming() {
+        synchronized (this) {
+            if (streamer == null) {
+                return;
+            }
+            try {
+                if (frameListeners.isEmpty() && sampleListeners.isEmpty()) {
+                    streamer.stop();
+                    // 수집하지 않을 때는 전력 소모가 적은 연결 간격으로 복귀
+                    requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_BALANCED);
+                } else {
+                    // 수집/보조 중에는 연결 간격을 줄여 연결 이벤트당 전송량을 늘림
+                    requestConnectionPriority(BluetoothGatt.CONNECTION_PRIORITY_HIGH);
+                    streamer.start();
+                }
+            } catch (SecurityException e) {
+                Log.w(TAG, "Cannot change streaming state on " + deviceMac, e);
+            }
+        }
+    }
+
+    // MTU 확장과 2M PHY 요청 (결과는 onMtuChanged/onPhyUpdate에서 기록)
+    private void tuneLink(BluetoothGatt tunedGatt) {
+        operations.enqueue(new GattOperationQueue.Operation(GattOperationQueue.Type.MTU, LINK_REQUEST_TIMEOUT_MS, 1) {
+            @Override
+            public boolean execute() {
+                return tunedGatt.requestMtu(PREFERRED_MTU);
+            }
+
+            @Override
+            public void onFailed() {
+                Log.w(TAG, "MTU request failed on " + deviceMac + ", using " + linkParameters.getMtu());
+            }
+        });
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O || !BluetoothAdapter.getDefaultAdapter().isLe2MPhySupported()) {
+            return;
+        }
+        operations.enqueue(new GattOperationQueue.Operation(GattOperationQueue.Type.PHY, PHY_REQUEST_TIMEOUT_MS, 0) {
+            @Override
+            public boolean execute() {
+                // setPreferredPhy는 반환값이 없으므로 요청 전송 여부를 알 수 없음, 응답이 없으면 시간 초과로 처리
+                tunedGatt.setPreferredPhy(BluetoothDevice.PHY_LE_2M_MASK, BluetoothDevice.PHY_LE_2M_MASK,
+                        BluetoothDevice.PHY_OPTION_NO_PREFERRED);
+                return true;
+            }
+
+            @Override
+            public void onFailed() {
+                // 바뀌지 않았거나 콜백이 늦는 경우, 실제 PHY는 onPhyRead에서 기록 (늦은 onPhyUpdate도 그대로 반영됨)
+                try {
+                    tunedGatt.readPhy();
+                } catch (SecurityException e) {
+                    Log.w(TAG, "Cannot read PHY on " + deviceMac, e);
+                }
+            }
+        });
+    }
+
+    // 연결 우선순위 변경 (콜백이 없는 요청이라 대기열을 거치지 않음)
+    private void requestConnectionPriority(int priority) {
+        BluetoothGatt current = gatt;
+        if (current == null || linkParameters.getConnectionPriority() == priority) {
+            return;
+        }
+        if (current.requestConnectionPriority(priority)) {
+            linkParameters = linkParameters.withConnectionPriority(priority);
+        }
+    }
+
+    private void stopStreamer() {
+        if (streamer != null) {
+            try {
+                streamer.stop();
+            } catch (SecurityException e) {
+                Log.w(TAG, "Cannot stop streaming on " + deviceMac, e);
+            }
+            streamer = null;
+        }
+    }
+
+    private void dispatchFrame(byte[] value) {
+        // 디코더의 샘플 시각은 저장용이므로 벽시계 기준
+        long arrivalMicros = System.currentTimeMillis() * 1000;
+        FrameCaptureWriter writer = captureWriter;
+        if (writer != null && value != null) {
+            try {
+                // 기록은 재생 간격용이므로 시각 변경(NTP 등)에 영향받지 않는 단조 시계를 마이크로초 단위로 사용
+                writer.write(value, SystemClock.elapsedRealtimeNanos() / 1000);
+            } catch (IOException e) {
+                Log.w(TAG, "Frame capture stopped on " + deviceMac, e);
+                if (captureWriter == writer) {
+                    stopCapture();
+                }
+            }
+        }
+        for (SensorStreamer.FrameListener listener : frameListeners) {
+            listener.onFrame(value);
+        }
+        if (!sampleListeners.isEmpty()) {
+            synchronized (packetDecoder) {
+                // 샘플 리스너(저장/추론) 시간은 빼고 디코딩 시간만 기록
+                listenerNanos = 0;
+                long start = System.nanoTime();
+                packetDecoder.decode(value, arrivalMicros, sampleDispatcher);
+                decodeTime.record(System.nanoTime() - start - listenerNanos);
+            }
+        }
+    }
+
+    private void closeCapture(FrameCaptureWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot close frame capture on " + deviceMac, e);
+        }
+    }
+
+    private void dispatchSample(SensorFrame frame, long timestampMicros) {
+        sampleCount.increment();
+        long start = System.nanoTime();
+        for (SensorPacketDecoder.SampleListener listener : sampleListeners) {
+            listener.onSample(frame, timestampMicros);
+        }
+        listenerNanos += System.nanoTime() - start;
+    }
+
+    private void setState(State newState) {
+        if (state == newState) {
+            return;
+        }
+        state = newState;
+        for (StateListener listener : stateListeners) {
+            listener.onStateChanged(this, newState);
+        }
+    }
+
+    private void checkConnectPermission() {
+        if (ContextCompat.checkSelfPermission(context, Manifest.permission.BLUETOOTH_CONNECT) != PackageManager.PERMISSION_GRANTED) {
+            throw new SecurityException("Bluetooth connect permission not granted");
+        }
+    }
+
+    // SensorStreamer의 GATT 요청을 대기열로 보내는 transport
+    private class QueuedTransport implements GattTransport {
+        private final GattTransport target;
+
+        QueuedTransport(GattTransport target) {
+            this.target = target;
+        }
+
+        @Override
+        public boolean supportsNotify() {
+            return target.supportsNotify();
+        }
+
+        @Override
+        public boolean enableNotifications() {
+            return operations.enqueue(new GattOperationQueue.Operation(GattOperationQueue.Type.DESCRIPTOR_WRITE) {
+                @Override
+                public boolean execute() {
+                    return target.enableNotifications();
+                }
+
+                // 재시도 후에도 실패한 경우에만 폴링으로 전환
+                @Override
+                public void onFailed() {
+                    SensorStreamer current = getStreamer();
+                    if (current != null) {
+                        current.onNotificationsEnabled(false);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public boolean disableNotifications() {
+            return operations.enqueue(new GattOperationQueue.Operation(GattOperationQueue.Type.DESCRIPTOR_WRITE) {
+                @Override
+                public boolean execute() {
+                    return target.disableNotifications();
+                }
+            });
+        }
+
+        @Override
+        public boolean requestRead() {
+            // 폴링 읽기는 다음 주기가 재시도 역할을 하므로 재시도하지 않음
+            return operations.enqueue(new GattOperationQueue.Operation(GattOperationQueue.Type.READ,
+                    GattOperationQueue.DEFAULT_TIMEOUT_MS, 0) {
+                @Override
+                public boolean execute() {
+                    return target.requestRead();
+                }
+
+                @Override
+                public void onFailed() {
+                    // 폴링이 멈추지 않도록 실패 응답 전달
+                    SensorStreamer current = getStreamer();
+                    if (current != null) {
+                        current.onCharacteristicRead(null, false);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public boolean requestWrite(byte[] value, boolean withResponse) {
+            return write(value, withResponse);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.test.ble;
+
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 기기(device_mac)별 GATT 연결을 앱 전체에서 공유하는 관리자
+// 화면을 이동해도 연결을 끊지 않고, 여러 장갑(양손, 여러 환자)을 동시에 연결할 수 있습니다.
+public class GattSessionManager {
+
+    private static GattSessionManager instance;
+
+    private final Context context;
+    private final Map<String, GattSession> sessions = new LinkedHashMap<>();
+
+    private GattSessionManager(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized GattSessionManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new GattSessionManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // 기기 연결 세션을 가져옴, 연결되어 있지 않으면 연결 시작
+    public GattSession connect(String deviceMac) {
+        return connect(deviceMac, false);
+    }
+
+    // autoConnect 연결은 기기가 보일 때까지 기다리므로 필요 없어지면 disconnect 호출
+    public GattSession connect(String deviceMac, boolean autoConnect) {
+        GattSession session;
+        synchronized (this) {
+            session = sessions.get(deviceMac);
+            if (session == null) {
+                BluetoothDevice device = BluetoothAdapter.getDefaultAdapter().getRemoteDevice(deviceMac);
+                session = new GattSession(context, device);
+                sessions.put(deviceMac, session);
+            }
+        }
+        session.connect(autoConnect);
+        return session;
+    }
+
+    // 기기 대신 기록한 패킷을 재생하는 세션 (화면/저장/추론 경로를 장갑 없이 확인할 때 사용)
+    // 같은 device_mac 세션이 이미 있으면 그 세션을 그대로 반환합니다.
+    public GattSession replay(String deviceMac, FrameCapture capture, double speed, ReplayGattTransport.Listener listener) {
+        GattSession session;
+        synchronized (this) {
+            session = sessions.get(deviceMac);
+            if (session != null) {
+                return session;
+            }
+            BluetoothDevice device = BluetoothAdapter.getDefaultAdapter().getRemoteDevice(deviceMac);
+            session = new GattSession(context, device);
+            sessions.put(deviceMac, session);
+        }
+        session.startReplay(new ReplayGattTransport(capture, new HandlerScheduler(), speed, listener));
+        return session;
+    }
+
+    // 연결 중인 세션 (없으면 null)
+    public synchronized GattSession get(String deviceMac) {
+        return sessions.get(deviceMac);
+    }
+
+    public synchronized List<GattSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    // 기기 연결 종료
+    public void disconnect(String deviceMac) {
+        GattSession session;
+        synchronized (this) {
+            session = sessions.remove(deviceMac);
+        }
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    public void disconnectAll() {
+        List<GattSession> closing;
+        synchronized (this) {
+            closing = new ArrayList<>(sessions.values());
+            sessions.clear();
+        }
+        for (GattSession session : closing) {
+            session.close();
+        }
+    }
+}
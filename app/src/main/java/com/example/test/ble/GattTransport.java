@@ -0,0 +1,34 @@
+package com.example.test.ble;
+
+// 센서 특성(characteristic)에 대한 GATT 명령을 추상화한 인터페이스
+// 실제 기기는 AndroidGattTransport, 기록한 패킷 재생은 ReplayGattTransport, JVM 테스트에서는 가짜 구현을 사용합니다.
+public interface GattTransport {
+
+    // 요청 결과와 notify 패킷을 전달받는 콜백 (BluetoothGattCallback 중 센서 특성 관련 부분)
+    interface Callback {
+        // notify 설정(CCCD 쓰기) 완료
+        void onNotificationStateWritten(boolean success);
+
+        void onCharacteristicRead(byte[] value, boolean success);
+
+        void onCharacteristicWrite(boolean success);
+
+        void onCharacteristicChanged(byte[] value);
+    }
+
+    // 센서 특성이 notify 속성을 지원하는지 여부
+    boolean supportsNotify();
+
+    // notify 활성화 (CCCD 쓰기 요청), 요청이 전송되면 true
+    boolean enableNotifications();
+
+    // notify 비활성화
+    boolean disableNotifications();
+
+    // 센서 특성 읽기 요청, 요청이 전송되면 true
+    boolean requestRead();
+
+    // 센서 특성에 쓰기 요청 (아두이노 제어 명령), 요청이 전송되면 true
+    // withResponse가 false이면 응답 없는 쓰기 (특성이 지원하지 않으면 일반 쓰기)
+    boolean requestWrite(byte[] value, boolean withResponse);
+}
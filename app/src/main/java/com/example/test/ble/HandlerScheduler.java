@@ -0,0 +1,28 @@
+package com.example.test.ble;
+
+import android.os.Handler;
+import android.os.Looper;
+
+// Handler 기반 SensorStreamer 스케줄러
+public class HandlerScheduler implements SensorStreamer.Scheduler {
+
+    private final Handler handler;
+
+    public HandlerScheduler() {
+        this(new Handler(Looper.getMainLooper()));
+    }
+
+    public HandlerScheduler(Handler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void schedule(Runnable task, long delayMs) {
+        handler.postDelayed(task, delayMs);
+    }
+
+    @Override
+    public void cancel(Runnable task) {
+        handler.removeCallbacks(task);
+    }
+}
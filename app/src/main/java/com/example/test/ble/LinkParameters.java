@@ -0,0 +1,69 @@
+package com.example.test.ble;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothGatt;
+
+// 연결에서 실제로 협상된 링크 설정 (MTU, PHY, 연결 우선순위)
+public class LinkParameters {
+
+    // BLE 기본 MTU (ATT 헤더 3바이트 포함)
+    public static final int DEFAULT_MTU = 23;
+    private static final int ATT_HEADER_SIZE = 3;
+
+    public static final LinkParameters DEFAULT = new LinkParameters(DEFAULT_MTU, BluetoothDevice.PHY_LE_1M,
+            BluetoothDevice.PHY_LE_1M, BluetoothGatt.CONNECTION_PRIORITY_BALANCED);
+
+    private final int mtu;
+    private final int txPhy;
+    private final int rxPhy;
+    private final int connectionPriority;
+
+    public LinkParameters(int mtu, int txPhy, int rxPhy, int connectionPriority) {
+        this.mtu = mtu;
+        this.txPhy = txPhy;
+        this.rxPhy = rxPhy;
+        this.connectionPriority = connectionPriority;
+    }
+
+    public int getMtu() {
+        return mtu;
+    }
+
+    // notify/쓰기 한 번에 보낼 수 있는 최대 바이트 수
+    public int getMaxPayload() {
+        return mtu - ATT_HEADER_SIZE;
+    }
+
+    public int getTxPhy() {
+        return txPhy;
+    }
+
+    public int getRxPhy() {
+        return rxPhy;
+    }
+
+    public boolean is2MPhy() {
+        return txPhy == BluetoothDevice.PHY_LE_2M && rxPhy == BluetoothDevice.PHY_LE_2M;
+    }
+
+    public int getConnectionPriority() {
+        return connectionPriority;
+    }
+
+    public LinkParameters withMtu(int newMtu) {
+        return new LinkParameters(newMtu, txPhy, rxPhy, connectionPriority);
+    }
+
+    public LinkParameters withPhy(int newTxPhy, int newRxPhy) {
+        return new LinkParameters(mtu, newTxPhy, newRxPhy, connectionPriority);
+    }
+
+    public LinkParameters withConnectionPriority(int newConnectionPriority) {
+        return new LinkParameters(mtu, txPhy, rxPhy, newConnectionPriority);
+    }
+
+    @Override
+    public String toString() {
+        return "mtu=" + mtu + ", phy=" + txPhy + "/" + rxPhy + ", priority=" + connectionPriority;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.test.ble;
+
+import java.util.function.LongSupplier;
+
+// 기록한 패킷(FrameCapture)을 실제 기기 대신 재생하는 GattTransport
+// notify를 켜면 기록된 수신 간격을 speed배 빠르게 재현해 onCharacteristicChanged로 전달하고,
+// 폴링 읽기에는 시각과 관계없이 다음 패킷을 돌려줍니다. 쓰기(제어 명령)는 Listener로 전달하고 성공 처리합니다.
+// 콜백은 모두 scheduler에서 호출되므로 요청한 스레드에서 바로 응답이 오지 않습니다 (실제 GATT와 같음).
+public class ReplayGattTransport implements GattTransport {
+
+    // 재생 이벤트 리스너 (scheduler 또는 요청한 스레드에서 호출됨)
+    public interface Listener {
+        void onWrite(byte[] value, boolean withResponse);
+
+        // 마지막 패킷까지 전달함
+        void onReplayFinished();
+    }
+
+    // speed가 0 이하이면 기다리지 않고 가능한 한 빨리 재생
+    public static final double UNTHROTTLED = 0;
+    // 한 번 실행할 때 전달하는 최대 패킷 수 (다른 작업이 scheduler를 쓸 수 있도록 나눔)
+    static final int MAX_FRAMES_PER_TICK = 64;
+
+    private final FrameCapture capture;
+    private final SensorStreamer.Scheduler scheduler;
+    private final LongSupplier nanoClock;
+    private final double speed;
+    private final Listener listener;
+    private final Runnable tick = this::deliverDue;
+    private volatile Callback callback;
+
+    private boolean streaming;
+    private boolean finished;
+    private int position;
+    // 재생 기준점: baseNanos 시각에 baseMicros에 기록된 패킷을 보냄
+    private long baseNanos;
+    private long baseMicros;
+    private long writeCount;
+
+    public ReplayGattTransport(FrameCapture capture, SensorStreamer.Scheduler scheduler, double speed, Listener listener) {
+        this(capture, scheduler, System::nanoTime, speed, listener);
+    }
+
+    public ReplayGattTransport(FrameCapture capture, SensorStreamer.Scheduler scheduler, LongSupplier nanoClock,
+                               double speed, Listener listener) {
+        this.capture = capture;
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        this.speed = speed;
+        this.listener = listener;
+    }
+
+    // 결과를 받을 콜백 (GattSession이 연결 시 지정)
+    public void setCallback(Callback callback) {
+        this.callback = callback;
+    }
+
+    public synchronized int getPosition() {
+        return position;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    @Override
+    public boolean supportsNotify() {
+        return true;
+    }
+
+    // 멈췄던 위치부터 이어서 재생
+    @Override
+    public boolean enableNotifications() {
+        synchronized (this) {
+            if (!streaming) {
+                streaming = true;
+                baseNanos = nanoClock.getAsLong();
+                baseMicros = position < capture.size() ? capture.getArrivalMicros(position) : 0;
+                scheduler.schedule(tick, 0);
+            }
+        }
+        scheduler.schedule(this::notifyStateWritten, 0);
+        return true;
+    }
+
+    @Override
+    public boolean disableNotifications() {
+        synchronized (this) {
+            streaming = false;
+            scheduler.cancel(tick);
+        }
+        scheduler.schedule(this::notifyStateWritten, 0);
+        return true;
+    }
+
+    // 응답 콜백 없이 재생 중지 (연결 종료)
+    public synchronized void stop() {
+        streaming = false;
+        scheduler.cancel(tick);
+    }
+
+    @Override
+    public boolean requestRead() {
+        byte[] frame;
+        synchronized (this) {
+            frame = position < capture.size() ? capture.getFrame(position++) : null;
+        }
+        scheduler.schedule(() -> {
+            Callback current = callback;
+            if (current != null) {
+                current.onCharacteristicRead(frame, frame != null);
+            }
+        }, 0);
+        if (frame == null) {
+            finish();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean requestWrite(byte[] value, boolean withResponse) {
+        synchronized (this) {
+            writeCount++;
+        }
+        if (listener != null) {
+            listener.onWrite(value, withResponse);
+        }
+        scheduler.schedule(() -> {
+            Callback current = callback;
+            if (current != null) {
+                current.onCharacteristicWrite(true);
+            }
+        }, 0);
+        return true;
+    }
+
+    // 재생 시각이 된 패킷을 전달하고 다음 패킷 시각에 다시 실행
+    // 콜백은 잠금 밖에서 호출 (SensorStreamer 잠금과 순서가 뒤바뀌지 않도록)
+    private void deliverDue() {
+        int from;
+        int to;
+        synchronized (this) {
+            if (!streaming) {
+                return;
+            }
+            from = position;
+            to = from;
+            long elapsedMicros = (nanoClock.getAsLong() - baseNanos) / 1000;
+            while (to < capture.size() && to - from < MAX_FRAMES_PER_TICK && delayMicros(to, elapsedMicros) <= 0) {
+                to++;
+            }
+            position = to;
+        }
+        Callback current = callback;
+        if (current != null) {
+            for (int i = from; i < to; i++) {
+                current.onCharacteristicChanged(capture.getFrame(i));
+            }
+        }
+        synchronized (this) {
+            if (!streaming) {
+                return;
+            }
+            if (position < capture.size()) {
+                long elapsedMicros = (nanoClock.getAsLong() - baseNanos) / 1000;
+                long delayMicros = Math.max(0, delayMicros(position, elapsedMicros));
+                scheduler.schedule(tick, (delayMicros + 999) / 1000);
+                return;
+            }
+        }
+        finish();
+    }
+
+    // index번째 패킷을 보낼 때까지 남은 시간 (마이크로초)
+    private long delayMicros(int index, long elapsedMicros) {
+        if (speed <= 0) {
+            return 0;
+        }
+        return (long) ((capture.getArrivalMicros(index) - baseMicros) / speed) - elapsedMicros;
+    }
+
+    private void finish() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+        }
+        if (listener != null) {
+            listener.onReplayFinished();
+        }
+    }
+
+    private void notifyStateWritten() {
+        Callback current = callback;
+        if (current != null) {
+            current.onNotificationStateWritten(true);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.test.ble;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+// BLE 스캔 결과 정리
+// - MAC 기준 해시맵으로 중복 제거, RSSI 평활화, 마지막 수신 시각 기록
+// - 광고가 아무리 많이 와도 화면 갱신은 refreshIntervalMs마다 최대 1번
+// - staleTimeoutMs 동안 광고가 없는 기기는 목록에서 제거
+// - scanWindowMs가 지나거나 이미 아는 기기를 찾으면 자동 종료
+// 실제 스캔 시작/종료는 Listener.onScanStopped를 받은 쪽에서 처리합니다.
+// 스케줄러와 같은 스레드(메인 스레드)에서만 사용해야 합니다.
+public class ScanEngine {
+
+    public interface Listener {
+        // devices: 아는 기기 먼저, 그 다음 발견한 순서
+        void onDevicesChanged(List<ScannedDevice> devices);
+
+        void onScanStopped(StopReason reason);
+    }
+
+    public enum StopReason {
+        // 스캔 시간 초과
+        TIMEOUT,
+        // 아는 기기 발견
+        KNOWN_DEVICE_FOUND,
+        // stop() 호출
+        STOPPED
+    }
+
+    // 화면 갱신 간격 (초당 5번)
+    public static final long DEFAULT_REFRESH_INTERVAL_MS = 200;
+    public static final long DEFAULT_STALE_TIMEOUT_MS = 10_000;
+    public static final long DEFAULT_SCAN_WINDOW_MS = 20_000;
+    // 새 RSSI 반영 비율 (지수 이동 평균)
+    static final double RSSI_SMOOTHING = 0.25;
+    private static final long AGING_INTERVAL_MS = 1_000;
+
+    private final SensorStreamer.Scheduler scheduler;
+    private final LongSupplier clockMs;
+    private final Listener listener;
+    private final Map<String, ScannedDevice> devices = new LinkedHashMap<>();
+    private final Set<String> knownDevices = new HashSet<>();
+    private final Runnable refreshTask = this::refresh;
+    private final Runnable agingTask = this::ageOut;
+    private final Runnable timeoutTask = () -> stop(StopReason.TIMEOUT);
+
+    private long refreshIntervalMs = DEFAULT_REFRESH_INTERVAL_MS;
+    private long staleTimeoutMs = DEFAULT_STALE_TIMEOUT_MS;
+    private long scanWindowMs = DEFAULT_SCAN_WINDOW_MS;
+    private boolean stopOnKnownDevice;
+    private boolean scanning;
+    private boolean refreshPending;
+
+    public ScanEngine(SensorStreamer.Scheduler scheduler, Listener listener) {
+        this(scheduler, System::currentTimeMillis, listener);
+    }
+
+    public ScanEngine(SensorStreamer.Scheduler scheduler, LongSupplier clockMs, Listener listener) {
+        this.scheduler = scheduler;
+        this.clockMs = clockMs;
+        this.listener = listener;
+    }
+
+    public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    public void setStaleTimeoutMs(long staleTimeoutMs) {
+        this.staleTimeoutMs = staleTimeoutMs;
+    }
+
+    // 0 이하이면 자동 종료하지 않음
+    public void setScanWindowMs(long scanWindowMs) {
+        this.scanWindowMs = scanWindowMs;
+    }
+
+    // 스캔 중에 호출해도 이미 발견한 기기에 반영
+    public void setKnownDevices(Collection<String> deviceMacs) {
+        knownDevices.clear();
+        knownDevices.addAll(deviceMacs);
+        boolean knownFound = false;
+        for (ScannedDevice device : devices.values()) {
+            device.setKnown(knownDevices.contains(device.getMac()));
+            knownFound |= device.isKnown();
+        }
+        if (!scanning || devices.isEmpty()) {
+            return;
+        }
+        if (knownFound && stopOnKnownDevice) {
+            refreshPending = true;
+            stop(StopReason.KNOWN_DEVICE_FOUND);
+        } else if (!refreshPending) {
+            refresh();
+        }
+    }
+
+    public void setStopOnKnownDevice(boolean stopOnKnownDevice) {
+        this.stopOnKnownDevice = stopOnKnownDevice;
+    }
+
+    // 목록을 비우고 스캔 시작
+    public void start() {
+        cancelTasks();
+        devices.clear();
+        scanning = true;
+        refreshPending = false;
+        listener.onDevicesChanged(Collections.emptyList());
+        scheduler.schedule(agingTask, AGING_INTERVAL_MS);
+        if (scanWindowMs > 0) {
+            scheduler.schedule(timeoutTask, scanWindowMs);
+        }
+    }
+
+    // 스캔 종료 (목록은 유지)
+    public void stop() {
+        stop(StopReason.STOPPED);
+    }
+
+    public boolean isScanning() {
+        return scanning;
+    }
+
+    // 광고 수신, 스캔 중이 아니면 무시
+    public void onAdvertisement(String mac, String name, int rssi) {
+        if (!scanning) {
+            return;
+        }
+        long now = clockMs.getAsLong();
+        ScannedDevice device = devices.get(mac);
+        if (device == null) {
+            device = new ScannedDevice(mac, name, rssi, now, knownDevices.contains(mac));
+            devices.put(mac, device);
+            if (device.isKnown() && stopOnKnownDevice) {
+                refreshPending = true;
+                stop(StopReason.KNOWN_DEVICE_FOUND);
+                return;
+            }
+        } else {
+            device.update(name, rssi, now, RSSI_SMOOTHING);
+        }
+        if (!refreshPending) {
+            refreshPending = true;
+            scheduler.schedule(refreshTask, refreshIntervalMs);
+        }
+    }
+
+    public ScannedDevice get(String mac) {
+        return devices.get(mac);
+    }
+
+    public List<ScannedDevice> getDevices() {
+        List<ScannedDevice> result = new ArrayList<>(devices.size());
+        for (ScannedDevice device : devices.values()) {
+            if (device.isKnown()) {
+                result.add(device);
+            }
+        }
+        for (ScannedDevice device : devices.values()) {
+            if (!device.isKnown()) {
+                result.add(device);
+            }
+        }
+        return result;
+    }
+
+    private void stop(StopReason reason) {
+        if (!scanning) {
+            return;
+        }
+        scanning = false;
+        cancelTasks();
+        // 마지막 변경 사항은 바로 반영
+        if (refreshPending) {
+            refresh();
+        }
+        listener.onScanStopped(reason);
+    }
+
+    private void refresh() {
+        refreshPending = false;
+        listener.onDevicesChanged(getDevices());
+    }
+
+    private void ageOut() {
+        long now = clockMs.getAsLong();
+        boolean removed = false;
+        for (Iterator<ScannedDevice> it = devices.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().getLastSeenMs() >= staleTimeoutMs) {
+                it.remove();
+                removed = true;
+            }
+        }
+        if (removed && !refreshPending) {
+            refresh();
+        }
+        if (scanning) {
+            scheduler.schedule(agingTask, AGING_INTERVAL_MS);
+        }
+    }
+
+    private void cancelTasks() {
+        scheduler.cancel(refreshTask);
+        scheduler.cancel(agingTask);
+        scheduler.cancel(timeoutTask);
+    }
+}
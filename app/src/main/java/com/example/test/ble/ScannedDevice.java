@@ -0,0 +1,61 @@
+package com.example.test.ble;
+
+// 스캔으로 발견한 기기 (MAC 기준 1개), ScanEngine이 광고를 받을 때마다 갱신
+public class ScannedDevice {
+
+    private final String mac;
+    private boolean known;
+    private String name;
+    private double smoothedRssi;
+    private long lastSeenMs;
+    private int advertisementCount;
+
+    ScannedDevice(String mac, String name, int rssi, long nowMs, boolean known) {
+        this.mac = mac;
+        this.name = name;
+        this.smoothedRssi = rssi;
+        this.lastSeenMs = nowMs;
+        this.advertisementCount = 1;
+        this.known = known;
+    }
+
+    // 새 광고 반영, RSSI는 지수 이동 평균으로 평활화
+    void update(String newName, int rssi, long nowMs, double smoothing) {
+        if (newName != null) {
+            name = newName;
+        }
+        smoothedRssi += (rssi - smoothedRssi) * smoothing;
+        lastSeenMs = nowMs;
+        advertisementCount++;
+    }
+
+    public String getMac() {
+        return mac;
+    }
+
+    // 광고에 이름이 없으면 null
+    public String getName() {
+        return name;
+    }
+
+    public int getRssi() {
+        return (int) Math.round(smoothedRssi);
+    }
+
+    public long getLastSeenMs() {
+        return lastSeenMs;
+    }
+
+    public int getAdvertisementCount() {
+        return advertisementCount;
+    }
+
+    // 이전에 학습한 모델이 있는 기기
+    public boolean isKnown() {
+        return known;
+    }
+
+    void setKnown(boolean known) {
+        this.known = known;
+    }
+}
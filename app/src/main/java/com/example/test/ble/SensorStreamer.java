@@ -0,0 +1,121 @@
+package com.example.test.ble;
+
+// 센서 데이터 수집 방식을 결정하고 프레임을 전달하는 클래스
+// notify를 지원하는 기기는 STREAMING(푸시) 방식으로, 지원하지 않는 펌웨어는 기존처럼 POLLING(주기적 읽기) 방식으로 동작합니다.
+public class SensorStreamer {
+
+    public enum Mode {
+        IDLE,
+        STREAMING,
+        POLLING
+    }
+
+    // 수신된 센서 프레임을 전달받는 리스너
+    public interface FrameListener {
+        void onFrame(byte[] value);
+    }
+
+    // 폴링 작업을 예약하는 스케줄러 (안드로이드에서는 HandlerScheduler)
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMs);
+
+        void cancel(Runnable task);
+    }
+
+    // 기존 폴링 간격 (50ms, 초당 20번)
+    public static final long DEFAULT_POLL_INTERVAL_MS = 50;
+
+    private final GattTransport transport;
+    private final Scheduler scheduler;
+    private final FrameListener listener;
+    private final long pollIntervalMs;
+    private final Runnable pollTask = this::poll;
+
+    private Mode mode = Mode.IDLE;
+    // 응답을 기다리는 읽기 요청이 있는지 여부 (GATT는 한 번에 하나의 요청만 처리)
+    private boolean readPending = false;
+
+    public SensorStreamer(GattTransport transport, Scheduler scheduler, FrameListener listener) {
+        this(transport, scheduler, listener, DEFAULT_POLL_INTERVAL_MS);
+    }
+
+    public SensorStreamer(GattTransport transport, Scheduler scheduler, FrameListener listener, long pollIntervalMs) {
+        this.transport = transport;
+        this.scheduler = scheduler;
+        this.listener = listener;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    // 수집 시작: notify 활성화를 먼저 시도하고 실패하면 폴링으로 전환
+    public synchronized void start() {
+        if (mode != Mode.IDLE) {
+            return;
+        }
+        if (transport.supportsNotify() && transport.enableNotifications()) {
+            mode = Mode.STREAMING;
+        } else {
+            startPolling();
+        }
+    }
+
+    // 수집 중지
+    public synchronized void stop() {
+        Mode previous = mode;
+        mode = Mode.IDLE;
+        readPending = false;
+        scheduler.cancel(pollTask);
+        if (previous == Mode.STREAMING) {
+            transport.disableNotifications();
+        }
+    }
+
+    // CCCD 쓰기 결과 처리, 실패 시 폴링 방식으로 전환
+    public synchronized void onNotificationsEnabled(boolean success) {
+        if (!success && mode == Mode.STREAMING) {
+            startPolling();
+        }
+    }
+
+    // notify로 전달된 프레임 처리
+    public void onCharacteristicChanged(byte[] value) {
+        synchronized (this) {
+            if (mode != Mode.STREAMING) {
+                return;
+            }
+        }
+        listener.onFrame(value);
+    }
+
+    // 읽기 응답 처리
+    public void onCharacteristicRead(byte[] value, boolean success) {
+        synchronized (this) {
+            readPending = false;
+            if (!success || mode != Mode.POLLING) {
+                return;
+            }
+        }
+        listener.onFrame(value);
+    }
+
+    public synchronized Mode getMode() {
+        return mode;
+    }
+
+    private void startPolling() {
+        mode = Mode.POLLING;
+        readPending = false;
+        scheduler.cancel(pollTask);
+        scheduler.schedule(pollTask, 0);
+    }
+
+    // 이전 읽기가 끝나지 않았다면 이번 주기는 건너뜀
+    private synchronized void poll() {
+        if (mode != Mode.POLLING) {
+            return;
+        }
+        if (!readPending) {
+            readPending = transport.requestRead();
+        }
+        scheduler.schedule(pollTask, pollIntervalMs);
+    }
+}
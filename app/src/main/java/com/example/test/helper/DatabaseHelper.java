@@ -2,66 +2,133 @@ package com.example.test.helper;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
-import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
 
+    // 센싱 데이터 저장 쿼리 (insertSensingData, SensingBatchWriter 공용)
+    public static final String INSERT_SENSING_SQL = "INSERT INTO tb_sensing (device_mac, sex, middle_flex_sensor, middle_pressure_sensor, ring_flex_sensor, " +
+            "ring_pressure_sensor, pinky_flex_sensor, acceleration, gyroscope, magnetic_field, timestamp, session_idx) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // 초기화되지 않은 세션의 센싱 데이터만 조회하는 조건 (tb_sensing WHERE 절에 추가)
+    public static final String LIVE_SENSING_FILTER = "session_idx IN (SELECT session_idx FROM tb_sensing_session WHERE discarded = 0)";
+
     private static final String DATABASE_NAME = "EXBR_DB.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = DatabaseMigrations.LATEST_VERSION;
+    // 페이지 캐시 크기 (KiB, 음수는 KiB 단위라는 뜻), 기본 2MB보다 크게 잡아 기기별 조회가 디스크를 덜 읽게 함
+    private static final int CACHE_SIZE_KIB = 8 * 1024;
+    // 체크포인트 후 남겨둘 WAL 파일 최대 크기
+    private static final long WAL_SIZE_LIMIT_BYTES = 4 * 1024 * 1024;
+
+    private static final String SENSING_ARCHIVE_DIR = "sensing_archive";
+    // PRAGMA auto_vacuum 값
+    private static final long AUTO_VACUUM_INCREMENTAL = 2;
+
+    private static DatabaseHelper instance;
+
     private static String DATABASE_PATH = "";
-    private SQLiteDatabase myDatabase;
     private final Context myContext;
+    // 기록 중인 세션 (startSensingSession ~ endSensingSession), 이 동안에는 전체 VACUUM을 하지 않음
+    private final Set<Long> recordingSessions = ConcurrentHashMap.newKeySet();
 
-    public DatabaseHelper(Context context) {
+    private DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
         this.myContext = context;
         DATABASE_PATH = context.getDatabasePath(DATABASE_NAME).getPath();
+        // WAL: 센싱 데이터 저장 중에도 다른 스레드의 개수/모델 조회가 기다리지 않음 (읽기 연결을 여러 개 사용)
+        setWriteAheadLoggingEnabled(true);
     }
 
+    // 앱 전체에서 하나의 인스턴스(연결 풀)를 공유, 처음 호출 시 assets DB를 복사하므로 가능하면 백그라운드에서 호출
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            DatabaseHelper helper = new DatabaseHelper(context.getApplicationContext());
+            try {
+                helper.createDatabase();
+            } catch (IOException e) {
+                throw new RuntimeException("Error creating database", e);
+            }
+            instance = helper;
+        }
+        return instance;
+    }
+
+    // 쓰기를 담당하는 주 연결 설정
+    // 쓰기는 WAL에 순서대로 쌓이므로 synchronous=NORMAL이면 전원이 꺼져도 DB는 깨지지 않고 마지막 트랜잭션만 잃을 수 있음
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.execSQL("PRAGMA synchronous = NORMAL");
+        db.execSQL("PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+        // 값을 반환하는 PRAGMA는 execSQL로 실행할 수 없음
+        try (Cursor cursor = db.rawQuery("PRAGMA journal_size_limit = " + WAL_SIZE_LIMIT_BYTES, null)) {
+            cursor.moveToFirst();
+        }
+    }
+
+    // 테이블은 assets에서 복사하므로 생성하지 않고, 복사한 DB(user_version 0)를 최신 스키마로 올립니다.
     @Override
     public void onCreate(SQLiteDatabase db) {
-        // 테이블 생성 로직을 여기에 추가하지 않습니다.
+        DatabaseMigrations.migrate(db, DatabaseMigrations.ASSET_VERSION, DATABASE_VERSION);
     }
 
+    // 기존 설치본은 저장된 데이터를 유지한 채 단계별로 업그레이드
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // 데이터베이스 업그레이드 로직을 여기에 추가할 수 있습니다.
+        DatabaseMigrations.migrate(db, oldVersion, newVersion);
     }
 
-    public void createDatabase() throws IOException {
+    private void createDatabase() throws IOException {
         boolean dbExist = checkDatabase();
 
         if (!dbExist) {
-            this.getReadableDatabase();
+            // getReadableDatabase로 빈 DB를 먼저 만들면 버전이 기록된 연결이 캐시되어 마이그레이션이 실행되지 않으므로 폴더만 만듦
+            File parent = new File(DATABASE_PATH).getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            // 이전 DB의 WAL/공유 메모리 파일이 남아 있으면 새로 복사한 DB에 적용되므로 삭제
+            new File(DATABASE_PATH + "-wal").delete();
+            new File(DATABASE_PATH + "-shm").delete();
+            new File(DATABASE_PATH + "-journal").delete();
             try {
                 copyDatabase();
             } catch (IOException e) {
                 throw new Error("Error copying database");
             }
+            enableIncrementalVacuum();
         }
     }
 
-    private boolean checkDatabase() {
-        SQLiteDatabase checkDB = null;
+    // 복사한 assets DB를 incremental auto_vacuum으로 전환
+    // 테이블이 이미 있는 DB는 VACUUM해야 적용되고 VACUUM은 트랜잭션(onCreate/마이그레이션) 안에서 실행할 수 없으므로,
+    // 데이터가 없어 가장 작은 복사 직후에 헬퍼 연결을 열기 전 별도 연결로 한 번 실행합니다.
+    private void enableIncrementalVacuum() {
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(DATABASE_PATH, null, SQLiteDatabase.OPEN_READWRITE);
         try {
-            String myPath = DATABASE_PATH;
-            checkDB = SQLiteDatabase.openDatabase(myPath, null, SQLiteDatabase.OPEN_READONLY);
-        } catch (SQLiteException e) {
-            // 데이터베이스가 아직 존재하지 않습니다.
-        }
-
-        if (checkDB != null) {
-            checkDB.close();
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+        } finally {
+            db.close();
         }
+    }
 
-        return checkDB != null;
+    // 읽기 전용으로 열어 확인하면 WAL 모드 DB는 -shm 파일이 없을 때 열기에 실패해 기존 데이터를 덮어쓸 수 있으므로 파일만 확인
+    private boolean checkDatabase() {
+        return new File(DATABASE_PATH).exists();
     }
 
     private void copyDatabase() throws IOException {
@@ -80,35 +147,127 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         myInput.close();
     }
 
-    public void openDatabase() throws SQLiteException {
-        String myPath = DATABASE_PATH;
-        myDatabase = SQLiteDatabase.openDatabase(myPath, null, SQLiteDatabase.OPEN_READWRITE);
+    public void insertSensingData(long sessionId, String deviceMac, String sex, int middleFlexSensor, int middlePressureSensor, int ringFlexSensor,
+                                  int ringPressureSensor, int pinkyFlexSensor, int acceleration, int gyroscope,
+                                  int magneticField, String timestamp) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.execSQL(INSERT_SENSING_SQL, new Object[]{deviceMac, sex, middleFlexSensor, middlePressureSensor, ringFlexSensor,
+                ringPressureSensor, pinkyFlexSensor, acceleration, gyroscope,
+                magneticField, timestamp, sessionId});
     }
 
-    @Override
-    public synchronized void close() {
-        if (myDatabase != null) {
-            myDatabase.close();
+    // 새 기록 세션 시작, session_idx 반환
+    public long startSensingSession(String deviceMac) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        try (SQLiteStatement statement = db.compileStatement(
+                "INSERT INTO tb_sensing_session (device_mac, started_at, discarded) VALUES (?, ?, 0)")) {
+            statement.bindString(1, deviceMac);
+            statement.bindLong(2, System.currentTimeMillis());
+            long sessionId = statement.executeInsert();
+            recordingSessions.add(sessionId);
+            return sessionId;
         }
-        super.close();
     }
 
-    public void insertSensingData(String deviceMac, String sex, int middleFlexSensor, int middlePressureSensor, int ringFlexSensor,
-                                  int ringPressureSensor, int pinkyFlexSensor, int acceleration, int gyroscope,
-                                  int magneticField, String timestamp) {
+    // 기록이 끝난 세션 표시 (SensingArchiver가 보관 파일로 옮길 대상)
+    public void endSensingSession(long sessionId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        String insertQuery = "INSERT INTO tb_sensing (device_mac, sex, middle_flex_sensor, middle_pressure_sensor, ring_flex_sensor, " +
-                "ring_pressure_sensor, pinky_flex_sensor, acceleration, gyroscope, magnetic_field, timestamp) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        db.execSQL(insertQuery, new Object[]{deviceMac, sex, middleFlexSensor, middlePressureSensor, ringFlexSensor,
-                ringPressureSensor, pinkyFlexSensor, acceleration, gyroscope,
-                magneticField, timestamp});
+        db.execSQL("UPDATE tb_sensing_session SET ended_at = ? WHERE session_idx = ?",
+                new Object[]{System.currentTimeMillis(), sessionId});
+        recordingSessions.remove(sessionId);
+    }
+
+    public boolean isRecording() {
+        return !recordingSessions.isEmpty();
+    }
+
+    // 초기화되지 않은 센싱 데이터 개수 (tb_sensing + 보관 파일)
+    public int getSensingDataCount(String deviceMac) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(
+                "SELECT (SELECT COUNT(*) FROM tb_sensing WHERE device_mac = ? AND " + LIVE_SENSING_FILTER + ") + " +
+                        "(SELECT COALESCE(SUM(archived_count), 0) FROM tb_sensing_session " +
+                        "WHERE device_mac = ? AND discarded = 0 AND archive_path IS NOT NULL)",
+                new String[]{deviceMac, deviceMac}
+        );
+        int count = cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        cursor.close();
+        return count;
     }
 
+    // 센싱 세션 보관 파일 폴더
+    public File getSensingArchiveDir() {
+        return new File(myContext.getFilesDir(), SENSING_ARCHIVE_DIR);
+    }
+
+    // 전체 센싱 데이터 초기화: 세션에 폐기 표시만 하므로 데이터 양과 관계없이 바로 끝남
+    // 실제 삭제와 파일 크기 반환은 SensingDataCleaner가 백그라운드에서 처리
     public void resetSensingData() {
         SQLiteDatabase db = this.getWritableDatabase();
-        db.execSQL("DELETE FROM tb_sensing");
-        db.execSQL("VACUUM");
+        db.execSQL("UPDATE tb_sensing_session SET discarded = 1 WHERE discarded = 0");
+        // 폐기된 세션은 더 이상 기록 중이 아님 (계속 기록하면 새 세션을 시작함)
+        recordingSessions.clear();
+    }
+
+    // 폐기된 세션 하나에서 최대 maxRows개 삭제 (비었으면 세션과 보관 파일도 삭제), 폐기된 세션이 없으면 false
+    public boolean purgeDiscardedSensingData(int maxRows) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        String archivePath = null;
+        db.beginTransactionNonExclusive();
+        try {
+            long sessionId;
+            try (Cursor cursor = db.rawQuery("SELECT session_idx, archive_path FROM tb_sensing_session WHERE discarded = 1 LIMIT 1", null)) {
+                if (!cursor.moveToFirst()) {
+                    return false;
+                }
+                sessionId = cursor.getLong(0);
+                if (!cursor.isNull(1)) {
+                    archivePath = cursor.getString(1);
+                }
+            }
+            int deleted;
+            try (SQLiteStatement statement = db.compileStatement(
+                    "DELETE FROM tb_sensing WHERE sensing_idx IN (SELECT sensing_idx FROM tb_sensing WHERE session_idx = ? LIMIT ?)")) {
+                statement.bindLong(1, sessionId);
+                statement.bindLong(2, maxRows);
+                deleted = statement.executeUpdateDelete();
+            }
+            if (deleted < maxRows) {
+                db.execSQL("DELETE FROM tb_sensing_session WHERE session_idx = ?", new Object[]{sessionId});
+            } else {
+                archivePath = null;
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        // 세션 삭제가 커밋된 뒤 파일 삭제
+        if (archivePath != null) {
+            new File(getSensingArchiveDir(), archivePath).delete();
+        }
+        return true;
+    }
+
+    // 삭제로 생긴 빈 페이지를 maxPages개까지 파일에서 반환, 남은 빈 페이지 수 반환
+    // 새 설치는 복사 시점에 INCREMENTAL로 전환되어 있음 (enableIncrementalVacuum)
+    // 이전 버전에서 만든 DB는 한 번 전체 VACUUM이 필요한데, 쓰기 연결을 DB 크기만큼 오래 잡고 있으므로
+    // 기록 중이면 미루고 0 반환 (빈 페이지는 이후 삽입에 재사용되고, 다음 정리 때 다시 시도)
+    public long reclaimFreePages(int maxPages) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        if (DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null) != AUTO_VACUUM_INCREMENTAL) {
+            if (isRecording()) {
+                return 0;
+            }
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+            return 0;
+        }
+        try (Cursor cursor = db.rawQuery("PRAGMA incremental_vacuum(" + maxPages + ")", null)) {
+            while (cursor.moveToNext()) {
+                // 한 단계씩 실행해야 페이지가 반환됨
+            }
+        }
+        return DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null);
     }
 
     public void insertDeepLearningData(String modelName, String sex, String deviceMac, String analysisResult, float predictionRate, long createdAt) {
@@ -136,4 +295,17 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         cursor.close();
         return exists;
     }
+
+    // 학습한 모델이 있는 기기별 최신 model_name (device_mac -> model_name)
+    public Map<String, String> getKnownDeviceModels() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Map<String, String> models = new HashMap<>();
+        try (Cursor cursor = db.rawQuery("SELECT device_mac, model_name FROM tb_deep_learning ORDER BY model_idx", null)) {
+            while (cursor.moveToNext()) {
+                // model_idx 오름차순이므로 마지막 값이 최신 모델
+                models.put(cursor.getString(0), cursor.getString(1));
+            }
+        }
+        return models;
+    }
 }
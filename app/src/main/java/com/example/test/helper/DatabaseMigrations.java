@@ -0,0 +1,141 @@
+package com.example.test.helper;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+// EXBR_DB.db 스키마 마이그레이션
+// 버전 1은 assets의 EXBR_DB.db 그대로의 스키마이고, MIGRATIONS[i]는 버전 i+1 -> i+2 변경입니다.
+// 새 변경은 배열 끝에 추가하고, 이미 배포한 단계는 수정하지 않습니다.
+// SQLiteOpenHelper가 onCreate/onUpgrade를 트랜잭션 안에서 호출하므로 단계 중 하나라도 실패하면 전체가 롤백됩니다.
+public final class DatabaseMigrations {
+
+    public interface Migration {
+        void apply(Schema db);
+    }
+
+    // 마이그레이션이 사용하는 데이터베이스 기능 (앱은 SQLiteDatabase, JVM 테스트는 JDBC SQLite로 실행)
+    public interface Schema {
+        void execSQL(String sql);
+
+        void execSQL(String sql, Object[] bindArgs);
+
+        boolean hasColumn(String table, String column);
+    }
+
+    // assets DB(복사 직후 user_version 0)의 스키마 버전
+    public static final int ASSET_VERSION = 1;
+
+    private static final Migration[] MIGRATIONS = {
+            DatabaseMigrations::migrateTo2,
+            DatabaseMigrations::migrateTo3,
+            DatabaseMigrations::migrateTo4,
+    };
+
+    public static final int LATEST_VERSION = ASSET_VERSION + MIGRATIONS.length;
+
+    private DatabaseMigrations() {
+    }
+
+    public static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        migrate(new SQLiteSchema(db), fromVersion, toVersion);
+    }
+
+    static void migrate(Schema db, int fromVersion, int toVersion) {
+        migrate(db, fromVersion, toVersion, MIGRATIONS);
+    }
+
+    static void migrate(Schema db, int fromVersion, int toVersion, Migration[] migrations) {
+        if (fromVersion < ASSET_VERSION || toVersion > ASSET_VERSION + migrations.length || fromVersion > toVersion) {
+            throw new IllegalStateException("No migration path from version " + fromVersion + " to " + toVersion);
+        }
+        for (int version = fromVersion; version < toVersion; version++) {
+            migrations[version - ASSET_VERSION].apply(db);
+        }
+    }
+
+    // 2: 스키마 불일치 수정 및 기기별 조회 인덱스
+    // - tb_sensing에 앱이 저장하는 sex 컬럼 추가
+    // - tb_deep_learning.analisys_result -> analysis_result (minSdk 24의 SQLite는 RENAME COLUMN이 없어 테이블 재생성)
+    // - device_mac 인덱스: 인덱스에 rowid(sensing_idx, model_idx)가 포함되므로
+    //   기기별 개수/존재 조회는 인덱스만으로, sensing_idx 키셋 페이지와 최신 모델 조회는 인덱스 순서대로 처리됨
+    private static void migrateTo2(Schema db) {
+        if (!db.hasColumn("tb_sensing", "sex")) {
+            db.execSQL("ALTER TABLE tb_sensing ADD COLUMN sex VARCHAR(10)");
+        }
+        if (db.hasColumn("tb_deep_learning", "analisys_result")) {
+            db.execSQL("CREATE TABLE tb_deep_learning_new (\n" +
+                    "  model_idx INTEGER PRIMARY KEY NOT NULL,\n" +
+                    "  sex VARCHAR(10) NOT NULL CHECK (sex IN ('남', '여')),\n" +
+                    "  device_mac VARCHAR(50) NOT NULL,\n" +
+                    "  model_name VARCHAR(50) NOT NULL,\n" +
+                    "  analysis_result TEXT NOT NULL,\n" +
+                    "  prediction_rate FLOAT NOT NULL,\n" +
+                    "  created_at TIMESTAMP NOT NULL,\n" +
+                    "  FOREIGN KEY(device_mac) REFERENCES tb_device(device_mac)\n" +
+                    ")");
+            db.execSQL("INSERT INTO tb_deep_learning_new (model_idx, sex, device_mac, model_name, analysis_result, prediction_rate, created_at) " +
+                    "SELECT model_idx, sex, device_mac, model_name, analisys_result, prediction_rate, created_at FROM tb_deep_learning");
+            db.execSQL("DROP TABLE tb_deep_learning");
+            db.execSQL("ALTER TABLE tb_deep_learning_new RENAME TO tb_deep_learning");
+        }
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_sensing_device_mac ON tb_sensing (device_mac)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_deep_learning_device_mac ON tb_deep_learning (device_mac)");
+    }
+
+    // 3: 센싱 세션 (기록 한 번 = 세션 하나)
+    // 초기화는 세션에 폐기 표시만 하고 실제 삭제는 SensingDataCleaner가 백그라운드에서 나눠서 처리
+    // 기존 데이터는 세션 0으로 묶음
+    // (session_idx, device_mac) 인덱스: 살아 있는 세션의 기기별 개수를 인덱스만으로 계산, 폐기 세션 삭제 시 사용
+    private static void migrateTo3(Schema db) {
+        db.execSQL("CREATE TABLE tb_sensing_session (\n" +
+                "  session_idx INTEGER PRIMARY KEY NOT NULL,\n" +
+                "  device_mac VARCHAR(50),\n" +
+                "  started_at TIMESTAMP NOT NULL,\n" +
+                "  discarded INTEGER NOT NULL DEFAULT 0\n" +
+                ")");
+        db.execSQL("INSERT INTO tb_sensing_session (session_idx, device_mac, started_at, discarded) VALUES (0, NULL, ?, 0)",
+                new Object[]{System.currentTimeMillis()});
+        db.execSQL("ALTER TABLE tb_sensing ADD COLUMN session_idx INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_sensing_session_device ON tb_sensing (session_idx, device_mac)");
+    }
+
+    // 4: 끝난 세션을 보관 파일(SensorArchiveFormat)로 옮기기 위한 세션 정보
+    // archive_path: 보관 파일 이름 (DatabaseHelper.getSensingArchiveDir 기준), 옮기기 전에는 NULL
+    private static void migrateTo4(Schema db) {
+        db.execSQL("ALTER TABLE tb_sensing_session ADD COLUMN ended_at TIMESTAMP");
+        db.execSQL("ALTER TABLE tb_sensing_session ADD COLUMN sex VARCHAR(10)");
+        db.execSQL("ALTER TABLE tb_sensing_session ADD COLUMN archive_path TEXT");
+        db.execSQL("ALTER TABLE tb_sensing_session ADD COLUMN archived_count INTEGER NOT NULL DEFAULT 0");
+    }
+
+    private static final class SQLiteSchema implements Schema {
+        private final SQLiteDatabase db;
+
+        SQLiteSchema(SQLiteDatabase db) {
+            this.db = db;
+        }
+
+        @Override
+        public void execSQL(String sql) {
+            db.execSQL(sql);
+        }
+
+        @Override
+        public void execSQL(String sql, Object[] bindArgs) {
+            db.execSQL(sql, bindArgs);
+        }
+
+        @Override
+        public boolean hasColumn(String table, String column) {
+            try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null)) {
+                int nameIndex = cursor.getColumnIndexOrThrow("name");
+                while (cursor.moveToNext()) {
+                    if (column.equals(cursor.getString(nameIndex))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.test.helper;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+// 실시간 추론 설정 (기기 설정에 저장, 다음 모델 로드부터 적용)
+// hop 비율은 ActualActivity의 window_hop_divisor 인텐트 값으로 바꿀 수 있으며, 윈도우 길이는 모델 입력 크기로 정해집니다.
+public class InferenceSettings {
+
+    // 윈도우 모델을 (윈도우 길이 / 4)개 샘플마다 실행 (75% 겹침)
+    public static final int DEFAULT_WINDOW_HOP_DIVISOR = 4;
+
+    private static final String PREFS_NAME = "inference_settings";
+    private static final String KEY_WINDOW_HOP_DIVISOR = "window_hop_divisor";
+
+    // 1이면 윈도우가 겹치지 않고, 클수록 자주 추론
+    public static int getWindowHopDivisor(Context context) {
+        int divisor = prefs(context).getInt(KEY_WINDOW_HOP_DIVISOR, DEFAULT_WINDOW_HOP_DIVISOR);
+        return divisor > 0 ? divisor : DEFAULT_WINDOW_HOP_DIVISOR;
+    }
+
+    public static void setWindowHopDivisor(Context context, int divisor) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("divisor must be positive: " + divisor);
+        }
+        prefs(context).edit().putInt(KEY_WINDOW_HOP_DIVISOR, divisor).apply();
+    }
+
+    // 윈도우 길이에 대한 hop (최소 1)
+    public static int getHopSize(int windowLength, int divisor) {
+        return Math.max(1, windowLength / divisor);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
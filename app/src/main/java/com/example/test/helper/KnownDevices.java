@@ -0,0 +1,58 @@
+package com.example.test.helper;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+// 학습한 모델이 있는 기기 목록과 마지막으로 사용한 장갑 (앱 시작 시 백그라운드에서 한 번 읽어 메모리에 보관)
+public class KnownDevices {
+
+    public static final KnownDevices EMPTY = new KnownDevices(Collections.emptyMap(), null);
+
+    private static final String PREFS_NAME = "known_devices";
+    private static final String KEY_LAST_DEVICE_MAC = "last_device_mac";
+
+    private final Map<String, String> modelNames;
+    private final String lastDeviceMac;
+
+    KnownDevices(Map<String, String> modelNames, String lastDeviceMac) {
+        this.modelNames = Collections.unmodifiableMap(modelNames);
+        this.lastDeviceMac = lastDeviceMac;
+    }
+
+    // DB 조회가 있으므로 메인 스레드에서 호출하지 않음
+    public static KnownDevices load(Context context, DatabaseHelper dbHelper) {
+        String lastDeviceMac = prefs(context).getString(KEY_LAST_DEVICE_MAC, null);
+        return new KnownDevices(dbHelper.getKnownDeviceModels(), lastDeviceMac);
+    }
+
+    // 연결에 성공한 장갑을 다음 실행의 빠른 재연결 대상으로 저장
+    public static void setLastDeviceMac(Context context, String deviceMac) {
+        prefs(context).edit().putString(KEY_LAST_DEVICE_MAC, deviceMac).apply();
+    }
+
+    public boolean contains(String deviceMac) {
+        return modelNames.containsKey(deviceMac);
+    }
+
+    // 기기의 최신 model_name (없으면 null)
+    public String getModelName(String deviceMac) {
+        return modelNames.get(deviceMac);
+    }
+
+    public Set<String> getDeviceMacs() {
+        return modelNames.keySet();
+    }
+
+    // 마지막으로 사용한 장갑에 모델이 있으면 그 MAC, 없으면 null
+    public String getReconnectDeviceMac() {
+        return lastDeviceMac != null && contains(lastDeviceMac) ? lastDeviceMac : null;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
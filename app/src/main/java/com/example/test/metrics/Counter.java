@@ -0,0 +1,25 @@
+package com.example.test.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 누적 횟수 (잠금/할당 없이 여러 스레드에서 증가 가능)
+public class Counter {
+
+    private final AtomicLong value = new AtomicLong();
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void add(long delta) {
+        value.addAndGet(delta);
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    public void reset() {
+        value.set(0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.test.metrics;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.widget.TextView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 지표를 TextView에 주기적으로 표시하는 디버그 오버레이 (메인 스레드에서 사용)
+// 카운터는 이전 갱신 이후의 초당 증가량도 함께 표시합니다.
+public class MetricsOverlay {
+
+    public static final long DEFAULT_REFRESH_MS = 1000;
+
+    private final TextView view;
+    private final MetricsRegistry registry;
+    private final long refreshMs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable refreshTask = this::refresh;
+    private final Map<String, Long> lastCounts = new HashMap<>();
+    private final StringBuilder text = new StringBuilder();
+    private long lastRefreshNanos;
+    private boolean running;
+
+    public MetricsOverlay(TextView view, MetricsRegistry registry) {
+        this(view, registry, DEFAULT_REFRESH_MS);
+    }
+
+    public MetricsOverlay(TextView view, MetricsRegistry registry, long refreshMs) {
+        this.view = view;
+        this.registry = registry;
+        this.refreshMs = refreshMs;
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        lastCounts.clear();
+        lastRefreshNanos = 0;
+        refresh();
+    }
+
+    public void stop() {
+        running = false;
+        handler.removeCallbacks(refreshTask);
+    }
+
+    private void refresh() {
+        if (!running) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtimeNanos();
+        text.setLength(0);
+        registry.appendTo(text, lastCounts, lastRefreshNanos == 0 ? 0 : now - lastRefreshNanos);
+        lastRefreshNanos = now;
+        view.setText(text);
+        handler.postDelayed(refreshTask, refreshMs);
+    }
+}
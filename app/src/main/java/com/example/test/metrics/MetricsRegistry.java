@@ -0,0 +1,128 @@
+package com.example.test.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+// 앱 전체 런타임 지표 (카운터, 게이지, 지연 시간 히스토그램)
+// 지표는 초기화 시점에 이름으로 한 번 가져와 필드에 두고 기록합니다. 기록은 잠금/할당 없이 실행됩니다.
+// 게이지는 값을 읽을 때(오버레이 갱신, 파일 저장)만 호출되므로 수집 경로에 비용이 없습니다.
+// 이름의 단위 접미사(_us, _ns)가 히스토그램 값의 단위입니다.
+public class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    // 이름순 정렬 (Counter, LongSupplier, LatencyHistogram)
+    private final Map<String, Object> metrics = new TreeMap<>();
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    // 이름의 카운터 (없으면 생성)
+    public synchronized Counter counter(String name) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            metric = new Counter();
+            metrics.put(name, metric);
+        }
+        return cast(name, metric, Counter.class);
+    }
+
+    // 이름의 히스토그램 (없으면 생성)
+    public synchronized LatencyHistogram histogram(String name) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            metric = new LatencyHistogram();
+            metrics.put(name, metric);
+        }
+        return cast(name, metric, LatencyHistogram.class);
+    }
+
+    // 이미 있는 히스토그램 등록 (GattOperationQueue.Stats 등), 같은 이름이면 교체
+    public synchronized void register(String name, LatencyHistogram histogram) {
+        metrics.put(name, histogram);
+    }
+
+    // 읽을 때마다 값을 계산하는 게이지 등록, 같은 이름이면 교체
+    public synchronized void gauge(String name, LongSupplier value) {
+        metrics.put(name, value);
+    }
+
+    // 등록된 지표가 metric일 때만 제거 (다른 곳에서 같은 이름으로 다시 등록한 경우 유지)
+    public synchronized void remove(String name, Object metric) {
+        if (metrics.get(name) == metric) {
+            metrics.remove(name);
+        }
+    }
+
+    // 카운터와 히스토그램 초기화 (게이지는 그대로)
+    public synchronized void reset() {
+        for (Object metric : metrics.values()) {
+            if (metric instanceof Counter) {
+                ((Counter) metric).reset();
+            } else if (metric instanceof LatencyHistogram) {
+                ((LatencyHistogram) metric).reset();
+            }
+        }
+    }
+
+    // 한 줄에 지표 하나씩 기록
+    // lastCounts가 있으면 이전 호출 이후 elapsedNanos 동안의 카운터 초당 증가량도 기록하고 lastCounts를 갱신합니다.
+    public synchronized void appendTo(StringBuilder out, Map<String, Long> lastCounts, long elapsedNanos) {
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            String name = entry.getKey();
+            Object metric = entry.getValue();
+            out.append(name).append(' ');
+            if (metric instanceof Counter) {
+                long count = ((Counter) metric).get();
+                out.append(count);
+                if (lastCounts != null) {
+                    Long last = lastCounts.put(name, count);
+                    if (last != null && elapsedNanos > 0) {
+                        out.append(String.format(Locale.US, " (%.1f/s)", (count - last) * 1e9 / elapsedNanos));
+                    }
+                }
+            } else if (metric instanceof LongSupplier) {
+                out.append(((LongSupplier) metric).getAsLong());
+            } else {
+                appendHistogram(out, (LatencyHistogram) metric);
+            }
+            out.append('\n');
+        }
+    }
+
+    // 현재 값을 파일로 저장 (기존 파일은 덮어씀)
+    public void writeTo(File file, String header) throws IOException {
+        StringBuilder text = new StringBuilder(header).append('\n');
+        appendTo(text, null, 0);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(text.toString());
+        }
+    }
+
+    private static void appendHistogram(StringBuilder out, LatencyHistogram histogram) {
+        out.append("count=").append(histogram.getCount());
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        out.append(String.format(Locale.US, " mean=%.1f", histogram.getMean()))
+                .append(" p50=").append(histogram.getPercentile(50))
+                .append(" p99=").append(histogram.getPercentile(99))
+                .append(" max=").append(histogram.getMax());
+    }
+
+    private static <T> T cast(String name, Object metric, Class<T> type) {
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+}
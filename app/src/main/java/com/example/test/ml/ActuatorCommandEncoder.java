@@ -0,0 +1,80 @@
+package com.example.test.ml;
+
+// 모델 출력을 아두이노 제어 명령("SENSOR_CONTROL:a,b")으로 변환
+// 숫자 형식은 기존과 같이 Java float 문자열(String.valueOf(float))을 그대로 사용합니다 (펌웨어 파서 호환).
+// 출력값이 마지막으로 보낸 값에서 tolerance 이하로 움직였으면 새 명령을 만들지 않으므로,
+// 샘플마다 호출해도 명령이 바뀔 때만 바이트 배열 하나를 만들고 그 외에는 할당이 없습니다.
+public class ActuatorCommandEncoder {
+
+    // 정규화된 출력(학습 범위 0~1) 기준 1%
+    public static final float DEFAULT_TOLERANCE = 0.01f;
+
+    private static final String PREFIX = "SENSOR_CONTROL:";
+
+    private final float tolerance;
+    private final StringBuilder builder = new StringBuilder(48);
+    private boolean hasValue;
+    private float lastFirst;
+    private float lastSecond;
+    private byte[] commandBytes;
+    private String command;
+
+    public ActuatorCommandEncoder() {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    // tolerance가 0이면 값이 조금이라도 바뀔 때마다 새 명령
+    public ActuatorCommandEncoder(float tolerance) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("tolerance must be >= 0: " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    // 명령이 바뀌었으면 true (NaN으로 바뀌거나 NaN에서 바뀌는 경우도 포함)
+    public boolean update(float first, float second) {
+        if (hasValue && isWithinTolerance(first, lastFirst) && isWithinTolerance(second, lastSecond)) {
+            return false;
+        }
+        hasValue = true;
+        lastFirst = first;
+        lastSecond = second;
+        // StringBuilder.append(float)는 String.valueOf(float)와 같은 문자열
+        builder.setLength(0);
+        builder.append(PREFIX).append(lastFirst).append(',').append(lastSecond);
+        // 명령은 ASCII이므로 String을 거치지 않고 바로 바이트로 변환
+        byte[] bytes = new byte[builder.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) builder.charAt(i);
+        }
+        commandBytes = bytes;
+        command = null;
+        return true;
+    }
+
+    // 현재 명령의 UTF-8 바이트 (다음 변경 전까지 같은 배열, 호출한 쪽에서 수정하지 않음)
+    public byte[] getCommandBytes() {
+        return hasValue ? commandBytes : null;
+    }
+
+    // 현재 명령 문자열 (로그용, 값이 바뀐 뒤 처음 호출될 때만 생성)
+    public String getCommand() {
+        if (command == null && hasValue) {
+            command = builder.toString();
+        }
+        return command;
+    }
+
+    public void reset() {
+        hasValue = false;
+        commandBytes = null;
+        command = null;
+    }
+
+    private boolean isWithinTolerance(float value, float last) {
+        if (Float.isNaN(value) || Float.isNaN(last)) {
+            return Float.isNaN(value) && Float.isNaN(last);
+        }
+        return value == last || Math.abs(value - last) <= tolerance;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.test.ml;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.InterpreterApi;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+// 프레임 단위 추론 (입력/출력 버퍼를 미리 할당해 재사용)
+// 한 스레드에서만 사용해야 하며, 모델 실행은 Interpreter로 동기화하므로 같은 Interpreter의 학습과 겹치지 않습니다.
+public class GesturePredictor {
+
+    public static final int OUTPUT_SIZE = 2;
+
+    private final InterpreterApi interpreter;
+    private final SensorNormalizer normalizer;
+    private final ByteBuffer input = ByteBuffer.allocateDirect(SensorFrame.CHANNEL_COUNT * 4).order(ByteOrder.nativeOrder());
+    private final float[][] output = new float[1][OUTPUT_SIZE];
+    // 학습용 모델이면 infer 시그니처로 실행 (null이면 기본 서브그래프)
+    private final Interpreter signatureInterpreter;
+    private final Map<String, Object> signatureInputs;
+    private final Map<String, Object> signatureOutputs;
+
+    public GesturePredictor(InterpreterApi interpreter, SensorNormalizer normalizer) {
+        this.interpreter = interpreter;
+        this.normalizer = normalizer;
+        this.signatureInterpreter = null;
+        this.signatureInputs = null;
+        this.signatureOutputs = null;
+    }
+
+    private GesturePredictor(Interpreter interpreter, SensorNormalizer normalizer, String inputName, String outputName) {
+        this.interpreter = interpreter;
+        this.normalizer = normalizer;
+        this.signatureInterpreter = interpreter;
+        this.signatureInputs = new HashMap<>();
+        this.signatureOutputs = new HashMap<>();
+        signatureInputs.put(inputName, input);
+        signatureOutputs.put(outputName, output);
+    }
+
+    // train/infer 시그니처가 있는 학습용 모델은 infer 시그니처, 아니면 기본 실행
+    // normalizer는 모델을 학습할 때 사용한 범위 (ModelFiles.loadNormalizer)
+    public static GesturePredictor create(Interpreter interpreter, SensorNormalizer normalizer) {
+        if (SignatureTrainableModel.hasSignature(interpreter, SignatureTrainableModel.INFER)) {
+            return new GesturePredictor(interpreter, normalizer,
+                    interpreter.getSignatureInputs(SignatureTrainableModel.INFER)[0],
+                    interpreter.getSignatureOutputs(SignatureTrainableModel.INFER)[0]);
+        }
+        return new GesturePredictor(interpreter, normalizer);
+    }
+
+    // 프레임을 정규화해 모델 실행, 반환 배열은 다음 호출 시 덮어쓰임
+    public float[] predict(SensorFrame frame) {
+        input.clear();
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            input.putFloat(normalizer.normalize(channel, frame.get(channel)));
+        }
+        input.rewind();
+        synchronized (interpreter) {
+            if (signatureInterpreter != null) {
+                signatureInterpreter.runSignature(signatureInputs, signatureOutputs, SignatureTrainableModel.INFER);
+            } else {
+                interpreter.run(input, output);
+            }
+        }
+        return output[0];
+    }
+}
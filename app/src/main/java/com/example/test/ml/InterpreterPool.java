@@ -0,0 +1,211 @@
+package com.example.test.ml;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 모델 이름(ModelFiles.getModelName, tb_deep_learning.model_name)별 TFLite Interpreter 캐시
+// 장갑마다 같은 모델 파일에 각자의 체크포인트를 복원한 Interpreter를 따로 둡니다.
+// 액티비티가 다시 만들어져도 모델을 다시 읽지 않고, 메모리가 부족하면 사용 중이 아닌 Interpreter를 닫습니다.
+// 같은 모델을 가져간 곳은 모두 같은 Interpreter를 공유합니다. Interpreter는 스레드 안전하지 않으므로
+// 실행(run/runSignature)할 때마다 Interpreter 객체로 동기화해야 합니다 (GesturePredictor, SignatureTrainableModel).
+public class InterpreterPool implements ComponentCallbacks2 {
+
+    private static final String TAG = "InterpreterPool";
+    // 동시에 유지할 최대 모델 수
+    private static final int MAX_IDLE_ENTRIES = 2;
+    private static final int MAX_THREADS = 4;
+
+    private static InterpreterPool instance;
+
+    private final Context context;
+    private final int numThreads;
+    // 접근 순서 기준 LRU
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(4, 0.75f, true);
+    // 캐시에서 제거되었지만 아직 사용 중인 Interpreter (release 시 닫음)
+    private final List<Entry> retired = new ArrayList<>();
+
+    private static class Entry {
+        final Interpreter interpreter;
+        int refCount;
+
+        Entry(Interpreter interpreter) {
+            this.interpreter = interpreter;
+        }
+    }
+
+    private InterpreterPool(Context context) {
+        this.context = context;
+        this.numThreads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static synchronized InterpreterPool getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new InterpreterPool(appContext);
+            appContext.registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    // 모델 이름의 Interpreter를 가져옴, 사용이 끝나면 release 호출
+    // 실행할 때는 synchronized (interpreter) 안에서 호출해야 함
+    public synchronized Interpreter acquire(String modelName) throws IOException {
+        Entry entry = entries.get(modelName);
+        if (entry == null) {
+            entry = new Entry(new Interpreter(loadModelFile(ModelFiles.resolveModelFileName(modelName)), createOptions()));
+            // 기기에서 학습한 가중치가 있으면 복원
+            if (SignatureTrainableModel.restoreIfPresent(entry.interpreter, ModelFiles.getCheckpointFile(context, modelName))) {
+                Log.i(TAG, "Restored checkpoint for " + modelName);
+            }
+            entries.put(modelName, entry);
+        }
+        entry.refCount++;
+        trimIdle(MAX_IDLE_ENTRIES);
+        return entry.interpreter;
+    }
+
+    public synchronized void release(Interpreter interpreter) {
+        for (Entry entry : entries.values()) {
+            if (entry.interpreter == interpreter) {
+                if (entry.refCount > 0) {
+                    entry.refCount--;
+                }
+                return;
+            }
+        }
+        Iterator<Entry> iterator = retired.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.interpreter == interpreter && --entry.refCount <= 0) {
+                iterator.remove();
+                entry.interpreter.close();
+                return;
+            }
+        }
+    }
+
+    public synchronized boolean isLoaded(String modelName) {
+        return entries.containsKey(modelName);
+    }
+
+    // 모델 파일이 바뀌었을 때 (재학습 후) 캐시에서 제거, 사용 중이면 release 시점에 닫음
+    public synchronized void invalidate(String modelName) {
+        Entry entry = entries.remove(modelName);
+        if (entry == null) {
+            return;
+        }
+        if (entry.refCount == 0) {
+            entry.interpreter.close();
+        } else {
+            retired.add(entry);
+        }
+    }
+
+    // 미리 모델을 읽고 한 번 실행해 첫 추론 지연을 없앰
+    public void warmUp(String modelName) throws IOException {
+        Interpreter interpreter = acquire(modelName);
+        try {
+            synchronized (interpreter) {
+                if (SignatureTrainableModel.hasSignature(interpreter, SignatureTrainableModel.INFER)) {
+                    // 학습용 모델은 기본 서브그래프가 train일 수 있으므로 infer 시그니처로 실행
+                    GesturePredictor.create(interpreter, SensorNormalizer.RAW).predict(new SensorFrame());
+                    return;
+                }
+                Tensor input = interpreter.getInputTensor(0);
+                Tensor output = interpreter.getOutputTensor(0);
+                if (input.numBytes() > 0 && output.numBytes() > 0) {
+                    interpreter.run(
+                            ByteBuffer.allocateDirect(input.numBytes()).order(ByteOrder.nativeOrder()),
+                            ByteBuffer.allocateDirect(output.numBytes()).order(ByteOrder.nativeOrder()));
+                }
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Log.w(TAG, "Warm-up skipped for " + modelName, e);
+        } finally {
+            release(interpreter);
+        }
+    }
+
+    // 모든 Interpreter 닫기
+    public synchronized void closeAll() {
+        for (Entry entry : entries.values()) {
+            entry.interpreter.close();
+        }
+        entries.clear();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            // 메모리가 부족하면 사용 중이 아닌 Interpreter를 모두 닫음
+            trimIdle(0);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        trimIdle(0);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    // 사용 중이 아닌 Interpreter를 오래된 순서로 닫아 maxIdle개만 남김
+    private synchronized void trimIdle(int maxIdle) {
+        int idle = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.refCount == 0) {
+                idle++;
+            }
+        }
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (idle > maxIdle && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.refCount == 0) {
+                iterator.remove();
+                entry.interpreter.close();
+                idle--;
+            }
+        }
+    }
+
+    // 스레드 수, XNNPACK 사용 설정
+    // 출력은 항상 Java 배열/버퍼로 읽으므로 버퍼 핸들 출력(setAllowBufferHandleOutput)은 사용하지 않습니다.
+    private Interpreter.Options createOptions() {
+        Interpreter.Options options = new Interpreter.Options();
+        options.setNumThreads(numThreads);
+        options.setUseXNNPACK(true);
+        options.setAllowBufferHandleOutput(false);
+        return options;
+    }
+
+    private MappedByteBuffer loadModelFile(String modelFileName) throws IOException {
+        File modelFile = new File(context.getFilesDir(), modelFileName);
+        try (FileInputStream inputStream = new FileInputStream(modelFile);
+             FileChannel fileChannel = inputStream.getChannel()) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        }
+    }
+}
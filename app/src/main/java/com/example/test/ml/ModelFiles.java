@@ -0,0 +1,92 @@
+package com.example.test.ml;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.test.sensor.SensorNormalizer;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+// 모델/체크포인트 파일 이름 (getFilesDir 기준)
+// 모델 그래프(.tflite)는 모든 기기가 공유하고, 기기에서 학습한 가중치(.ckpt)와 정규화 범위(.norm)는
+// 장갑(device_mac)마다 따로 저장합니다 (getModelName).
+public final class ModelFiles {
+
+    public static final String SENSOR_PAIR_MODEL = "sensor_pair_model.tflite";
+
+    private static final String DEVICE_MODEL_PREFIX = "sensor_pair_model_";
+    private static final String MODEL_EXTENSION = ".tflite";
+    private static final String CHECKPOINT_EXTENSION = ".ckpt";
+    private static final String NORMALIZER_EXTENSION = ".norm";
+    private static final String TAG = "ModelFiles";
+
+    private ModelFiles() {
+    }
+
+    // 장갑별 학습 모델 이름 (tb_deep_learning.model_name, InterpreterPool 키)
+    // 예: AA:BB:CC:DD:EE:FF -> sensor_pair_model_aabbccddeeff
+    public static String getModelName(String deviceMac) {
+        return DEVICE_MODEL_PREFIX + deviceMac.replace(":", "").toLowerCase(Locale.US);
+    }
+
+    // tb_deep_learning.model_name을 모델 그래프 파일 이름으로 변환
+    // 장갑별 이름과 예전 버전의 표시 이름("Sensor Pair Model")은 모두 기본 모델 파일을 사용합니다.
+    public static String resolveModelFileName(String modelName) {
+        if (modelName != null && modelName.endsWith(MODEL_EXTENSION)) {
+            return modelName;
+        }
+        return SENSOR_PAIR_MODEL;
+    }
+
+    // 모델 이름에 대응하는 학습 체크포인트 (sensor_pair_model_aabbccddeeff -> sensor_pair_model_aabbccddeeff.ckpt)
+    public static File getCheckpointFile(Context context, String modelName) {
+        return new File(context.getFilesDir(), getBaseName(modelName) + CHECKPOINT_EXTENSION);
+    }
+
+    // 학습에 사용한 입력 정규화 범위 (sensor_pair_model_aabbccddeeff -> sensor_pair_model_aabbccddeeff.norm)
+    public static File getNormalizerFile(Context context, String modelName) {
+        return new File(context.getFilesDir(), getBaseName(modelName) + NORMALIZER_EXTENSION);
+    }
+
+    // 학습이 끝난 뒤 체크포인트와 함께 저장 (임시 파일에 쓴 뒤 교체)
+    public static void saveNormalizer(Context context, String modelName, SensorNormalizer normalizer) throws IOException {
+        File file = getNormalizerFile(context, modelName);
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            normalizer.writeTo(out);
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+
+    // 저장된 범위가 없거나 읽을 수 없으면 RAW (범위 파일 없이 학습된 예전 모델)
+    public static SensorNormalizer loadNormalizer(Context context, String modelName) {
+        File file = getNormalizerFile(context, modelName);
+        if (!file.isFile()) {
+            return SensorNormalizer.RAW;
+        }
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return SensorNormalizer.read(in);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot read " + file + ", using raw sensor values", e);
+            return SensorNormalizer.RAW;
+        }
+    }
+
+    // 장갑별 이름은 그대로, 모델 파일 이름은 확장자를 뺀 이름 (예전 버전에서 공유하던 sensor_pair_model.ckpt)
+    private static String getBaseName(String modelName) {
+        if (modelName != null && modelName.startsWith(DEVICE_MODEL_PREFIX)) {
+            return modelName;
+        }
+        String modelFileName = resolveModelFileName(modelName);
+        return modelFileName.substring(0, modelFileName.length() - MODEL_EXTENSION.length());
+    }
+}
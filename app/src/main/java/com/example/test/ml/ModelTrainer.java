@@ -0,0 +1,193 @@
+package com.example.test.ml;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.storage.ChunkConsumer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// tb_sensing 데이터로 미니배치 에폭 학습 후 체크포인트 저장
+// 각 샘플의 8채널로 PREDICTION_HORIZON개 뒤 샘플의 목표 채널 값을 예측하도록 학습합니다.
+// (같은 시점의 값을 목표로 하면 입력에 목표 채널이 그대로 들어 있어 모델이 값을 복사하는 것만 학습합니다.)
+// 백그라운드 스레드에서 train()을 호출하고, 다른 스레드에서 cancel()로 중단할 수 있습니다.
+public class ModelTrainer {
+
+    public static final int DEFAULT_EPOCHS = 10;
+    // 예측값과 목표값 차이가 이 값 이하이면 맞은 것으로 계산
+    public static final float PREDICTION_TOLERANCE = 0.1f;
+    // 학습 목표: 제어 명령 두 값에 대응하는 가운데/약지 압력 센서
+    static final int[] TARGET_CHANNELS = {SensorFrame.MIDDLE_PRESSURE, SensorFrame.RING_PRESSURE};
+    // 몇 샘플 뒤의 압력을 예측할지 (5ms 간격 기준 약 50ms)
+    public static final int PREDICTION_HORIZON = 10;
+
+    private static final int FLOAT_BYTES = 4;
+
+    // 데이터 전체를 배치 단위로 전달 (SensingDataLoader::forEachChunk)
+    public interface BatchSource {
+        int forEachChunk(ChunkConsumer consumer);
+    }
+
+    // 학습 스레드에서 호출됨
+    public interface Listener {
+        void onEpochFinished(int epoch, int epochs, float loss, float samplesPerSecond);
+    }
+
+    public static class Result {
+        public final int epochs;
+        public final float loss;
+        public final float predictionRate;
+
+        Result(int epochs, float loss, float predictionRate) {
+            this.epochs = epochs;
+            this.loss = loss;
+            this.predictionRate = predictionRate;
+        }
+    }
+
+    private final TrainableModel model;
+    private final int batchSize;
+    private final int horizon;
+    private final ByteBuffer inputs;
+    private final ByteBuffer targets;
+    private final ByteBuffer row = ByteBuffer.allocateDirect(SensorFrame.CHANNEL_COUNT * FLOAT_BYTES).order(ByteOrder.nativeOrder());
+    // 목표가 아직 도착하지 않은 최근 horizon개 샘플 (샘플 번호 % horizon 위치)
+    private final float[][] pending;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public ModelTrainer(TrainableModel model) {
+        this(model, PREDICTION_HORIZON);
+    }
+
+    ModelTrainer(TrainableModel model, int horizon) {
+        this.model = model;
+        this.batchSize = model.getBatchSize();
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        if (horizon <= 0) {
+            throw new IllegalArgumentException("horizon must be positive");
+        }
+        this.horizon = horizon;
+        this.inputs = ByteBuffer.allocateDirect(batchSize * SensorFrame.CHANNEL_COUNT * FLOAT_BYTES).order(ByteOrder.nativeOrder());
+        this.targets = ByteBuffer.allocateDirect(batchSize * TARGET_CHANNELS.length * FLOAT_BYTES).order(ByteOrder.nativeOrder());
+        this.pending = new float[horizon][SensorFrame.CHANNEL_COUNT];
+    }
+
+    // 학습 배치 크기 (BatchSource의 chunk 크기는 자유이며, 샘플은 chunk 경계와 관계없이 이어서 배치로 묶음)
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    // epochs만큼 학습하고 checkpoint에 저장, 취소되면 CancellationException
+    // 마지막 horizon개 샘플은 목표로만 쓰이고, 배치를 채우지 못한 나머지 샘플은 학습에서 제외합니다.
+    public Result train(BatchSource source, int epochs, File checkpoint, Listener listener) throws IOException {
+        if (epochs <= 0) {
+            throw new IllegalArgumentException("epochs must be positive");
+        }
+        float[] lossSum = new float[1];
+        int[] batches = new int[1];
+        float epochLoss = 0;
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            checkCancelled();
+            lossSum[0] = 0;
+            batches[0] = 0;
+            long startedAt = System.nanoTime();
+            inputs.clear();
+            targets.clear();
+            forEachPair(source, (input, chunk, targetBase) -> {
+                inputs.put(input);
+                for (int channel : TARGET_CHANNELS) {
+                    targets.putFloat(chunk.getFloat(targetBase + channel * FLOAT_BYTES));
+                }
+                if (!inputs.hasRemaining()) {
+                    inputs.rewind();
+                    targets.rewind();
+                    lossSum[0] += model.train(inputs, targets);
+                    batches[0]++;
+                    inputs.clear();
+                    targets.clear();
+                }
+            });
+            if (batches[0] == 0) {
+                throw new IllegalStateException("Not enough samples for one batch of " + batchSize);
+            }
+            epochLoss = lossSum[0] / batches[0];
+            long elapsedNanos = Math.max(1, System.nanoTime() - startedAt);
+            float samplesPerSecond = batches[0] * (float) batchSize * 1e9f / elapsedNanos;
+            if (listener != null) {
+                listener.onEpochFinished(epoch, epochs, epochLoss, samplesPerSecond);
+            }
+        }
+
+        checkCancelled();
+        float predictionRate = evaluate(source);
+        checkCancelled();
+        model.save(checkpoint);
+        return new Result(epochs, epochLoss, predictionRate);
+    }
+
+    // 목표가 있는 전체 샘플에 대해 horizon개 뒤의 목표값과의 차이가 허용 오차 이내인 비율
+    float evaluate(BatchSource source) {
+        int[] hits = new int[1];
+        int total = forEachPair(source, (input, chunk, targetBase) -> {
+            float[] output = model.infer(input);
+            for (int t = 0; t < TARGET_CHANNELS.length; t++) {
+                float target = chunk.getFloat(targetBase + TARGET_CHANNELS[t] * FLOAT_BYTES);
+                if (Math.abs(output[t] - target) > PREDICTION_TOLERANCE) {
+                    return;
+                }
+            }
+            hits[0]++;
+        });
+        return total == 0 ? 0f : (float) hits[0] / total;
+    }
+
+    // 입력 샘플([8], 다음 호출 시 덮어쓰임)과 chunk 안에서 horizon개 뒤 샘플의 시작 위치
+    private interface PairConsumer {
+        void onPair(ByteBuffer input, ByteBuffer chunk, int targetBase);
+    }
+
+    // 샘플 i를 입력, 샘플 i + horizon을 목표로 전달하고 전달한 쌍의 수를 반환
+    private int forEachPair(BatchSource source, PairConsumer consumer) {
+        int[] seen = new int[1];
+        source.forEachChunk((chunk, rows) -> {
+            checkCancelled();
+            for (int i = 0; i < rows; i++) {
+                int base = i * SensorFrame.CHANNEL_COUNT * FLOAT_BYTES;
+                float[] slot = pending[seen[0] % horizon];
+                if (seen[0] >= horizon) {
+                    // slot에는 horizon개 전 샘플이 들어 있음
+                    row.clear();
+                    for (float value : slot) {
+                        row.putFloat(value);
+                    }
+                    row.rewind();
+                    consumer.onPair(row, chunk, base);
+                }
+                for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                    slot[channel] = chunk.getFloat(base + channel * FLOAT_BYTES);
+                }
+                seen[0]++;
+            }
+        });
+        return Math.max(0, seen[0] - horizon);
+    }
+
+    private void checkCancelled() {
+        if (cancelled.get()) {
+            throw new CancellationException("Training cancelled");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.test.ml;
+
+import org.tensorflow.lite.Interpreter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// TFLite 시그니처(train / infer / save / restore)로 학습하는 모델
+// 시그니처 입력/출력 맵은 미리 만들어 두고 버퍼만 바꿔 끼웁니다.
+// 풀에서 공유하는 Interpreter이므로 시그니처 실행마다 Interpreter로 동기화합니다.
+public class SignatureTrainableModel implements TrainableModel {
+
+    public static final String TRAIN = "train";
+    public static final String INFER = "infer";
+    public static final String SAVE = "save";
+    public static final String RESTORE = "restore";
+
+    private static final String CHECKPOINT_PATH = "checkpoint_path";
+
+    private final Interpreter interpreter;
+    private final int batchSize;
+    private final String trainX;
+    private final String trainY;
+    private final String inferX;
+    private final Map<String, Object> trainInputs = new HashMap<>();
+    private final Map<String, Object> trainOutputs = new HashMap<>();
+    private final Map<String, Object> inferInputs = new HashMap<>();
+    private final Map<String, Object> inferOutputs = new HashMap<>();
+    private final FloatBuffer loss = FloatBuffer.allocate(1);
+    private final float[][] inferOutput = new float[1][GesturePredictor.OUTPUT_SIZE];
+
+    public SignatureTrainableModel(Interpreter interpreter) {
+        if (!hasSignature(interpreter, TRAIN) || !hasSignature(interpreter, INFER) || !hasSignature(interpreter, SAVE)) {
+            throw new IllegalArgumentException("Model has no train/infer/save signatures: "
+                    + Arrays.toString(interpreter.getSignatureKeys()));
+        }
+        this.interpreter = interpreter;
+
+        String[] trainInputNames = interpreter.getSignatureInputs(TRAIN);
+        trainX = trainInputNames[0];
+        trainY = trainInputNames[1];
+        batchSize = interpreter.getInputTensorFromSignature(trainX, TRAIN).shape()[0];
+        trainOutputs.put(interpreter.getSignatureOutputs(TRAIN)[0], loss);
+
+        inferX = interpreter.getSignatureInputs(INFER)[0];
+        inferOutputs.put(interpreter.getSignatureOutputs(INFER)[0], inferOutput);
+    }
+
+    public static boolean hasSignature(Interpreter interpreter, String key) {
+        for (String signature : interpreter.getSignatureKeys()) {
+            if (signature.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 저장된 체크포인트가 있으면 가중치 복원, 복원했으면 true
+    public static boolean restoreIfPresent(Interpreter interpreter, File checkpoint) {
+        if (!checkpoint.isFile() || !hasSignature(interpreter, RESTORE)) {
+            return false;
+        }
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put(CHECKPOINT_PATH, checkpoint.getAbsolutePath());
+        synchronized (interpreter) {
+            interpreter.runSignature(inputs, new HashMap<>(), RESTORE);
+        }
+        return true;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public float train(ByteBuffer x, ByteBuffer y) {
+        trainInputs.put(trainX, x);
+        trainInputs.put(trainY, y);
+        loss.clear();
+        synchronized (interpreter) {
+            interpreter.runSignature(trainInputs, trainOutputs, TRAIN);
+        }
+        return loss.get(0);
+    }
+
+    @Override
+    public float[] infer(ByteBuffer x) {
+        inferInputs.put(inferX, x);
+        synchronized (interpreter) {
+            interpreter.runSignature(inferInputs, inferOutputs, INFER);
+        }
+        return inferOutput[0];
+    }
+
+    @Override
+    public void save(File checkpoint) throws IOException {
+        File parent = checkpoint.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put(CHECKPOINT_PATH, checkpoint.getAbsolutePath());
+        synchronized (interpreter) {
+            interpreter.runSignature(inputs, new HashMap<>(), SAVE);
+        }
+    }
+}
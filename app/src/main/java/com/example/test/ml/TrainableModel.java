@@ -0,0 +1,21 @@
+package com.example.test.ml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// 기기에서 학습 가능한 모델 (train / infer / save 단계)
+public interface TrainableModel {
+
+    // train 단계의 고정 배치 크기
+    int getBatchSize();
+
+    // 배치 하나로 한 스텝 학습, loss 반환
+    // x: [batch, 8], y: [batch, 2] (native order float)
+    float train(ByteBuffer x, ByteBuffer y);
+
+    // 샘플 하나 추론, 반환 배열은 다음 호출 시 덮어쓰임
+    float[] infer(ByteBuffer x);
+
+    void save(File checkpoint) throws IOException;
+}
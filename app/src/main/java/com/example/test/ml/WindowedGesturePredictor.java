@@ -0,0 +1,60 @@
+package com.example.test.ml;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+import com.example.test.sensor.SensorRingBuffer;
+import com.example.test.sensor.SlidingWindow;
+
+import org.tensorflow.lite.InterpreterApi;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// 슬라이딩 윈도우 추론 (입력 [1, N, 8])
+// 샘플마다 추론하지 않고 hop개 샘플마다 한 번씩 최근 N개 샘플로 모델을 실행합니다.
+// 한 스레드에서만 사용해야 하며, 모델 실행은 Interpreter로 동기화합니다 (InterpreterPool 참고).
+public class WindowedGesturePredictor {
+
+    private final InterpreterApi interpreter;
+    private final SlidingWindow window;
+    private final ByteBuffer input;
+    private final float[][] output = new float[1][GesturePredictor.OUTPUT_SIZE];
+
+    public WindowedGesturePredictor(InterpreterApi interpreter, SensorRingBuffer ring, int windowLength, int hopSize,
+                                    SensorNormalizer normalizer) {
+        this.interpreter = interpreter;
+        this.window = new SlidingWindow(ring, windowLength, hopSize, normalizer);
+        this.input = ByteBuffer.allocateDirect(windowLength * SensorFrame.CHANNEL_COUNT * 4).order(ByteOrder.nativeOrder());
+    }
+
+    // 모델 입력 shape이 [1, N, 8]이면 윈도우 모드 사용
+    public static boolean isWindowedModel(InterpreterApi interpreter) {
+        int[] shape = interpreter.getInputTensor(0).shape();
+        return shape.length == 3 && shape[1] > 1 && shape[2] == SensorFrame.CHANNEL_COUNT;
+    }
+
+    public static int getModelWindowLength(InterpreterApi interpreter) {
+        return interpreter.getInputTensor(0).shape()[1];
+    }
+
+    // 링 버퍼에 샘플이 추가된 뒤 호출, 이번에 추론했으면 출력 배열(다음 호출 시 덮어쓰임), 아니면 null
+    public float[] onSample() {
+        input.clear();
+        if (!window.next(input)) {
+            return null;
+        }
+        input.rewind();
+        synchronized (interpreter) {
+            interpreter.run(input, output);
+        }
+        return output[0];
+    }
+
+    public int getWindowLength() {
+        return window.getWindowLength();
+    }
+
+    public int getHopSize() {
+        return window.getHopSize();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.test.sensor;
+
+// 디코딩된 센서 프레임 한 개 (tb_sensing 컬럼 순서와 동일한 8채널)
+// 프레임마다 새로 만들지 않고 미리 할당해 재사용합니다.
+public final class SensorFrame {
+
+    public static final int CHANNEL_COUNT = 8;
+
+    public static final int MIDDLE_FLEX = 0;
+    public static final int MIDDLE_PRESSURE = 1;
+    public static final int RING_FLEX = 2;
+    public static final int RING_PRESSURE = 3;
+    public static final int PINKY_FLEX = 4;
+    public static final int ACCELERATION = 5;
+    public static final int GYROSCOPE = 6;
+    public static final int MAGNETIC_FIELD = 7;
+
+    private final int[] values = new int[CHANNEL_COUNT];
+
+    public int get(int channel) {
+        return values[channel];
+    }
+
+    void set(int channel, int value) {
+        values[channel] = value;
+    }
+
+    public int getMiddleFlexSensor() {
+        return values[MIDDLE_FLEX];
+    }
+
+    public int getMiddlePressureSensor() {
+        return values[MIDDLE_PRESSURE];
+    }
+
+    public int getRingFlexSensor() {
+        return values[RING_FLEX];
+    }
+
+    public int getRingPressureSensor() {
+        return values[RING_PRESSURE];
+    }
+
+    public int getPinkyFlexSensor() {
+        return values[PINKY_FLEX];
+    }
+
+    public int getAcceleration() {
+        return values[ACCELERATION];
+    }
+
+    public int getGyroscope() {
+        return values[GYROSCOPE];
+    }
+
+    public int getMagneticField() {
+        return values[MAGNETIC_FIELD];
+    }
+
+    // 채널 값을 float 배열에 복사 (모델 입력용)
+    public void copyTo(float[] out, int offset) {
+        for (int channel = 0; channel < CHANNEL_COUNT; channel++) {
+            out[offset + channel] = values[channel];
+        }
+    }
+
+    // 다른 프레임의 값을 복사
+    public void copyFrom(SensorFrame other) {
+        System.arraycopy(other.values, 0, values, 0, CHANNEL_COUNT);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.test.sensor;
+
+// 장갑에서 전송되는 16바이트 센서 패킷 디코더 (기록/추론 공용)
+// 패킷 구조: 8개 채널 x 2바이트 빅엔디언, tb_sensing 컬럼 순서와 동일
+// 굽힘/압력 센서(ADC)는 부호 없는 값, 가속도/자이로/지자기 센서는 부호 있는 값으로 해석합니다.
+public final class SensorFrameDecoder {
+
+    public static final int FRAME_LENGTH = SensorFrame.CHANNEL_COUNT * 2;
+
+    // 채널별 부호 여부
+    private static final boolean[] SIGNED_CHANNELS = {
+            false, // middle_flex_sensor
+            false, // middle_pressure_sensor
+            false, // ring_flex_sensor
+            false, // ring_pressure_sensor
+            false, // pinky_flex_sensor
+            true,  // acceleration
+            true,  // gyroscope
+            true   // magnetic_field
+    };
+
+    private long decodedCount = 0;
+    private long invalidCount = 0;
+
+    // 패킷을 frame에 디코딩, 길이가 맞지 않으면 false (frame은 변경되지 않음)
+    public boolean decode(byte[] data, SensorFrame frame) {
+        if (data == null) {
+            invalidCount++;
+            return false;
+        }
+        return decode(data, 0, data.length, frame);
+    }
+
+    public boolean decode(byte[] data, int offset, int length, SensorFrame frame) {
+        if (length != FRAME_LENGTH || offset < 0 || offset + length > data.length) {
+            invalidCount++;
+            return false;
+        }
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            int index = offset + channel * 2;
+            int value = ((data[index] & 0xFF) << 8) | (data[index + 1] & 0xFF);
+            frame.set(channel, SIGNED_CHANNELS[channel] ? (short) value : value);
+        }
+        decodedCount++;
+        return true;
+    }
+
+    public static boolean isSigned(int channel) {
+        return SIGNED_CHANNELS[channel];
+    }
+
+    public long getDecodedCount() {
+        return decodedCount;
+    }
+
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+}
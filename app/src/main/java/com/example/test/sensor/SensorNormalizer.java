@@ -0,0 +1,138 @@
+package com.example.test.sensor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// 모델 입력용 채널 정규화 (학습과 추론에서 동일하게 사용)
+// 펌웨어/패킷 형식에는 센서별 값 범위(ADC 비트 수, IMU 단위)가 정해져 있지 않으므로,
+// 학습 데이터에서 구한 채널별 최솟값~최댓값을 0~1로 변환합니다 (RangeBuilder).
+// 학습에 사용한 범위는 모델 체크포인트 옆에 저장해 추론에서 그대로 읽습니다 (ModelFiles.getNormalizerFile).
+// RAW는 원래 값을 그대로 사용하며, 범위 파일이 없는 예전 모델에 사용합니다.
+public final class SensorNormalizer {
+
+    public static final SensorNormalizer RAW = new SensorNormalizer(new int[SensorFrame.CHANNEL_COUNT], null);
+
+    private static final int MAGIC = 0x4558534e; // "EXSN"
+    private static final int VERSION = 1;
+
+    private final int[] min;
+    private final int[] max;
+    private final float[] scales = new float[SensorFrame.CHANNEL_COUNT];
+
+    // max가 null이면 RAW
+    private SensorNormalizer(int[] min, int[] max) {
+        this.min = min;
+        this.max = max;
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            long span = max == null ? 0 : (long) max[channel] - min[channel];
+            // 값이 하나뿐인 채널은 0으로 변환
+            scales[channel] = max == null ? 1f : span > 0 ? 1f / span : 0f;
+        }
+    }
+
+    // 채널별 [min, max] 범위를 0~1로 변환
+    public static SensorNormalizer fromRange(int[] min, int[] max) {
+        if (min.length != SensorFrame.CHANNEL_COUNT || max.length != SensorFrame.CHANNEL_COUNT) {
+            throw new IllegalArgumentException("Expected " + SensorFrame.CHANNEL_COUNT + " channels");
+        }
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            if (min[channel] > max[channel]) {
+                throw new IllegalArgumentException("Invalid range for channel " + channel);
+            }
+        }
+        return new SensorNormalizer(min.clone(), max.clone());
+    }
+
+    public boolean isRaw() {
+        return max == null;
+    }
+
+    // 범위 밖의 값은 0~1 밖으로 그대로 변환 (잘라내지 않음)
+    public float normalize(int channel, int value) {
+        return (value - min[channel]) * scales[channel];
+    }
+
+    // 프레임의 8채널을 정규화하여 out에 기록
+    public void normalize(SensorFrame frame, float[] out, int offset) {
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            out[offset + channel] = normalize(channel, frame.get(channel));
+        }
+    }
+
+    // "EXSN", 버전, 채널 수, 채널별 min/max (빅엔디언 int), RAW는 저장하지 않음
+    public void writeTo(OutputStream out) throws IOException {
+        if (isRaw()) {
+            throw new IllegalStateException("RAW normalizer has no range");
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(SensorFrame.CHANNEL_COUNT);
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            data.writeInt(min[channel]);
+            data.writeInt(max[channel]);
+        }
+        data.flush();
+    }
+
+    public static SensorNormalizer read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a sensor normalizer file");
+        }
+        int version = data.readInt();
+        if (version != VERSION || data.readInt() != SensorFrame.CHANNEL_COUNT) {
+            throw new IOException("Unsupported sensor normalizer version " + version);
+        }
+        int[] min = new int[SensorFrame.CHANNEL_COUNT];
+        int[] max = new int[SensorFrame.CHANNEL_COUNT];
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            min[channel] = data.readInt();
+            max[channel] = data.readInt();
+        }
+        try {
+            return fromRange(min, max);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isRaw() ? "SensorNormalizer[RAW]" : "SensorNormalizer[min=" + Arrays.toString(min) + ", max=" + Arrays.toString(max) + "]";
+    }
+
+    // 샘플을 모아 채널별 최솟값/최댓값을 구함
+    public static class RangeBuilder {
+        private final int[] min = new int[SensorFrame.CHANNEL_COUNT];
+        private final int[] max = new int[SensorFrame.CHANNEL_COUNT];
+        private long count;
+
+        public RangeBuilder() {
+            Arrays.fill(min, Integer.MAX_VALUE);
+            Arrays.fill(max, Integer.MIN_VALUE);
+        }
+
+        // tb_sensing 컬럼 순서의 8채널
+        public void add(int[] values) {
+            for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                min[channel] = Math.min(min[channel], values[channel]);
+                max[channel] = Math.max(max[channel], values[channel]);
+            }
+            count++;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        // 샘플이 없으면 RAW
+        public SensorNormalizer build() {
+            return count == 0 ? RAW : fromRange(min, max);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.test.sensor;
+
+// notify/읽기로 받은 센서 패킷 디코더 (기존 16바이트 단일 샘플 + 여러 샘플을 담은 묶음 패킷)
+//
+// 묶음 패킷 (버전 1, 빅엔디언):
+//   [0]     버전 (1)
+//   [1]     샘플 수 K (1~255)
+//   [2..3]  패킷 순번 (부호 없는 16비트, 패킷마다 1 증가)
+//   [4..7]  첫 샘플의 기기 시각 (마이크로초, 부호 없는 32비트)
+//   [8..9]  샘플 간격 (마이크로초)
+//   [10..]  16바이트 샘플 K개 (SensorFrameDecoder와 같은 구조)
+// 헤더가 10바이트라 묶음 패킷 길이는 16이 될 수 없으므로 길이로 기존 패킷과 구분합니다.
+// 한 스레드에서만 사용해야 합니다 (GATT 콜백은 연결별로 순서대로 호출됨).
+public final class SensorPacketDecoder {
+
+    // 디코딩된 샘플을 전달받는 리스너, frame은 다음 샘플에 재사용되므로 콜백 안에서만 사용
+    // timestampMicros: 벽시계 기준 마이크로초 (기존 패킷은 수신 시각, 묶음 패킷은 기기 시각을 벽시계로 변환한 값)
+    public interface SampleListener {
+        void onSample(SensorFrame frame, long timestampMicros);
+    }
+
+    public static final int VERSION = 1;
+    public static final int HEADER_LENGTH = 10;
+    public static final int MAX_SAMPLES = 255;
+    // 변환한 기기 시각이 수신 시각과 이 값 이상 차이 나면 기준점을 다시 잡음 (기기 재부팅, 시계 오차)
+    static final long RESYNC_THRESHOLD_MICROS = 2_000_000;
+
+    private final SensorFrameDecoder frameDecoder = new SensorFrameDecoder();
+    private final SequenceTracker sequenceTracker = new SequenceTracker();
+    private final SensorFrame frame = new SensorFrame();
+
+    private boolean clockSynced;
+    // 벽시계 = 기기 시각 + clockOffsetMicros
+    private long clockOffsetMicros;
+    private int lastDeviceMicros;
+    private long extendedDeviceMicros;
+
+    private long legacyPacketCount;
+    private long packedPacketCount;
+    private long invalidPacketCount;
+    private long sampleCount;
+
+    // 패킷을 디코딩해 샘플마다 listener 호출, 형식이 잘못된 패킷이면 false
+    // 중복 패킷은 올바른 패킷이지만 샘플을 전달하지 않습니다.
+    public boolean decode(byte[] data, long arrivalMicros, SampleListener listener) {
+        if (data == null) {
+            invalidPacketCount++;
+            return false;
+        }
+        if (data.length == SensorFrameDecoder.FRAME_LENGTH) {
+            if (!frameDecoder.decode(data, frame)) {
+                invalidPacketCount++;
+                return false;
+            }
+            legacyPacketCount++;
+            sampleCount++;
+            listener.onSample(frame, arrivalMicros);
+            return true;
+        }
+
+        int count = data.length > 1 ? data[1] & 0xFF : 0;
+        if (data.length < HEADER_LENGTH || data[0] != VERSION || count == 0
+                || data.length != HEADER_LENGTH + count * SensorFrameDecoder.FRAME_LENGTH) {
+            invalidPacketCount++;
+            return false;
+        }
+        packedPacketCount++;
+        if (sequenceTracker.record(readUnsignedShort(data, 2)) == SequenceTracker.Result.DUPLICATE) {
+            return true;
+        }
+
+        long firstMicros = unwrapDeviceMicros(readInt(data, 4));
+        int intervalMicros = readUnsignedShort(data, 8);
+        long lastMicros = firstMicros + (long) (count - 1) * intervalMicros;
+        if (!clockSynced || Math.abs(lastMicros + clockOffsetMicros - arrivalMicros) >= RESYNC_THRESHOLD_MICROS) {
+            // 마지막 샘플을 수신 시각에 맞춤
+            clockOffsetMicros = arrivalMicros - lastMicros;
+            clockSynced = true;
+        }
+        for (int i = 0; i < count; i++) {
+            frameDecoder.decode(data, HEADER_LENGTH + i * SensorFrameDecoder.FRAME_LENGTH, SensorFrameDecoder.FRAME_LENGTH, frame);
+            sampleCount++;
+            listener.onSample(frame, firstMicros + (long) i * intervalMicros + clockOffsetMicros);
+        }
+        return true;
+    }
+
+    public SequenceTracker getSequenceTracker() {
+        return sequenceTracker;
+    }
+
+    public long getLegacyPacketCount() {
+        return legacyPacketCount;
+    }
+
+    public long getPackedPacketCount() {
+        return packedPacketCount;
+    }
+
+    public long getInvalidPacketCount() {
+        return invalidPacketCount;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    // 새 연결에서 다시 시작 (순번/시계 기준 초기화)
+    public void reset() {
+        sequenceTracker.reset();
+        clockSynced = false;
+        clockOffsetMicros = 0;
+        lastDeviceMicros = 0;
+        extendedDeviceMicros = 0;
+        legacyPacketCount = 0;
+        packedPacketCount = 0;
+        invalidPacketCount = 0;
+        sampleCount = 0;
+    }
+
+    // 32비트 기기 시각(약 71분마다 랩어라운드)을 64비트로 확장
+    private long unwrapDeviceMicros(int raw) {
+        if (!clockSynced) {
+            extendedDeviceMicros = raw & 0xFFFFFFFFL;
+        } else {
+            extendedDeviceMicros += raw - lastDeviceMicros;
+        }
+        lastDeviceMicros = raw;
+        return extendedDeviceMicros;
+    }
+
+    private static int readUnsignedShort(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+}
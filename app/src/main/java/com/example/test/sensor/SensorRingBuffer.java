@@ -0,0 +1,144 @@
+package com.example.test.sensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 최근 N개의 센서 샘플을 채널별 int 배열(열 단위)로 보관하는 고정 크기 링 버퍼
+// 생산자 스레드 하나(GATT 콜백)와 소비자 스레드 하나(추론/화면)가 잠금 없이 사용합니다.
+// 가득 차면 가장 오래된 샘플을 덮어쓰며, 소비자는 읽는 도중 덮어쓰였는지 확인합니다.
+// 값은 claimed 증가 뒤 release 쓰기(lazySet)로 기록하고 acquire 읽기(get)로 읽으므로,
+// 소비자가 새 값을 하나라도 읽었다면 이후 claimed 확인에서 반드시 덮어쓰기를 발견합니다.
+public final class SensorRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicIntegerArray[] channels;
+    private final AtomicLongArray timestamps;
+    // 지금까지 기록된 샘플 수 (다음에 기록할 인덱스)
+    private final AtomicLong head = new AtomicLong();
+    // 생산자가 쓰기 시작한 샘플 수 (head보다 먼저 증가, 덮어쓰기 확인용)
+    private final AtomicLong claimed = new AtomicLong();
+
+    // capacity는 2의 거듭제곱으로 올림
+    public SensorRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.channels = new AtomicIntegerArray[SensorFrame.CHANNEL_COUNT];
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            channels[channel] = new AtomicIntegerArray(size);
+        }
+        this.timestamps = new AtomicLongArray(size);
+    }
+
+    // 윈도우 length개 샘플을 담을 direct ByteBuffer 생성 (샘플별 8채널 float, native order)
+    public static ByteBuffer allocateWindow(int length) {
+        return ByteBuffer.allocateDirect(length * SensorFrame.CHANNEL_COUNT * 4).order(ByteOrder.nativeOrder());
+    }
+
+    // 샘플 기록 (생산자 스레드에서만 호출)
+    public void write(SensorFrame frame, long timestamp) {
+        long index = head.get();
+        int slot = (int) (index & mask);
+        claimed.set(index + 1);
+        // release 쓰기라 위의 claimed 증가보다 먼저 보이지 않음
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            channels[channel].lazySet(slot, frame.get(channel));
+        }
+        timestamps.lazySet(slot, timestamp);
+        head.lazySet(index + 1);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // 지금까지 기록된 전체 샘플 수
+    public long getWrittenCount() {
+        return head.get();
+    }
+
+    // 현재 보관 중인 샘플 수
+    public int size() {
+        return (int) Math.min(head.get(), capacity);
+    }
+
+    // 가장 최근 length개 샘플을 시간순으로 out에 기록, 샘플이 부족하거나 덮어쓰였으면 false
+    public boolean readLatest(int length, ByteBuffer out) {
+        return read(head.get() - length, length, out);
+    }
+
+    public boolean readLatest(int length, float[] out, int offset) {
+        return read(head.get() - length, length, out, offset);
+    }
+
+    // start 인덱스부터 length개 샘플을 out의 현재 위치에 기록
+    public boolean read(long start, int length, ByteBuffer out) {
+        if (!isReadable(start, length)) {
+            return false;
+        }
+        int position = out.position();
+        for (int i = 0; i < length; i++) {
+            int slot = (int) ((start + i) & mask);
+            for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                out.putFloat(channels[channel].get(slot));
+            }
+        }
+        if (isOverwritten(start)) {
+            out.position(position);
+            return false;
+        }
+        return true;
+    }
+
+    public boolean read(long start, int length, float[] out, int offset) {
+        if (!isReadable(start, length)) {
+            return false;
+        }
+        int position = offset;
+        for (int i = 0; i < length; i++) {
+            int slot = (int) ((start + i) & mask);
+            for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                out[position++] = channels[channel].get(slot);
+            }
+        }
+        return !isOverwritten(start);
+    }
+
+    // index 샘플의 채널 값, 이미 덮어쓰였으면 Integer.MIN_VALUE
+    public int get(long index, int channel) {
+        if (!isReadable(index, 1)) {
+            return Integer.MIN_VALUE;
+        }
+        int value = channels[channel].get((int) (index & mask));
+        return isOverwritten(index) ? Integer.MIN_VALUE : value;
+    }
+
+    // index 샘플의 타임스탬프, 이미 덮어쓰였으면 -1
+    public long getTimestamp(long index) {
+        if (!isReadable(index, 1)) {
+            return -1;
+        }
+        long timestamp = timestamps.get((int) (index & mask));
+        return isOverwritten(index) ? -1 : timestamp;
+    }
+
+    private boolean isReadable(long start, int length) {
+        return start >= 0 && length >= 0 && length <= capacity
+                && start + length <= head.get() && !isOverwritten(start);
+    }
+
+    // 생산자가 start + capacity 번째 샘플을 쓰기 시작했다면 start 슬롯은 더 이상 유효하지 않음
+    private boolean isOverwritten(long start) {
+        return claimed.get() > start + capacity;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.test.sensor;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// 기기별 실시간 센서 링 버퍼 보관소 (화면 전환 후에도 유지)
+public class SensorSampleStore {
+
+    // 기기별 보관 샘플 수 (20Hz 기준 약 50초, 고속 notify 기준 수 초)
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final SensorSampleStore INSTANCE = new SensorSampleStore(DEFAULT_CAPACITY);
+
+    private final ConcurrentHashMap<String, SensorRingBuffer> buffers = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    public SensorSampleStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static SensorSampleStore getInstance() {
+        return INSTANCE;
+    }
+
+    public SensorRingBuffer get(String deviceMac) {
+        SensorRingBuffer buffer = buffers.get(deviceMac);
+        if (buffer == null) {
+            SensorRingBuffer created = new SensorRingBuffer(capacity);
+            buffer = buffers.putIfAbsent(deviceMac, created);
+            if (buffer == null) {
+                buffer = created;
+            }
+        }
+        return buffer;
+    }
+
+    public void remove(String deviceMac) {
+        buffers.remove(deviceMac);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.test.sensor;
+
+// 16비트 패킷 순번으로 손실/중복/순서 바뀜을 집계
+// 최근 64개 순번을 비트맵으로 기억해 늦게 도착한 패킷과 중복 패킷을 구분합니다.
+public class SequenceTracker {
+
+    public enum Result {
+        // 예상한 다음 순번
+        IN_ORDER,
+        // 순번이 건너뛰어짐 (사이 패킷은 손실로 계산)
+        GAP,
+        // 이미 받은 순번
+        DUPLICATE,
+        // 손실로 계산했던 패킷이 늦게 도착
+        REORDERED
+    }
+
+    private static final int SEQUENCE_MODULO = 1 << 16;
+    private static final int WINDOW = 64;
+
+    private boolean started;
+    // 랩어라운드를 풀어 64비트로 확장한 최대 순번
+    private long highest;
+    // bit i = highest - i 수신 여부
+    private long received;
+    private long receivedCount;
+    private long lostCount;
+    private long duplicateCount;
+    private long reorderedCount;
+
+    public synchronized Result record(int sequence) {
+        int low = sequence & (SEQUENCE_MODULO - 1);
+        if (!started) {
+            started = true;
+            highest = low;
+            received = 1;
+            receivedCount++;
+            return Result.IN_ORDER;
+        }
+        long extended = highest + (short) (low - (int) (highest & (SEQUENCE_MODULO - 1)));
+        if (extended > highest) {
+            long skipped = extended - highest - 1;
+            received = extended - highest >= WINDOW ? 1 : (received << (extended - highest)) | 1;
+            highest = extended;
+            receivedCount++;
+            lostCount += skipped;
+            return skipped == 0 ? Result.IN_ORDER : Result.GAP;
+        }
+        long back = highest - extended;
+        if (back < WINDOW) {
+            long bit = 1L << back;
+            if ((received & bit) != 0) {
+                duplicateCount++;
+                return Result.DUPLICATE;
+            }
+            received |= bit;
+        }
+        // 창(64개)보다 오래된 패킷은 중복 여부를 알 수 없으므로 늦게 도착한 것으로 처리
+        receivedCount++;
+        if (lostCount > 0) {
+            lostCount--;
+        }
+        reorderedCount++;
+        return Result.REORDERED;
+    }
+
+    public synchronized long getReceivedCount() {
+        return receivedCount;
+    }
+
+    public synchronized long getLostCount() {
+        return lostCount;
+    }
+
+    public synchronized long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public synchronized long getReorderedCount() {
+        return reorderedCount;
+    }
+
+    // 보낸 패킷 중 받지 못한 비율
+    public synchronized double getLossRate() {
+        long expected = receivedCount + lostCount;
+        return expected == 0 ? 0 : (double) lostCount / expected;
+    }
+
+    public synchronized void reset() {
+        started = false;
+        highest = 0;
+        received = 0;
+        receivedCount = 0;
+        lostCount = 0;
+        duplicateCount = 0;
+        reorderedCount = 0;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.test.sensor;
+
+import java.nio.ByteBuffer;
+
+// 링 버퍼 위의 슬라이딩 윈도우 (윈도우 길이 N, 이동 간격 hop)
+// 새 샘플이 hop개 쌓일 때마다 최근 N개 샘플을 정규화하여 [N, 8] float로 내보냅니다 (학습 때와 같은 SensorNormalizer 사용).
+// 소비자 스레드 하나에서만 사용해야 합니다.
+public class SlidingWindow {
+
+    private final SensorRingBuffer ring;
+    private final int windowLength;
+    private final int hopSize;
+    private final SensorNormalizer normalizer;
+    private final float[] scratch;
+    // 마지막으로 윈도우를 내보낸 시점의 링 버퍼 샘플 수
+    private long lastEmittedAt = Long.MIN_VALUE;
+
+    public SlidingWindow(SensorRingBuffer ring, int windowLength, int hopSize, SensorNormalizer normalizer) {
+        if (windowLength <= 0 || windowLength > ring.getCapacity()) {
+            throw new IllegalArgumentException("windowLength out of range: " + windowLength);
+        }
+        if (hopSize <= 0) {
+            throw new IllegalArgumentException("hopSize must be positive");
+        }
+        this.ring = ring;
+        this.windowLength = windowLength;
+        this.hopSize = hopSize;
+        this.normalizer = normalizer;
+        this.scratch = new float[windowLength * SensorFrame.CHANNEL_COUNT];
+    }
+
+    public int getWindowLength() {
+        return windowLength;
+    }
+
+    public int getHopSize() {
+        return hopSize;
+    }
+
+    // 윈도우를 내보낼 때가 되었으면 out(현재 위치부터)에 기록하고 true
+    public boolean next(ByteBuffer out) {
+        long written = ring.getWrittenCount();
+        if (written < windowLength) {
+            return false;
+        }
+        if (lastEmittedAt != Long.MIN_VALUE && written - lastEmittedAt < hopSize) {
+            return false;
+        }
+        if (!ring.read(written - windowLength, windowLength, scratch, 0)) {
+            return false;
+        }
+        lastEmittedAt = written;
+        for (int i = 0; i < scratch.length; i++) {
+            out.putFloat(normalizer.normalize(i % SensorFrame.CHANNEL_COUNT, (int) scratch[i]));
+        }
+        return true;
+    }
+
+    // 다음 호출에서 샘플이 충분하면 바로 윈도우를 내보내도록 초기화
+    public void reset() {
+        lastEmittedAt = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.test.storage;
+
+import java.nio.ByteBuffer;
+
+// 정규화된 샘플을 chunk 단위로 전달받는 콜백 (SensingDataLoader, SensorRecordFile)
+// chunk는 다음 호출 시 재사용되므로 콜백 안에서만 사용
+public interface ChunkConsumer {
+    void onChunk(ByteBuffer chunk, int sampleCount);
+}
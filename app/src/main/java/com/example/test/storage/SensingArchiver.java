@@ -0,0 +1,210 @@
+package com.example.test.storage;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+import android.util.Log;
+
+import com.example.test.helper.DatabaseHelper;
+import com.example.test.sensor.SensorFrame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 기록이 끝난 세션을 tb_sensing에서 세션별 보관 파일(SensorArchiveFormat)로 옮김
+// 행 하나에 100바이트 넘게 쓰던 샘플이 열 단위 차분 압축으로 대부분 10바이트 안팎이 됩니다.
+// 파일을 다 쓴 뒤 한 트랜잭션에서 세션에 파일을 연결하고 행을 삭제하므로 중간에 종료되어도 데이터가 두 번 세어지지 않습니다.
+// 행을 삭제하기 전에 파일과 디렉터리를 디스크에 기록(fsync)하고, 파일을 다시 읽어 행 수가 맞는지 확인하므로
+// 삭제가 커밋된 뒤 전원이 꺼져도 보관 파일이 비어 있거나 잘려 있지 않습니다.
+public class SensingArchiver {
+
+    private static final String TAG = "SensingArchiver";
+    // 학습 데이터 읽기(SensingDataLoader)와 세션 이동이 겹치지 않도록 하는 잠금
+    public static final Object LOCK = new Object();
+
+    private static final String ARCHIVABLE_SESSIONS_QUERY = "SELECT session_idx FROM tb_sensing_session " +
+            "WHERE device_mac IS NOT NULL AND discarded = 0 AND ended_at IS NOT NULL AND archive_path IS NULL ORDER BY session_idx";
+    private static final String SESSION_ROWS_QUERY = "SELECT sex, middle_flex_sensor, middle_pressure_sensor, ring_flex_sensor, " +
+            "ring_pressure_sensor, pinky_flex_sensor, acceleration, gyroscope, magnetic_field, timestamp FROM tb_sensing " +
+            "WHERE session_idx = ? ORDER BY sensing_idx";
+
+    private static SensingArchiver instance;
+
+    private final DatabaseHelper dbHelper;
+    private final SensingTimestampFormatter timestampFormatter = new SensingTimestampFormatter();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "sensing-archiver");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private SensingArchiver(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    public static synchronized SensingArchiver getInstance(DatabaseHelper dbHelper) {
+        if (instance == null) {
+            instance = new SensingArchiver(dbHelper);
+        }
+        return instance;
+    }
+
+    // 끝난 세션 이동 요청 (이미 대기 중이면 합쳐짐)
+    public void requestArchive() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::archivePending);
+        }
+    }
+
+    private void archivePending() {
+        scheduled.set(false);
+        try {
+            for (long sessionId : findArchivableSessions()) {
+                synchronized (LOCK) {
+                    archiveSession(sessionId);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Failed to archive sensing sessions", e);
+        }
+    }
+
+    private List<Long> findArchivableSessions() {
+        List<Long> sessions = new ArrayList<>();
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(ARCHIVABLE_SESSIONS_QUERY, null)) {
+            while (cursor.moveToNext()) {
+                sessions.add(cursor.getLong(0));
+            }
+        }
+        return sessions;
+    }
+
+    private void archiveSession(long sessionId) throws IOException {
+        File dir = dbHelper.getSensingArchiveDir();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        String fileName = "session_" + sessionId + SensorArchiveFormat.FILE_EXTENSION;
+        File target = new File(dir, fileName);
+        File temp = new File(dir, fileName + ".tmp");
+
+        int[] values = new int[SensorFrame.CHANNEL_COUNT];
+        String sex = null;
+        long count;
+        FileOutputStream file = new FileOutputStream(temp);
+        try (SensorArchiveWriter writer = new SensorArchiveWriter(new BufferedOutputStream(file));
+             Cursor cursor = dbHelper.getReadableDatabase().rawQuery(SESSION_ROWS_QUERY, new String[]{String.valueOf(sessionId)})) {
+            while (cursor.moveToNext()) {
+                if (sex == null && !cursor.isNull(0)) {
+                    sex = cursor.getString(0);
+                }
+                for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                    values[channel] = cursor.getInt(channel + 1);
+                }
+                writer.append(values, timestampFormatter.parseMillis(cursor.getString(SensorFrame.CHANNEL_COUNT + 1)));
+            }
+            count = writer.getSampleCount();
+            writer.finish();
+            file.getFD().sync();
+        } catch (ParseException e) {
+            temp.delete();
+            throw new IOException("Invalid timestamp in session " + sessionId, e);
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("Cannot rename " + temp);
+        }
+        // 이름 변경까지 디스크에 기록되어야 행을 지운 뒤에도 파일을 찾을 수 있음
+        syncDirectory(dir);
+        try {
+            verifyArchive(target, count);
+        } catch (IOException e) {
+            target.delete();
+            throw e;
+        }
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        boolean linked;
+        db.beginTransactionNonExclusive();
+        try {
+            // 그 사이 초기화(폐기)된 세션이면 연결하지 않음
+            try (SQLiteStatement update = db.compileStatement(
+                    "UPDATE tb_sensing_session SET archive_path = ?, archived_count = ?, sex = ? " +
+                            "WHERE session_idx = ? AND discarded = 0 AND archive_path IS NULL")) {
+                update.bindString(1, fileName);
+                update.bindLong(2, count);
+                if (sex == null) {
+                    update.bindNull(3);
+                } else {
+                    update.bindString(3, sex);
+                }
+                update.bindLong(4, sessionId);
+                linked = update.executeUpdateDelete() == 1;
+            }
+            if (linked) {
+                // 파일에 옮긴 것과 지울 행의 수가 다르면 연결하지 않고 롤백 (파일은 아래에서 삭제)
+                try (SQLiteStatement rows = db.compileStatement("SELECT COUNT(*) FROM tb_sensing WHERE session_idx = ?")) {
+                    rows.bindLong(1, sessionId);
+                    long rowCount = rows.simpleQueryForLong();
+                    if (rowCount != count) {
+                        target.delete();
+                        throw new IOException("Session " + sessionId + " has " + rowCount + " rows but archived " + count);
+                    }
+                }
+                db.execSQL("DELETE FROM tb_sensing WHERE session_idx = ?", new Object[]{sessionId});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        if (!linked) {
+            target.delete();
+        }
+    }
+
+    // 기록한 파일을 처음부터 다시 읽어 샘플 수 확인
+    private static void verifyArchive(File archive, long expectedCount) throws IOException {
+        int[] values = new int[SensorFrame.CHANNEL_COUNT];
+        long read = 0;
+        try (SensorArchiveReader reader = new SensorArchiveReader(new BufferedInputStream(new FileInputStream(archive)))) {
+            while (reader.next(values)) {
+                read++;
+            }
+        }
+        if (read != expectedCount) {
+            throw new IOException("Archive " + archive.getName() + " has " + read + " samples, expected " + expectedCount);
+        }
+    }
+
+    // 디렉터리 항목(파일 생성/이름 변경)을 디스크에 기록
+    private static void syncDirectory(File dir) throws IOException {
+        try {
+            FileDescriptor fd = Os.open(dir.getPath(), OsConstants.O_RDONLY, 0);
+            try {
+                Os.fsync(fd);
+            } finally {
+                Os.close(fd);
+            }
+        } catch (ErrnoException e) {
+            throw new IOException("Cannot sync " + dir, e);
+        }
+    }
+}
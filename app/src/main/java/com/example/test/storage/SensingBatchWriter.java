@@ -0,0 +1,186 @@
+package com.example.test.storage;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+
+import com.example.test.helper.DatabaseHelper;
+import com.example.test.sensor.SensorFrame;
+
+// 센싱 데이터를 모아서 하나의 트랜잭션으로 저장하는 클래스
+// 샘플마다 execSQL(암묵적 트랜잭션 + fsync)을 실행하지 않고, 미리 컴파일된 SQLiteStatement를 재사용합니다.
+public class SensingBatchWriter implements SensingSink {
+
+    public static final int CHANNEL_COUNT = SensorFrame.CHANNEL_COUNT;
+    // 한 번에 저장할 최대 샘플 수
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    // 첫 샘플이 버퍼에 들어온 뒤 저장까지 기다리는 최대 시간
+    public static final long DEFAULT_MAX_DELAY_MS = 1000;
+    public static final long NO_SESSION = -1;
+
+    private final DatabaseHelper dbHelper;
+    private final int batchSize;
+    private final long maxDelayMs;
+
+    // 버퍼 (배치 크기만큼 미리 할당하여 재사용)
+    private final String[] deviceMacs;
+    private final String[] sexes;
+    private final int[] channels;
+    private final String[] timestamps;
+    private int pendingCount = 0;
+    private long firstPendingAt = 0;
+    // 저장할 샘플의 세션 (DatabaseHelper.startSensingSession)
+    private long sessionId = NO_SESSION;
+
+    private SQLiteDatabase statementDb;
+    private SQLiteStatement insertStatement;
+
+    public SensingBatchWriter(DatabaseHelper dbHelper) {
+        this(dbHelper, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MS);
+    }
+
+    public SensingBatchWriter(DatabaseHelper dbHelper, int batchSize, long maxDelayMs) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.dbHelper = dbHelper;
+        this.batchSize = batchSize;
+        this.maxDelayMs = maxDelayMs;
+        this.deviceMacs = new String[batchSize];
+        this.sexes = new String[batchSize];
+        this.channels = new int[batchSize * CHANNEL_COUNT];
+        this.timestamps = new String[batchSize];
+    }
+
+    @Override
+    public void write(SensingSample sample) {
+        add(sample.getDeviceMac(), sample.getSex(), sample.getMiddleFlexSensor(), sample.getMiddlePressureSensor(),
+                sample.getRingFlexSensor(), sample.getRingPressureSensor(), sample.getPinkyFlexSensor(),
+                sample.getAcceleration(), sample.getGyroscope(), sample.getMagneticField(), sample.getTimestamp());
+    }
+
+    // 이후 추가되는 샘플의 세션 지정, 버퍼에 남은 샘플은 이전 세션으로 먼저 저장
+    public synchronized void setSessionId(long sessionId) {
+        flush();
+        this.sessionId = sessionId;
+    }
+
+    public synchronized long getSessionId() {
+        return sessionId;
+    }
+
+    // 샘플 추가, 저장 시점은 isFlushDue()로 확인 (버퍼가 가득 찬 경우에만 바로 저장)
+    public synchronized void add(String deviceMac, String sex, int middleFlexSensor, int middlePressureSensor, int ringFlexSensor,
+                                 int ringPressureSensor, int pinkyFlexSensor, int acceleration, int gyroscope,
+                                 int magneticField, String timestamp) {
+        if (sessionId == NO_SESSION) {
+            // 세션 없이 저장하면 조회되지 않는 데이터가 되므로 거부
+            throw new IllegalStateException("No sensing session");
+        }
+        if (pendingCount == batchSize) {
+            flush();
+        }
+        if (pendingCount == 0) {
+            firstPendingAt = SystemClock.elapsedRealtime();
+        }
+        int row = pendingCount;
+        int base = row * CHANNEL_COUNT;
+        deviceMacs[row] = deviceMac;
+        sexes[row] = sex;
+        channels[base] = middleFlexSensor;
+        channels[base + 1] = middlePressureSensor;
+        channels[base + 2] = ringFlexSensor;
+        channels[base + 3] = ringPressureSensor;
+        channels[base + 4] = pinkyFlexSensor;
+        channels[base + 5] = acceleration;
+        channels[base + 6] = gyroscope;
+        channels[base + 7] = magneticField;
+        timestamps[row] = timestamp;
+        pendingCount++;
+    }
+
+    // 배치 크기를 채웠거나 대기 시간이 지났는지 확인
+    @Override
+    public synchronized boolean isFlushDue() {
+        return pendingCount >= batchSize
+                || (pendingCount > 0 && SystemClock.elapsedRealtime() - firstPendingAt >= maxDelayMs);
+    }
+
+    // 버퍼에 있는 샘플을 하나의 트랜잭션으로 저장, 저장된 샘플 수 반환
+    @Override
+    public synchronized int flush() {
+        if (pendingCount == 0) {
+            return 0;
+        }
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteStatement statement = getInsertStatement(db);
+        int flushed = pendingCount;
+        // WAL에서 읽기 연결을 막지 않도록 IMMEDIATE 트랜잭션 사용
+        db.beginTransactionNonExclusive();
+        try {
+            for (int row = 0; row < flushed; row++) {
+                int base = row * CHANNEL_COUNT;
+                statement.clearBindings();
+                bindNullableString(statement, 1, deviceMacs[row]);
+                bindNullableString(statement, 2, sexes[row]);
+                for (int channel = 0; channel < CHANNEL_COUNT; channel++) {
+                    statement.bindLong(3 + channel, channels[base + channel]);
+                }
+                bindNullableString(statement, 11, timestamps[row]);
+                statement.bindLong(12, sessionId);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        clear();
+        return flushed;
+    }
+
+    // 저장하지 않고 버퍼 비우기 (학습데이터 초기화 시)
+    @Override
+    public synchronized void clear() {
+        for (int row = 0; row < pendingCount; row++) {
+            deviceMacs[row] = null;
+            sexes[row] = null;
+            timestamps[row] = null;
+        }
+        pendingCount = 0;
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    // 남은 샘플 저장 후 컴파일된 쿼리 해제
+    @Override
+    public synchronized void close() {
+        flush();
+        if (insertStatement != null) {
+            insertStatement.close();
+            insertStatement = null;
+            statementDb = null;
+        }
+    }
+
+    // 데이터베이스가 다시 열렸다면 쿼리를 새로 컴파일
+    private SQLiteStatement getInsertStatement(SQLiteDatabase db) {
+        if (insertStatement == null || statementDb != db) {
+            if (insertStatement != null) {
+                insertStatement.close();
+            }
+            insertStatement = db.compileStatement(DatabaseHelper.INSERT_SENSING_SQL);
+            statementDb = db;
+        }
+        return insertStatement;
+    }
+
+    private static void bindNullableString(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+}
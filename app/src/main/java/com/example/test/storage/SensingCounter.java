@@ -0,0 +1,49 @@
+package com.example.test.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 기기별 센싱 데이터 개수
+// 세션 시작 시 데이터베이스에서 한 번만 읽어오고 이후에는 저장/초기화 시 메모리에서 갱신합니다.
+public class SensingCounter {
+
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    // 데이터베이스에서 읽은 개수로 초기화
+    public void seed(String deviceMac, int count) {
+        counterFor(deviceMac).set(count);
+    }
+
+    public int increment(String deviceMac) {
+        return counterFor(deviceMac).incrementAndGet();
+    }
+
+    public int add(String deviceMac, int delta) {
+        return counterFor(deviceMac).addAndGet(delta);
+    }
+
+    public int get(String deviceMac) {
+        AtomicInteger counter = counts.get(deviceMac);
+        return counter == null ? 0 : counter.get();
+    }
+
+    // 전체 기기의 개수 초기화 (tb_sensing 전체 삭제 시)
+    public void clear() {
+        for (AtomicInteger counter : counts.values()) {
+            counter.set(0);
+        }
+    }
+
+    private AtomicInteger counterFor(String deviceMac) {
+        AtomicInteger counter = counts.get(deviceMac);
+        if (counter == null) {
+            AtomicInteger created = new AtomicInteger();
+            counter = counts.putIfAbsent(deviceMac, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.test.storage;
+
+import android.util.Log;
+
+import com.example.test.helper.DatabaseHelper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 초기화(폐기 표시)된 세션의 센싱 데이터를 백그라운드에서 나눠서 삭제하고 빈 페이지를 파일에서 반환
+// 한 번에 조금씩 별도 트랜잭션으로 처리하므로 기록 중인 저장 스레드가 오래 기다리지 않습니다.
+public class SensingDataCleaner {
+
+    private static final String TAG = "SensingDataCleaner";
+    // 트랜잭션 하나에서 삭제할 최대 행 수
+    static final int DELETE_CHUNK_ROWS = 2000;
+    // incremental_vacuum 한 번에 반환할 최대 페이지 수 (4KB 페이지 기준 1MB)
+    static final int VACUUM_CHUNK_PAGES = 256;
+
+    private static SensingDataCleaner instance;
+
+    private final DatabaseHelper dbHelper;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "sensing-cleaner");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private SensingDataCleaner(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    public static synchronized SensingDataCleaner getInstance(DatabaseHelper dbHelper) {
+        if (instance == null) {
+            instance = new SensingDataCleaner(dbHelper);
+        }
+        return instance;
+    }
+
+    // 정리 요청 (이미 대기 중이면 합쳐짐), 앱 시작 시에도 호출해 중단된 정리를 이어서 처리
+    public void requestCleanup() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::cleanUp);
+        }
+    }
+
+    private void cleanUp() {
+        // 정리 중 들어온 요청은 다음 실행에서 처리
+        scheduled.set(false);
+        try {
+            while (dbHelper.purgeDiscardedSensingData(DELETE_CHUNK_ROWS)) {
+                // 폐기된 세션이 없을 때까지 반복
+            }
+            // 삭제한 것이 없어도 실행: 기록 중이라 미뤄진 반환/전환을 앱 시작 시 정리에서 이어서 처리
+            while (dbHelper.reclaimFreePages(VACUUM_CHUNK_PAGES) > 0) {
+                // 남은 빈 페이지가 없을 때까지 반복
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to clean up discarded sensing data", e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.test.storage;
+
+import android.database.Cursor;
+
+import com.example.test.helper.DatabaseHelper;
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// tb_sensing의 기기별 데이터를 일정 개수(chunk)씩 읽어 재사용 direct ByteBuffer에 정규화된 float로 기록하는 로더
+// 보관 파일로 옮긴 세션(SensingArchiver)을 먼저 세션 순서대로 읽고, 이어서 tb_sensing에 남은 데이터를 읽습니다.
+// 전체 데이터를 List/배열로 한꺼번에 만들지 않으므로 데이터 양과 관계없이 힙 사용량이 일정합니다.
+// 같은 데이터를 여러 번 읽을 때(에폭 학습)는 createSnapshot으로 고정 길이 레코드 파일을 한 번 만들어
+// 이후 forEachChunk가 데이터베이스 대신 메모리 매핑된 파일(SensorRecordFile)을 읽게 합니다.
+// 정규화 범위는 스냅샷을 만들 때 데이터에서 구하며(getNormalizer), 스냅샷 전에는 원래 값(RAW)을 그대로 사용합니다.
+public class SensingDataLoader implements Closeable {
+
+    // 샘플 단위로 전달받는 콜백, values는 다음 호출 시 재사용됨 (tb_sensing 컬럼 순서의 8채널)
+    public interface SampleConsumer {
+        void onSample(int[] values, long timestampMillis) throws IOException;
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    // sensing_idx 기준 키셋 페이지네이션 (OFFSET 없이 이어서 읽음)
+    private static final String CHUNK_QUERY = "SELECT sensing_idx, middle_flex_sensor, middle_pressure_sensor, ring_flex_sensor, " +
+            "ring_pressure_sensor, pinky_flex_sensor, acceleration, gyroscope, magnetic_field, timestamp FROM tb_sensing " +
+            "WHERE device_mac = ? AND sensing_idx > ? AND " + DatabaseHelper.LIVE_SENSING_FILTER + " ORDER BY sensing_idx LIMIT ?";
+
+    private static final String ARCHIVES_QUERY = "SELECT archive_path FROM tb_sensing_session " +
+            "WHERE device_mac = ? AND discarded = 0 AND archive_path IS NOT NULL ORDER BY session_idx";
+
+    private final DatabaseHelper dbHelper;
+    private final String deviceMac;
+    private final int chunkSize;
+    private final ByteBuffer chunk;
+    private final int[] values = new int[SensorFrame.CHANNEL_COUNT];
+    private final SensingTimestampFormatter timestampFormatter = new SensingTimestampFormatter();
+    private SensorRecordFile snapshot;
+    private SensorNormalizer normalizer = SensorNormalizer.RAW;
+    // forEachChunk 진행 상태 (chunk에 모은 샘플 수, 전달한 샘플 수)
+    private int rows;
+    private int total;
+
+    public SensingDataLoader(DatabaseHelper dbHelper, String deviceMac) {
+        this(dbHelper, deviceMac, DEFAULT_CHUNK_SIZE);
+    }
+
+    public SensingDataLoader(DatabaseHelper dbHelper, String deviceMac, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.dbHelper = dbHelper;
+        this.deviceMac = deviceMac;
+        this.chunkSize = chunkSize;
+        this.chunk = ByteBuffer.allocateDirect(chunkSize * SensorFrame.CHANNEL_COUNT * 4).order(ByteOrder.nativeOrder());
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int count() {
+        return snapshot != null ? snapshot.getSampleCount() : dbHelper.getSensingDataCount(deviceMac);
+    }
+
+    // 전체 데이터를 chunk 단위로 읽어 consumer에 전달, 읽은 샘플 수 반환
+    // 마지막 chunk만 chunkSize보다 작을 수 있습니다.
+    public int forEachChunk(ChunkConsumer consumer) {
+        if (snapshot != null) {
+            return snapshot.forEachChunk(0, snapshot.getSampleCount(), chunk, normalizer, consumer);
+        }
+        chunk.clear();
+        rows = 0;
+        total = 0;
+        try {
+            forEachSample((sample, timestampMillis) -> {
+                for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                    chunk.putFloat(normalizer.normalize(channel, sample[channel]));
+                }
+                if (++rows == chunkSize) {
+                    emit(consumer);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        emit(consumer);
+        return total;
+    }
+
+    // 보관 파일과 tb_sensing의 샘플을 기록 순서대로 consumer에 전달, 샘플 수 반환
+    public int forEachSample(SampleConsumer consumer) throws IOException {
+        synchronized (SensingArchiver.LOCK) {
+            int count = 0;
+            for (File archive : findArchives()) {
+                count += readArchive(archive, consumer);
+            }
+            return count + readRows(consumer);
+        }
+    }
+
+    // 현재 데이터를 path에 SensorRecordFile로 기록하고 이후 읽기는 이 파일을 사용, 샘플 수 반환
+    // 기록하면서 채널별 범위를 구해 이후 forEachChunk의 정규화에 사용합니다.
+    // 파일 삭제는 호출한 쪽에서 close 후에 처리합니다.
+    public int createSnapshot(File path) throws IOException {
+        close();
+        SensorNormalizer.RangeBuilder range = new SensorNormalizer.RangeBuilder();
+        try (SensorRecordFileWriter writer = new SensorRecordFileWriter(path)) {
+            forEachSample((sample, timestampMillis) -> {
+                writer.append(sample, timestampMillis);
+                range.add(sample);
+            });
+        } catch (IOException | RuntimeException e) {
+            path.delete();
+            throw e;
+        }
+        snapshot = SensorRecordFile.open(path);
+        normalizer = range.build();
+        return snapshot.getSampleCount();
+    }
+
+    // forEachChunk에서 사용하는 정규화 (학습한 모델과 함께 저장)
+    public SensorNormalizer getNormalizer() {
+        return normalizer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshot != null) {
+            snapshot.close();
+            snapshot = null;
+        }
+    }
+
+    private List<File> findArchives() {
+        List<File> archives = new ArrayList<>();
+        File dir = dbHelper.getSensingArchiveDir();
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(ARCHIVES_QUERY, new String[]{deviceMac})) {
+            while (cursor.moveToNext()) {
+                archives.add(new File(dir, cursor.getString(0)));
+            }
+        }
+        return archives;
+    }
+
+    private int readArchive(File archive, SampleConsumer consumer) throws IOException {
+        int count = 0;
+        try (SensorArchiveReader reader = new SensorArchiveReader(new BufferedInputStream(new FileInputStream(archive)))) {
+            while (reader.next(values)) {
+                consumer.onSample(values, reader.getTimestampMillis());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int readRows(SampleConsumer consumer) throws IOException {
+        String chunkLimit = String.valueOf(chunkSize);
+        long lastIndex = -1;
+        int count = 0;
+        while (true) {
+            int read = 0;
+            try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(CHUNK_QUERY,
+                    new String[]{deviceMac, String.valueOf(lastIndex), chunkLimit})) {
+                while (cursor.moveToNext()) {
+                    lastIndex = cursor.getLong(0);
+                    for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                        values[channel] = cursor.getInt(channel + 1);
+                    }
+                    consumer.onSample(values, timestampFormatter.parseMillis(cursor.getString(SensorFrame.CHANNEL_COUNT + 1)));
+                    read++;
+                }
+            } catch (ParseException e) {
+                throw new IOException("Invalid timestamp after sensing_idx " + lastIndex, e);
+            }
+            count += read;
+            if (read < chunkSize) {
+                return count;
+            }
+        }
+    }
+
+    // 모은 샘플을 consumer에 전달하고 chunk 재사용
+    private void emit(ChunkConsumer consumer) {
+        if (rows == 0) {
+            return;
+        }
+        chunk.flip();
+        consumer.onChunk(chunk, rows);
+        total += rows;
+        rows = 0;
+        chunk.clear();
+    }
+}
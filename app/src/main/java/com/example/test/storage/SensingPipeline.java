@@ -0,0 +1,226 @@
+package com.example.test.storage;
+
+import com.example.test.metrics.Counter;
+import com.example.test.metrics.LatencyHistogram;
+import com.example.test.metrics.MetricsRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 센싱 데이터 저장 파이프라인
+// GATT 콜백 스레드는 대기열에 샘플을 넣기만 하고, 데이터베이스는 전용 작성 스레드 하나만 사용합니다.
+// 대기열이 가득 차면 콜백 스레드를 막지 않고 새 샘플을 버리며 버린 개수를 기록합니다.
+// 저장 시간과 대기열 길이는 "storage." 지표로 기록합니다.
+public class SensingPipeline {
+
+    // 작성 스레드에서 호출되는 리스너
+    public interface Listener {
+        // 배치 저장 완료
+        void onFlushed(int flushedCount);
+
+        // 저장 중 오류 발생
+        void onError(RuntimeException e);
+    }
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    // 대기열이 비어 있을 때 배치 대기 시간을 확인하는 주기
+    private static final long IDLE_POLL_MS = 100;
+
+    static final String QUEUE_DEPTH_METRIC = "storage.queue_depth";
+    static final String DROPPED_METRIC = "storage.dropped";
+    private static final LatencyHistogram FLUSH_TIME = MetricsRegistry.getInstance().histogram("storage.flush_us");
+    private static final Counter FLUSHED_SAMPLES = MetricsRegistry.getInstance().counter("storage.flushed_samples");
+
+    private final SensingSink sink;
+    private final SensingCounter counter;
+    private final Listener listener;
+    private final BlockingQueue<Object> queue;
+    private final Thread writerThread;
+    private final Runnable stopCommand = () -> { };
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final LongSupplier queueDepthGauge = this::getQueueDepth;
+    private final LongSupplier droppedGauge = this::getDroppedCount;
+    // 싱크에 넣었지만 아직 저장되지 않은 기기별 샘플 수 (작성 스레드에서만 사용)
+    // 저장에 성공한 뒤에만 counter에 반영하므로 실패한 배치는 학습 데이터 개수에 포함되지 않습니다.
+    private final Map<String, int[]> unflushedCounts = new HashMap<>();
+
+    public SensingPipeline(SensingSink sink, SensingCounter counter, Listener listener) {
+        this(sink, counter, listener, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public SensingPipeline(SensingSink sink, SensingCounter counter, Listener listener, int queueCapacity) {
+        this.sink = sink;
+        this.counter = counter;
+        this.listener = listener;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runWriter, "sensing-writer");
+    }
+
+    public void start() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge(QUEUE_DEPTH_METRIC, queueDepthGauge);
+        metrics.gauge(DROPPED_METRIC, droppedGauge);
+        writerThread.start();
+    }
+
+    // 샘플을 대기열에 추가 (막히지 않음), 대기열이 가득 차면 false
+    public boolean offer(SensingSample sample) {
+        if (queue.offer(sample)) {
+            enqueuedCount.incrementAndGet();
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    // 버퍼에 있는 샘플 저장 요청
+    public void flush() {
+        submit(this::flushSink);
+    }
+
+    // 요청 이전에 들어온 샘플을 저장하지 않고 버린 뒤 task 실행 (학습데이터 초기화)
+    public void reset(Runnable task) {
+        submit(() -> {
+            sink.clear();
+            unflushedCounts.clear();
+            counter.clear();
+            task.run();
+        });
+    }
+
+    // 작성 스레드에서 순서대로 실행할 작업 추가
+    public void submit(Runnable task) {
+        putUninterruptibly(task);
+    }
+
+    // 남은 샘플을 모두 저장하고 작성 스레드 종료
+    public void close() {
+        if (!writerThread.isAlive()) {
+            return;
+        }
+        putUninterruptibly(stopCommand);
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // 새 화면의 파이프라인이 먼저 등록했다면 그대로 둠
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.remove(QUEUE_DEPTH_METRIC, queueDepthGauge);
+        metrics.remove(DROPPED_METRIC, droppedGauge);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getRemainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    private void runWriter() {
+        while (true) {
+            Object item;
+            try {
+                item = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                item = stopCommand;
+            }
+            try {
+                if (item == stopCommand) {
+                    try {
+                        flushSink();
+                    } finally {
+                        sink.close();
+                    }
+                } else if (item instanceof SensingSample) {
+                    SensingSample sample = (SensingSample) item;
+                    sink.write(sample);
+                    countUnflushed(sample.getDeviceMac());
+                } else if (item instanceof Runnable) {
+                    ((Runnable) item).run();
+                }
+                if (sink.isFlushDue()) {
+                    flushSink();
+                }
+            } catch (RuntimeException e) {
+                errorCount.incrementAndGet();
+                listener.onError(e);
+            }
+            if (item == stopCommand) {
+                return;
+            }
+        }
+    }
+
+    private void flushSink() {
+        long start = System.nanoTime();
+        int flushed = sink.flush();
+        // 싱크가 내부적으로 먼저 저장한 샘플(세션 변경 등)도 여기서 함께 반영
+        for (Map.Entry<String, int[]> entry : unflushedCounts.entrySet()) {
+            counter.add(entry.getKey(), entry.getValue()[0]);
+        }
+        unflushedCounts.clear();
+        if (flushed > 0) {
+            FLUSH_TIME.recordNanos(System.nanoTime() - start);
+            FLUSHED_SAMPLES.add(flushed);
+            writtenCount.addAndGet(flushed);
+            listener.onFlushed(flushed);
+        }
+    }
+
+    private void countUnflushed(String deviceMac) {
+        int[] count = unflushedCounts.get(deviceMac);
+        if (count == null) {
+            count = new int[1];
+            unflushedCounts.put(deviceMac, count);
+        }
+        count[0]++;
+    }
+
+    private void putUninterruptibly(Object item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
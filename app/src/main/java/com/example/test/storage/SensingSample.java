@@ -0,0 +1,77 @@
+package com.example.test.storage;
+
+// 저장 대기열로 전달되는 센싱 데이터 한 건
+public class SensingSample {
+
+    private final String deviceMac;
+    private final String sex;
+    private final int middleFlexSensor;
+    private final int middlePressureSensor;
+    private final int ringFlexSensor;
+    private final int ringPressureSensor;
+    private final int pinkyFlexSensor;
+    private final int acceleration;
+    private final int gyroscope;
+    private final int magneticField;
+    private final String timestamp;
+
+    public SensingSample(String deviceMac, String sex, int middleFlexSensor, int middlePressureSensor, int ringFlexSensor,
+                         int ringPressureSensor, int pinkyFlexSensor, int acceleration, int gyroscope,
+                         int magneticField, String timestamp) {
+        this.deviceMac = deviceMac;
+        this.sex = sex;
+        this.middleFlexSensor = middleFlexSensor;
+        this.middlePressureSensor = middlePressureSensor;
+        this.ringFlexSensor = ringFlexSensor;
+        this.ringPressureSensor = ringPressureSensor;
+        this.pinkyFlexSensor = pinkyFlexSensor;
+        this.acceleration = acceleration;
+        this.gyroscope = gyroscope;
+        this.magneticField = magneticField;
+        this.timestamp = timestamp;
+    }
+
+    public String getDeviceMac() {
+        return deviceMac;
+    }
+
+    public String getSex() {
+        return sex;
+    }
+
+    public int getMiddleFlexSensor() {
+        return middleFlexSensor;
+    }
+
+    public int getMiddlePressureSensor() {
+        return middlePressureSensor;
+    }
+
+    public int getRingFlexSensor() {
+        return ringFlexSensor;
+    }
+
+    public int getRingPressureSensor() {
+        return ringPressureSensor;
+    }
+
+    public int getPinkyFlexSensor() {
+        return pinkyFlexSensor;
+    }
+
+    public int getAcceleration() {
+        return acceleration;
+    }
+
+    public int getGyroscope() {
+        return gyroscope;
+    }
+
+    public int getMagneticField() {
+        return magneticField;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.test.storage;
+
+// SensingPipeline의 작성 스레드가 사용하는 저장소 인터페이스
+public interface SensingSink {
+
+    // 샘플 추가 (구현체가 필요하면 바로 저장)
+    void write(SensingSample sample);
+
+    // 버퍼에 있는 샘플 저장, 저장된 샘플 수 반환
+    int flush();
+
+    // 대기 시간이 지나 저장이 필요한지 여부
+    boolean isFlushDue();
+
+    // 저장하지 않고 버퍼 비우기
+    void clear();
+
+    // 남은 샘플 저장 후 자원 해제
+    void close();
+}
@@ -0,0 +1,70 @@
+package com.example.test.storage;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+// tb_sensing.timestamp 문자열 생성 ("yyyy-MM-dd HH:mm:ss.SSS", 밀리초 단위)
+// 초가 바뀔 때만 SimpleDateFormat으로 날짜/시각 부분을 만들고 밀리초는 직접 붙입니다.
+// 보관 파일로 옮길 때는 parseMillis로 다시 숫자로 바꿉니다 (밀리초가 없는 예전 값도 허용).
+// 한 스레드에서만 사용해야 합니다.
+public class SensingTimestampFormatter {
+
+    private static final String SECOND_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private final SimpleDateFormat secondFormat = new SimpleDateFormat(SECOND_PATTERN, Locale.US);
+    private final StringBuilder builder = new StringBuilder(23);
+    private final Date date = new Date();
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedPrefix;
+    private String parsedPrefix;
+    private long parsedSecondMillis;
+
+    public String format(long epochMicros) {
+        long millis = Math.floorDiv(epochMicros, 1000L);
+        long second = Math.floorDiv(millis, 1000L);
+        if (second != cachedSecond) {
+            date.setTime(second * 1000);
+            cachedPrefix = secondFormat.format(date);
+            cachedSecond = second;
+        }
+        int fraction = (int) Math.floorMod(millis, 1000L);
+        builder.setLength(0);
+        builder.append(cachedPrefix).append('.');
+        if (fraction < 100) {
+            builder.append('0');
+        }
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        builder.append(fraction);
+        return builder.toString();
+    }
+
+    // format의 역변환, epoch 밀리초 반환
+    public long parseMillis(String timestamp) throws ParseException {
+        int secondLength = SECOND_PATTERN.length();
+        if (timestamp.length() < secondLength) {
+            throw new ParseException("Invalid timestamp: " + timestamp, timestamp.length());
+        }
+        String prefix = timestamp.substring(0, secondLength);
+        if (!prefix.equals(parsedPrefix)) {
+            parsedSecondMillis = secondFormat.parse(prefix).getTime();
+            parsedPrefix = prefix;
+        }
+        // 소수점 이하 세 자리까지 밀리초로 사용
+        int fraction = 0;
+        if (timestamp.length() > secondLength && timestamp.charAt(secondLength) == '.') {
+            for (int i = 0; i < 3; i++) {
+                int index = secondLength + 1 + i;
+                int digit = index < timestamp.length() ? timestamp.charAt(index) - '0' : 0;
+                if (digit < 0 || digit > 9) {
+                    throw new ParseException("Invalid timestamp: " + timestamp, index);
+                }
+                fraction = fraction * 10 + digit;
+            }
+        }
+        return parsedSecondMillis + fraction;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.test.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// 세션 단위 센서 기록 보관 파일(.exsa) 형식
+//
+//   [0..3]  "EXSA"
+//   [4]     버전 (1)
+//   블록 반복 (파일 끝까지):
+//     샘플 수 N (varint, 1~BLOCK_SIZE)
+//     시각 열: 첫 시각(밀리초), 이후 이전 샘플과의 차이 (zigzag varint) N개
+//     채널 열 8개: 각 채널의 첫 값, 이후 이전 값과의 차이 (zigzag varint) N개
+// 센서 값은 샘플 사이에 조금씩만 바뀌므로 대부분의 차이가 1바이트로 저장됩니다.
+// 블록마다 첫 값을 절대값으로 저장하므로 블록 단위로 독립적으로 읽을 수 있습니다.
+public final class SensorArchiveFormat {
+
+    public static final byte[] MAGIC = {'E', 'X', 'S', 'A'};
+    public static final int VERSION = 1;
+    public static final String FILE_EXTENSION = ".exsa";
+    // 블록당 최대 샘플 수 (읽기/쓰기 버퍼 크기)
+    public static final int BLOCK_SIZE = 4096;
+
+    private SensorArchiveFormat() {
+    }
+
+    static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // 7비트씩 하위 바이트부터, 마지막 바이트가 아니면 최상위 비트 1
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        return readVarLong(in, in.read());
+    }
+
+    // 첫 바이트를 이미 읽은 경우
+    static long readVarLong(InputStream in, int firstByte) throws IOException {
+        long result = 0;
+        int b = firstByte;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (b < 0) {
+                throw new EOFException("Truncated varint");
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            b = in.read();
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.test.storage;
+
+import com.example.test.sensor.SensorFrame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+// SensorArchiveWriter가 기록한 파일을 블록 단위로 풀어 샘플 순서대로 읽음 (한 블록만 메모리에 유지)
+public class SensorArchiveReader implements Closeable {
+
+    private final InputStream in;
+    private final long[] timestamps = new long[SensorArchiveFormat.BLOCK_SIZE];
+    private final int[][] columns = new int[SensorFrame.CHANNEL_COUNT][SensorArchiveFormat.BLOCK_SIZE];
+    private int blockCount;
+    private int position;
+
+    public SensorArchiveReader(InputStream in) throws IOException {
+        this.in = in;
+        for (byte expected : SensorArchiveFormat.MAGIC) {
+            if (in.read() != (expected & 0xFF)) {
+                throw new IOException("Not a sensor archive");
+            }
+        }
+        int version = in.read();
+        if (version != SensorArchiveFormat.VERSION) {
+            throw new IOException("Unsupported sensor archive version " + version);
+        }
+    }
+
+    // 다음 샘플의 8채널을 values에 기록, 파일 끝이면 false
+    public boolean next(int[] values) throws IOException {
+        if (position == blockCount && !readBlock()) {
+            return false;
+        }
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            values[channel] = columns[channel][position];
+        }
+        position++;
+        return true;
+    }
+
+    // 마지막으로 next로 읽은 샘플의 시각 (밀리초)
+    public long getTimestampMillis() {
+        return timestamps[position - 1];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean readBlock() throws IOException {
+        // 블록 경계에서 파일이 끝나면 정상 종료
+        int first = in.read();
+        if (first < 0) {
+            return false;
+        }
+        long count = SensorArchiveFormat.readVarLong(in, first);
+        if (count <= 0 || count > SensorArchiveFormat.BLOCK_SIZE) {
+            throw new IOException("Invalid block size " + count);
+        }
+        int n = (int) count;
+        long timestamp = 0;
+        for (int i = 0; i < n; i++) {
+            timestamp += SensorArchiveFormat.zigzagDecode(SensorArchiveFormat.readVarLong(in));
+            timestamps[i] = timestamp;
+        }
+        for (int[] column : columns) {
+            long value = 0;
+            for (int i = 0; i < n; i++) {
+                value += SensorArchiveFormat.zigzagDecode(SensorArchiveFormat.readVarLong(in));
+                column[i] = (int) value;
+            }
+        }
+        blockCount = n;
+        position = 0;
+        return true;
+    }
+}
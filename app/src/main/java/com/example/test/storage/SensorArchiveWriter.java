@@ -0,0 +1,89 @@
+package com.example.test.storage;
+
+import com.example.test.sensor.SensorFrame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// 샘플을 BLOCK_SIZE개씩 모아 열 단위로 압축해 기록 (형식은 SensorArchiveFormat 참고)
+public class SensorArchiveWriter implements Closeable {
+
+    private final OutputStream out;
+    private final long[] timestamps = new long[SensorArchiveFormat.BLOCK_SIZE];
+    private final int[][] columns = new int[SensorFrame.CHANNEL_COUNT][SensorArchiveFormat.BLOCK_SIZE];
+    private int pendingCount;
+    private long sampleCount;
+    private boolean finished;
+    private boolean closed;
+
+    public SensorArchiveWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(SensorArchiveFormat.MAGIC);
+        out.write(SensorArchiveFormat.VERSION);
+    }
+
+    // values: tb_sensing 컬럼 순서의 8채널
+    public void append(int[] values, long timestampMillis) throws IOException {
+        if (finished) {
+            throw new IOException("Archive writer is closed");
+        }
+        timestamps[pendingCount] = timestampMillis;
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            columns[channel][pendingCount] = values[channel];
+        }
+        pendingCount++;
+        sampleCount++;
+        if (pendingCount == SensorArchiveFormat.BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    // 남은 블록을 기록하고 스트림을 비움 (닫지 않음, 이후 fsync 등에 사용), 이후 append 불가
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        writeBlock();
+        out.flush();
+    }
+
+    // 남은 블록을 기록하고 스트림 닫기
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (pendingCount == 0) {
+            return;
+        }
+        SensorArchiveFormat.writeVarLong(out, pendingCount);
+        long previousTimestamp = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            SensorArchiveFormat.writeVarLong(out, SensorArchiveFormat.zigzagEncode(timestamps[i] - previousTimestamp));
+            previousTimestamp = timestamps[i];
+        }
+        for (int[] column : columns) {
+            long previous = 0;
+            for (int i = 0; i < pendingCount; i++) {
+                SensorArchiveFormat.writeVarLong(out, SensorArchiveFormat.zigzagEncode((long) column[i] - previous));
+                previous = column[i];
+            }
+        }
+        pendingCount = 0;
+    }
+}
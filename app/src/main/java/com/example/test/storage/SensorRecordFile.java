@@ -0,0 +1,143 @@
+package com.example.test.storage;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+// 고정 길이 샘플 레코드 파일(.exsr)을 메모리 매핑해 읽음 (학습/재생/내보내기용)
+//
+//   헤더 16바이트: "EXSR", 버전(int), 레코드 길이(int), 채널 수(int)
+//   레코드 40바이트: 시각(밀리초, long) + tb_sensing 컬럼 순서의 8채널(int)
+//   리틀 엔디언, 샘플 수는 파일 크기로 계산
+// 커서/스트림 없이 인덱스로 바로 접근하므로 여러 에폭을 반복해서 읽어도 추가 비용이 없습니다.
+// 레코드는 기록 순서대로 저장되며, 시각 범위 검색은 시각이 줄어들지 않는다고 가정합니다.
+// 매핑은 close 후 GC가 해제하므로 close 이후에는 사용하면 안 됩니다.
+public class SensorRecordFile implements Closeable {
+
+    public static final byte[] MAGIC = {'E', 'X', 'S', 'R'};
+    public static final int VERSION = 1;
+    public static final String FILE_EXTENSION = ".exsr";
+    public static final int HEADER_LENGTH = 16;
+    public static final int RECORD_LENGTH = 8 + SensorFrame.CHANNEL_COUNT * 4;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int FLOAT_BYTES = 4;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int sampleCount;
+
+    private SensorRecordFile(RandomAccessFile file, MappedByteBuffer buffer, int sampleCount) {
+        this.file = file;
+        this.buffer = buffer;
+        this.sampleCount = sampleCount;
+    }
+
+    public static SensorRecordFile open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+        try {
+            long length = file.length();
+            if (length < HEADER_LENGTH || length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid sensor record file length " + length);
+            }
+            if ((length - HEADER_LENGTH) % RECORD_LENGTH != 0) {
+                throw new IOException("Truncated sensor record file");
+            }
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(BYTE_ORDER);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (buffer.get(i) != MAGIC[i]) {
+                    throw new IOException("Not a sensor record file");
+                }
+            }
+            if (buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_LENGTH || buffer.getInt(12) != SensorFrame.CHANNEL_COUNT) {
+                throw new IOException("Unsupported sensor record file version " + buffer.getInt(4));
+            }
+            return new SensorRecordFile(file, buffer, (int) ((length - HEADER_LENGTH) / RECORD_LENGTH));
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public long getTimestampMillis(int index) {
+        return buffer.getLong(offset(index));
+    }
+
+    public int get(int index, int channel) {
+        return buffer.getInt(offset(index) + 8 + channel * 4);
+    }
+
+    // index번째 샘플의 8채널을 values에 기록
+    public void read(int index, int[] values) {
+        int base = offset(index) + 8;
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            values[channel] = buffer.getInt(base + channel * 4);
+        }
+    }
+
+    // 시각이 timeMillis 이상인 첫 샘플 인덱스 (없으면 getSampleCount())
+    // [indexOf(from), indexOf(to))가 from <= 시각 < to 범위
+    public int indexOf(long timeMillis) {
+        int low = 0;
+        int high = sampleCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getTimestampMillis(mid) < timeMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // [fromIndex, toIndex) 샘플을 normalizer로 정규화한 float로 chunk에 채워 consumer에 전달, 전달한 샘플 수 반환
+    // chunk 용량(샘플 단위)만큼씩 전달하며 마지막 chunk만 작을 수 있습니다.
+    public int forEachChunk(int fromIndex, int toIndex, ByteBuffer chunk, SensorNormalizer normalizer, ChunkConsumer consumer) {
+        if (fromIndex < 0 || toIndex > sampleCount || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid range [" + fromIndex + ", " + toIndex + ") of " + sampleCount);
+        }
+        int chunkSize = chunk.capacity() / (SensorFrame.CHANNEL_COUNT * FLOAT_BYTES);
+        if (chunkSize == 0) {
+            throw new IllegalArgumentException("chunk is smaller than one sample");
+        }
+        for (int start = fromIndex; start < toIndex; start += chunkSize) {
+            int rows = Math.min(chunkSize, toIndex - start);
+            chunk.clear();
+            int base = offset(start) + 8;
+            for (int i = 0; i < rows; i++, base += RECORD_LENGTH) {
+                for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                    chunk.putFloat(normalizer.normalize(channel, buffer.getInt(base + channel * 4)));
+                }
+            }
+            chunk.flip();
+            consumer.onChunk(chunk, rows);
+        }
+        return toIndex - fromIndex;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= sampleCount) {
+            throw new IndexOutOfBoundsException("Sample " + index + " of " + sampleCount);
+        }
+        return HEADER_LENGTH + index * RECORD_LENGTH;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.test.storage;
+
+import com.example.test.sensor.SensorFrame;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+// SensorRecordFile 형식으로 샘플을 순서대로 기록 (레코드를 모아 FileChannel로 한 번에 씀)
+public class SensorRecordFileWriter implements Closeable {
+
+    private static final int BUFFER_RECORDS = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * SensorRecordFile.RECORD_LENGTH)
+            .order(SensorRecordFile.BYTE_ORDER);
+    private long sampleCount;
+    private boolean closed;
+
+    public SensorRecordFileWriter(File path) throws IOException {
+        this.channel = new FileOutputStream(path).getChannel();
+        buffer.put(SensorRecordFile.MAGIC)
+                .putInt(SensorRecordFile.VERSION)
+                .putInt(SensorRecordFile.RECORD_LENGTH)
+                .putInt(SensorFrame.CHANNEL_COUNT);
+    }
+
+    // values: tb_sensing 컬럼 순서의 8채널
+    public void append(int[] values, long timestampMillis) throws IOException {
+        if (closed) {
+            throw new IOException("Record writer is closed");
+        }
+        if (buffer.remaining() < SensorRecordFile.RECORD_LENGTH) {
+            writeBuffer();
+        }
+        buffer.putLong(timestampMillis);
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            buffer.putInt(values[channel]);
+        }
+        sampleCount++;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
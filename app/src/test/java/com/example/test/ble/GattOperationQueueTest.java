@@ -0,0 +1,191 @@
+package com.example.test.ble;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GattOperationQueueTest {
+
+    private final SensorStreamerTest.ManualScheduler scheduler = new SensorStreamerTest.ManualScheduler();
+    private long now = 0;
+    private final GattOperationQueue queue = new GattOperationQueue(scheduler, () -> now);
+    private final List<String> log = new ArrayList<>();
+
+    @Test
+    public void enqueue_runsOneOperationAtATime() {
+        queue.enqueue(op("read", GattOperationQueue.Type.READ, true, 0));
+        queue.enqueue(op("write", GattOperationQueue.Type.WRITE, true, 0));
+
+        assertEquals(1, log.size());
+        assertTrue(queue.isBusy());
+        assertEquals(1, queue.getPendingCount());
+
+        queue.onComplete(GattOperationQueue.Type.READ, true);
+        assertEquals("write", log.get(1));
+
+        queue.onComplete(GattOperationQueue.Type.WRITE, true);
+        assertFalse(queue.isBusy());
+    }
+
+    @Test
+    public void enqueue_reportsImmediateSendFailure() {
+        assertFalse(queue.enqueue(op("read", GattOperationQueue.Type.READ, false, 0)));
+        assertFalse(queue.isBusy());
+        assertEquals(1, log.size());
+        assertEquals(1, queue.getStats(GattOperationQueue.Type.READ).getFailedCount());
+    }
+
+    @Test
+    public void sendFailure_isRetriedUpToLimit() {
+        assertFalse(queue.enqueue(op("write", GattOperationQueue.Type.WRITE, false, 2)));
+
+        // 첫 전송 + 재시도 2번
+        assertEquals(3, log.size());
+        assertEquals(2, queue.getStats(GattOperationQueue.Type.WRITE).getRetriedCount());
+    }
+
+    @Test
+    public void timeout_retriesThenFailsAndMovesOn() {
+        queue.enqueue(op("read", GattOperationQueue.Type.READ, true, 1));
+        queue.enqueue(op("next", GattOperationQueue.Type.WRITE, true, 0));
+
+        scheduler.runPending();
+        assertEquals("read", log.get(1));
+
+        scheduler.runPending();
+        assertTrue(log.contains("failed:read"));
+        assertEquals("next", log.get(log.size() - 1));
+
+        GattOperationQueue.Stats stats = queue.getStats(GattOperationQueue.Type.READ);
+        assertEquals(2, stats.getTimedOutCount());
+        assertEquals(1, stats.getFailedCount());
+    }
+
+    @Test
+    public void timeout_withoutRetries_isNotResent() {
+        // 구동기 명령: 시간 초과 후 다시 보내면 기기에서 중복 실행될 수 있음
+        queue.enqueue(op("command", GattOperationQueue.Type.WRITE, true, 0));
+
+        scheduler.runPending();
+
+        assertEquals(Arrays.asList("command", "failed:command"), log);
+        assertFalse(queue.isBusy());
+        assertEquals(0, queue.getStats(GattOperationQueue.Type.WRITE).getRetriedCount());
+    }
+
+    @Test
+    public void errorStatus_isRetried() {
+        queue.enqueue(op("descriptor", GattOperationQueue.Type.DESCRIPTOR_WRITE, true, 1));
+
+        queue.onComplete(GattOperationQueue.Type.DESCRIPTOR_WRITE, false);
+        assertEquals(2, log.size());
+
+        queue.onComplete(GattOperationQueue.Type.DESCRIPTOR_WRITE, true);
+        assertFalse(queue.isBusy());
+        assertEquals(1, queue.getStats(GattOperationQueue.Type.DESCRIPTOR_WRITE).getCompletedCount());
+    }
+
+    @Test
+    public void lateCallbackOfOtherType_isIgnored() {
+        queue.enqueue(op("mtu", GattOperationQueue.Type.MTU, true, 0));
+
+        queue.onComplete(GattOperationQueue.Type.READ, true);
+        assertTrue(queue.isBusy());
+
+        queue.onComplete(GattOperationQueue.Type.MTU, true);
+        assertFalse(queue.isBusy());
+    }
+
+    @Test
+    public void writeNoResponse_completesWithWriteCallback() {
+        queue.enqueue(op("command", GattOperationQueue.Type.WRITE_NO_RESPONSE, true, 0));
+
+        queue.onComplete(GattOperationQueue.Type.WRITE, true);
+
+        assertFalse(queue.isBusy());
+        assertEquals(1, queue.getStats(GattOperationQueue.Type.WRITE_NO_RESPONSE).getCompletedCount());
+    }
+
+    @Test
+    public void onComplete_recordsLatency() {
+        queue.enqueue(op("read", GattOperationQueue.Type.READ, true, 0));
+        now += 7_500_000;
+        queue.onComplete(GattOperationQueue.Type.READ, true);
+
+        assertEquals(7_500, queue.getStats(GattOperationQueue.Type.READ).getLatency().getMax());
+    }
+
+    @Test
+    public void close_failsPendingAndRejectsNewOperations() {
+        queue.enqueue(op("first", GattOperationQueue.Type.READ, true, 0));
+        queue.enqueue(op("second", GattOperationQueue.Type.READ, true, 0));
+
+        queue.close();
+
+        assertTrue(log.contains("failed:first"));
+        assertTrue(log.contains("failed:second"));
+        assertTrue(scheduler.tasks.isEmpty());
+        assertFalse(queue.enqueue(op("late", GattOperationQueue.Type.READ, true, 0)));
+
+        queue.reopen();
+        assertTrue(queue.enqueue(op("again", GattOperationQueue.Type.READ, true, 0)));
+    }
+
+    @Test
+    public void enqueueLatest_burstWhileBusy_keepsOnlyNewestWrite() {
+        queue.enqueue(op("cccd", GattOperationQueue.Type.DESCRIPTOR_WRITE, true, 0));
+        queue.enqueue(op("read", GattOperationQueue.Type.READ, true, 0));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(queue.enqueueLatest(op("command" + i, GattOperationQueue.Type.WRITE, true, 0)));
+        }
+        queue.enqueue(op("read2", GattOperationQueue.Type.READ, true, 0));
+
+        // 읽기 두 개 사이에 마지막 명령 하나만 대기
+        assertEquals(3, queue.getPendingCount());
+        assertEquals(99, queue.getStats(GattOperationQueue.Type.WRITE).getReplacedCount());
+
+        queue.onComplete(GattOperationQueue.Type.DESCRIPTOR_WRITE, true);
+        queue.onComplete(GattOperationQueue.Type.READ, true);
+        queue.onComplete(GattOperationQueue.Type.WRITE, true);
+        assertEquals(Arrays.asList("cccd", "read", "command99", "read2"), log);
+
+        // 진행 중인 명령은 교체하지 않고 다음 명령을 대기열에 추가
+        queue.onComplete(GattOperationQueue.Type.READ, true);
+        queue.enqueueLatest(op("first", GattOperationQueue.Type.WRITE, true, 0));
+        queue.enqueueLatest(op("second", GattOperationQueue.Type.WRITE, true, 0));
+        assertEquals("first", log.get(log.size() - 1));
+        assertEquals(1, queue.getPendingCount());
+    }
+
+    @Test
+    public void enqueue_rejectsWhenQueueIsFull() {
+        queue.enqueue(op("busy", GattOperationQueue.Type.READ, true, 0));
+        for (int i = 0; i < GattOperationQueue.MAX_PENDING; i++) {
+            assertTrue(queue.enqueue(op("read" + i, GattOperationQueue.Type.READ, true, 0)));
+        }
+
+        assertFalse(queue.enqueue(op("overflow", GattOperationQueue.Type.READ, true, 0)));
+        assertEquals(GattOperationQueue.MAX_PENDING, queue.getPendingCount());
+        assertEquals(1, queue.getStats(GattOperationQueue.Type.READ).getRejectedCount());
+        assertFalse(log.contains("failed:overflow"));
+    }
+
+    private GattOperationQueue.Operation op(String name, GattOperationQueue.Type type, boolean sent, int maxRetries) {
+        return new GattOperationQueue.Operation(type, 100, maxRetries) {
+            @Override
+            public boolean execute() {
+                log.add(name);
+                return sent;
+            }
+
+            @Override
+            public void onFailed() {
+                log.add("failed:" + name);
+            }
+        };
+    }
+}
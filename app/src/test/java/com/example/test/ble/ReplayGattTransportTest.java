@@ -0,0 +1,262 @@
+package com.example.test.ble;
+
+import com.example.test.sensor.SensorPacketDecoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReplayGattTransportTest {
+
+    private final ClockScheduler scheduler = new ClockScheduler();
+    private final RecordingListener listener = new RecordingListener();
+    private final List<byte[]> frames = new ArrayList<>();
+
+    @Test
+    public void capture_roundTrip() throws IOException {
+        FrameCapture capture = capture(0, 5_000, 12_000);
+
+        assertEquals(3, capture.size());
+        assertEquals(12_000, capture.getDurationMicros());
+        assertEquals(5_000, capture.getArrivalMicros(1));
+        assertArrayEquals(frame(2), capture.getFrame(2));
+    }
+
+    @Test
+    public void capture_dropsTruncatedLastRecord() throws IOException {
+        byte[] bytes = captureBytes(0, 5_000);
+        FrameCapture capture = FrameCapture.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 2)));
+
+        assertEquals(1, capture.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void capture_badMagic_rejected() throws IOException {
+        FrameCapture.read(new ByteArrayInputStream(new byte[]{'E', 'X', 'S', 'A', 1}));
+    }
+
+    @Test
+    public void replay_scalesRecordedTiming() throws IOException {
+        // 10ms 간격 기록을 10배속 재생하면 1ms 간격
+        ReplayGattTransport transport = replay(10, 0, 10_000, 20_000, 30_000);
+        transport.enableNotifications();
+
+        scheduler.runDue();
+        assertEquals(1, frames.size());
+        scheduler.advanceMicros(999);
+        assertEquals(1, frames.size());
+        scheduler.advanceMicros(1);
+        assertEquals(2, frames.size());
+        scheduler.advanceMicros(2_000);
+        assertEquals(4, frames.size());
+        assertTrue(transport.isFinished());
+        assertEquals(1, listener.finishedCount);
+        assertArrayEquals(frame(3), frames.get(3));
+    }
+
+    @Test
+    public void replay_unthrottled_deliversInBoundedTicks() throws IOException {
+        long[] times = new long[ReplayGattTransport.MAX_FRAMES_PER_TICK * 2 + 1];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = i * 5_000L;
+        }
+        ReplayGattTransport transport = replay(ReplayGattTransport.UNTHROTTLED, times);
+        transport.enableNotifications();
+
+        scheduler.runOnce();
+        assertEquals(ReplayGattTransport.MAX_FRAMES_PER_TICK, frames.size());
+        scheduler.runDue();
+        assertEquals(times.length, frames.size());
+        assertTrue(transport.isFinished());
+    }
+
+    @Test
+    public void disable_pausesAndResumesFromPosition() throws IOException {
+        ReplayGattTransport transport = replay(1, 0, 10_000, 20_000);
+        transport.enableNotifications();
+        scheduler.runDue();
+        transport.disableNotifications();
+        scheduler.advanceMicros(100_000);
+        assertEquals(1, frames.size());
+
+        // 다시 켜면 다음 패킷부터 바로 이어서 재생
+        transport.enableNotifications();
+        scheduler.runDue();
+        assertEquals(2, frames.size());
+        scheduler.advanceMicros(10_000);
+        assertEquals(3, frames.size());
+    }
+
+    @Test
+    public void replay_throughStreamerAndDecoder() throws IOException {
+        SensorPacketDecoder decoder = new SensorPacketDecoder();
+        int[] samples = new int[1];
+        ReplayGattTransport transport = replay(ReplayGattTransport.UNTHROTTLED, 0, 50_000, 100_000);
+        SensorStreamer streamer = new SensorStreamer(transport, scheduler,
+                value -> decoder.decode(value, 0, (frame, timestampMicros) -> samples[0]++));
+        transport.setCallback(new StreamerCallback(streamer));
+
+        streamer.start();
+        scheduler.runDue();
+
+        assertEquals(SensorStreamer.Mode.STREAMING, streamer.getMode());
+        assertEquals(3, samples[0]);
+        assertEquals(0, decoder.getInvalidPacketCount());
+    }
+
+    @Test
+    public void write_forwardedToListenerAndCompleted() throws IOException {
+        ReplayGattTransport transport = replay(1, 0);
+        boolean[] completed = new boolean[1];
+        transport.setCallback(new StreamerCallback(null) {
+            @Override
+            public void onCharacteristicWrite(boolean success) {
+                completed[0] = success;
+            }
+        });
+
+        assertTrue(transport.requestWrite(new byte[]{1, 2}, false));
+        assertFalse(completed[0]);
+        scheduler.runDue();
+
+        assertTrue(completed[0]);
+        assertEquals(1, transport.getWriteCount());
+        assertArrayEquals(new byte[]{1, 2}, listener.writes.get(0));
+    }
+
+    private ReplayGattTransport replay(double speed, long... arrivalMicros) throws IOException {
+        ReplayGattTransport transport = new ReplayGattTransport(capture(arrivalMicros), scheduler,
+                () -> scheduler.nowNanos, speed, listener);
+        transport.setCallback(new StreamerCallback(null) {
+            @Override
+            public void onCharacteristicChanged(byte[] value) {
+                frames.add(value);
+            }
+        });
+        return transport;
+    }
+
+    private static FrameCapture capture(long... arrivalMicros) throws IOException {
+        return FrameCapture.read(new ByteArrayInputStream(captureBytes(arrivalMicros)));
+    }
+
+    private static byte[] captureBytes(long... arrivalMicros) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FrameCaptureWriter writer = new FrameCaptureWriter(out)) {
+            for (int i = 0; i < arrivalMicros.length; i++) {
+                writer.write(frame(i), arrivalMicros[i]);
+            }
+            assertEquals(arrivalMicros.length, writer.getFrameCount());
+        }
+        return out.toByteArray();
+    }
+
+    // 기존 16바이트 단일 샘플 패킷
+    private static byte[] frame(int index) {
+        byte[] frame = new byte[16];
+        frame[0] = (byte) index;
+        return frame;
+    }
+
+    private static class RecordingListener implements ReplayGattTransport.Listener {
+        final List<byte[]> writes = new ArrayList<>();
+        int finishedCount;
+
+        @Override
+        public void onWrite(byte[] value, boolean withResponse) {
+            writes.add(value);
+        }
+
+        @Override
+        public void onReplayFinished() {
+            finishedCount++;
+        }
+    }
+
+    // GattSession 없이 SensorStreamer에 결과 전달
+    private static class StreamerCallback implements GattTransport.Callback {
+        private final SensorStreamer streamer;
+
+        StreamerCallback(SensorStreamer streamer) {
+            this.streamer = streamer;
+        }
+
+        @Override
+        public void onNotificationStateWritten(boolean success) {
+            if (streamer != null) {
+                streamer.onNotificationsEnabled(success);
+            }
+        }
+
+        @Override
+        public void onCharacteristicRead(byte[] value, boolean success) {
+            if (streamer != null) {
+                streamer.onCharacteristicRead(value, success);
+            }
+        }
+
+        @Override
+        public void onCharacteristicWrite(boolean success) {
+        }
+
+        @Override
+        public void onCharacteristicChanged(byte[] value) {
+            if (streamer != null) {
+                streamer.onCharacteristicChanged(value);
+            }
+        }
+    }
+
+    // 가짜 시계 기준으로 예약 시각이 된 작업만 실행하는 스케줄러
+    private static class ClockScheduler implements SensorStreamer.Scheduler {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> dueNanos = new ArrayList<>();
+        long nowNanos;
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            tasks.add(task);
+            dueNanos.add(nowNanos + delayMs * 1_000_000);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            int index;
+            while ((index = tasks.indexOf(task)) >= 0) {
+                tasks.remove(index);
+                dueNanos.remove(index);
+            }
+        }
+
+        void advanceMicros(long micros) {
+            nowNanos += micros * 1000;
+            runDue();
+        }
+
+        void runDue() {
+            while (runOnce()) {
+                // 실행 중 새로 예약된 작업도 시각이 되었으면 실행
+            }
+        }
+
+        // 시각이 된 작업 하나 실행, 없으면 false
+        boolean runOnce() {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (dueNanos.get(i) <= nowNanos) {
+                    Runnable task = tasks.remove(i);
+                    dueNanos.remove(i);
+                    task.run();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
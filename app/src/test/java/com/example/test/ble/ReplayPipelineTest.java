@@ -0,0 +1,193 @@
+package com.example.test.ble;
+
+import com.example.test.ml.ActuatorCommandEncoder;
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorFrameDecoder;
+import com.example.test.sensor.SensorNormalizer;
+import com.example.test.sensor.SensorPacketDecoder;
+import com.example.test.sensor.SensorRingBuffer;
+import com.example.test.sensor.SlidingWindow;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// 기록한 패킷을 ActualActivity와 같은 경로로 재생 (디코딩 -> 링 버퍼 -> 슬라이딩 윈도우 추론 -> 명령 쓰기)
+// 모델 대신 윈도우의 압력 평균을 출력하는 계산을 사용합니다.
+public class ReplayPipelineTest {
+
+    // MTU 247에서 묶음 패킷 하나에 들어가는 최대 샘플 수
+    private static final int SAMPLES_PER_PACKET = 14;
+    private static final int PACKET_COUNT = 20;
+    private static final int SAMPLE_COUNT = SAMPLES_PER_PACKET * PACKET_COUNT;
+    private static final int SAMPLE_INTERVAL_MICROS = 5_000;
+    private static final int WINDOW_LENGTH = 32;
+    private static final int HOP_SIZE = 8;
+
+    private final ImmediateScheduler scheduler = new ImmediateScheduler();
+    private final SensorPacketDecoder decoder = new SensorPacketDecoder();
+    private final SensorRingBuffer ring = new SensorRingBuffer(256);
+    private final SlidingWindow window = new SlidingWindow(ring, WINDOW_LENGTH, HOP_SIZE, SensorNormalizer.fromRange(
+            new int[SensorFrame.CHANNEL_COUNT], new int[]{1, SAMPLE_COUNT - 1, 1, SAMPLE_COUNT - 1, 1, 1, 1, 1}));
+    private final ByteBuffer input = SensorRingBuffer.allocateWindow(WINDOW_LENGTH);
+    private final ActuatorCommandEncoder encoder = new ActuatorCommandEncoder();
+    private final List<String> commands = new ArrayList<>();
+    private int inferences;
+    private int completedWrites;
+
+    @Test
+    public void replay_decodesStoresInfersAndWritesCommands() throws IOException {
+        ReplayGattTransport transport = new ReplayGattTransport(capture(), scheduler, () -> 0L,
+                ReplayGattTransport.UNTHROTTLED, new ReplayGattTransport.Listener() {
+            @Override
+            public void onWrite(byte[] value, boolean withResponse) {
+                commands.add(new String(value, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onReplayFinished() {
+            }
+        });
+        long[] arrivalMicros = new long[1];
+        SensorStreamer streamer = new SensorStreamer(transport, scheduler, value -> {
+            arrivalMicros[0] += SAMPLES_PER_PACKET * SAMPLE_INTERVAL_MICROS;
+            decoder.decode(value, arrivalMicros[0], (frame, timestampMicros) -> onSample(transport, frame, timestampMicros));
+        });
+        transport.setCallback(new PipelineCallback(streamer));
+
+        streamer.start();
+        scheduler.runAll();
+
+        assertTrue(transport.isFinished());
+        assertEquals(SAMPLE_COUNT, decoder.getSampleCount());
+        assertEquals(0, decoder.getInvalidPacketCount());
+        assertEquals(0, decoder.getSequenceTracker().getLostCount());
+        assertEquals(SAMPLE_COUNT, ring.getWrittenCount());
+        // 32번째 샘플부터 8개마다 추론
+        assertEquals((SAMPLE_COUNT - WINDOW_LENGTH) / HOP_SIZE + 1, inferences);
+        // 압력이 계속 변하므로 추론할 때마다 새 명령
+        assertEquals(inferences, commands.size());
+        assertEquals(commands.size(), transport.getWriteCount());
+        assertEquals(commands.size(), completedWrites);
+
+        // 마지막 윈도우: 샘플 248~279의 평균
+        String last = commands.get(commands.size() - 1);
+        assertTrue(last.startsWith("SENSOR_CONTROL:"));
+        String[] values = last.substring("SENSOR_CONTROL:".length()).split(",");
+        float expected = (SAMPLE_COUNT - 1 - (WINDOW_LENGTH - 1) / 2f) / (SAMPLE_COUNT - 1);
+        assertEquals(expected, Float.parseFloat(values[0]), 1e-4f);
+        assertEquals(expected, Float.parseFloat(values[1]), 1e-4f);
+    }
+
+    // ActualActivity.processSensorSample와 같은 순서
+    private void onSample(GattTransport transport, SensorFrame frame, long timestampMicros) {
+        ring.write(frame, timestampMicros / 1000);
+        input.clear();
+        if (!window.next(input)) {
+            return;
+        }
+        inferences++;
+        float middle = 0;
+        float ringPressure = 0;
+        for (int i = 0; i < WINDOW_LENGTH; i++) {
+            int base = i * SensorFrame.CHANNEL_COUNT * 4;
+            middle += input.getFloat(base + SensorFrame.MIDDLE_PRESSURE * 4);
+            ringPressure += input.getFloat(base + SensorFrame.RING_PRESSURE * 4);
+        }
+        if (encoder.update(middle / WINDOW_LENGTH, ringPressure / WINDOW_LENGTH)) {
+            transport.requestWrite(encoder.getCommandBytes(), true);
+        }
+    }
+
+    // 샘플 k의 두 압력 채널 값은 k (나머지 채널은 0)
+    private static FrameCapture capture() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FrameCaptureWriter writer = new FrameCaptureWriter(out)) {
+            for (int packet = 0; packet < PACKET_COUNT; packet++) {
+                writer.write(packed(packet), (packet + 1L) * SAMPLES_PER_PACKET * SAMPLE_INTERVAL_MICROS);
+            }
+        }
+        return FrameCapture.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static byte[] packed(int sequence) {
+        ByteBuffer data = ByteBuffer.allocate(SensorPacketDecoder.HEADER_LENGTH + SAMPLES_PER_PACKET * SensorFrameDecoder.FRAME_LENGTH)
+                .order(ByteOrder.BIG_ENDIAN);
+        data.put((byte) SensorPacketDecoder.VERSION)
+                .put((byte) SAMPLES_PER_PACKET)
+                .putShort((short) sequence)
+                .putInt(sequence * SAMPLES_PER_PACKET * SAMPLE_INTERVAL_MICROS)
+                .putShort((short) SAMPLE_INTERVAL_MICROS);
+        for (int i = 0; i < SAMPLES_PER_PACKET; i++) {
+            short pressure = (short) (sequence * SAMPLES_PER_PACKET + i);
+            for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                boolean isPressure = channel == SensorFrame.MIDDLE_PRESSURE || channel == SensorFrame.RING_PRESSURE;
+                data.putShort(isPressure ? pressure : 0);
+            }
+        }
+        return data.array();
+    }
+
+    // GattSession.transportCallback처럼 결과를 SensorStreamer에 전달
+    private class PipelineCallback implements GattTransport.Callback {
+        private final SensorStreamer streamer;
+
+        PipelineCallback(SensorStreamer streamer) {
+            this.streamer = streamer;
+        }
+
+        @Override
+        public void onNotificationStateWritten(boolean success) {
+            streamer.onNotificationsEnabled(success);
+        }
+
+        @Override
+        public void onCharacteristicRead(byte[] value, boolean success) {
+            streamer.onCharacteristicRead(value, success);
+        }
+
+        @Override
+        public void onCharacteristicWrite(boolean success) {
+            if (success) {
+                completedWrites++;
+            }
+        }
+
+        @Override
+        public void onCharacteristicChanged(byte[] value) {
+            streamer.onCharacteristicChanged(value);
+        }
+    }
+
+    // 예약 시각과 관계없이 순서대로 실행하는 스케줄러 (UNTHROTTLED 재생용)
+    private static class ImmediateScheduler implements SensorStreamer.Scheduler {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            tasks.addLast(task);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            tasks.removeIf(queued -> queued == task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.pollFirst()) != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.test.ble;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScanEngineTest {
+
+    private final SensorStreamerTest.ManualScheduler scheduler = new SensorStreamerTest.ManualScheduler();
+    private long now = 0;
+    private final List<List<ScannedDevice>> refreshes = new ArrayList<>();
+    private final List<ScanEngine.StopReason> stops = new ArrayList<>();
+    private final ScanEngine engine = new ScanEngine(scheduler, () -> now, new ScanEngine.Listener() {
+        @Override
+        public void onDevicesChanged(List<ScannedDevice> devices) {
+            refreshes.add(devices);
+        }
+
+        @Override
+        public void onScanStopped(ScanEngine.StopReason reason) {
+            stops.add(reason);
+        }
+    });
+
+    @Test
+    public void advertisements_areDedupedAndCoalesced() {
+        engine.setScanWindowMs(0);
+        engine.start();
+        refreshes.clear();
+
+        for (int i = 0; i < 50; i++) {
+            engine.onAdvertisement("AA", "glove", -60);
+            engine.onAdvertisement("BB", null, -80);
+        }
+        assertTrue(refreshes.isEmpty());
+
+        scheduler.runPending();
+        assertEquals(1, refreshes.size());
+        assertEquals(2, refreshes.get(0).size());
+        assertEquals(50, engine.get("AA").getAdvertisementCount());
+    }
+
+    @Test
+    public void rssi_isSmoothed() {
+        engine.start();
+        engine.onAdvertisement("AA", "glove", -60);
+        engine.onAdvertisement("AA", "glove", -100);
+
+        assertEquals(-70, engine.get("AA").getRssi());
+    }
+
+    @Test
+    public void staleDevices_areRemoved() {
+        engine.setStaleTimeoutMs(5_000);
+        engine.setScanWindowMs(0);
+        engine.start();
+        engine.onAdvertisement("AA", "glove", -60);
+        now = 3_000;
+        engine.onAdvertisement("BB", "glove", -60);
+
+        now = 6_000;
+        scheduler.runPending();
+
+        assertNull(engine.get("AA"));
+        assertNotNull(engine.get("BB"));
+        assertEquals(1, refreshes.get(refreshes.size() - 1).size());
+    }
+
+    @Test
+    public void knownDevice_isListedFirstAndStopsScan() {
+        engine.setKnownDevices(Collections.singletonList("KK"));
+        engine.setStopOnKnownDevice(true);
+        engine.start();
+        engine.onAdvertisement("AA", "other", -50);
+        engine.onAdvertisement("KK", "glove", -70);
+
+        assertEquals(Collections.singletonList(ScanEngine.StopReason.KNOWN_DEVICE_FOUND), stops);
+        assertFalse(engine.isScanning());
+        List<ScannedDevice> last = refreshes.get(refreshes.size() - 1);
+        assertEquals("KK", last.get(0).getMac());
+        assertTrue(scheduler.tasks.isEmpty());
+
+        engine.onAdvertisement("CC", "late", -50);
+        assertNull(engine.get("CC"));
+    }
+
+    @Test
+    public void knownDevicesLoadedDuringScan_areAppliedToDiscoveredDevices() {
+        engine.setStopOnKnownDevice(true);
+        engine.start();
+        engine.onAdvertisement("AA", "other", -50);
+        engine.onAdvertisement("KK", "glove", -70);
+
+        engine.setKnownDevices(Collections.singletonList("KK"));
+
+        assertTrue(engine.get("KK").isKnown());
+        assertEquals(Collections.singletonList(ScanEngine.StopReason.KNOWN_DEVICE_FOUND), stops);
+        assertEquals("KK", refreshes.get(refreshes.size() - 1).get(0).getMac());
+    }
+
+    @Test
+    public void scanWindow_stopsScan() {
+        engine.setScanWindowMs(1_000);
+        engine.start();
+
+        scheduler.runPending();
+
+        assertEquals(Collections.singletonList(ScanEngine.StopReason.TIMEOUT), stops);
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.test.ble;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SensorStreamerTest {
+
+    private FakeGattTransport transport;
+    private ManualScheduler scheduler;
+    private List<byte[]> frames;
+    private SensorStreamer streamer;
+
+    @Before
+    public void setUp() {
+        transport = new FakeGattTransport();
+        scheduler = new ManualScheduler();
+        frames = new ArrayList<>();
+        streamer = new SensorStreamer(transport, scheduler, frames::add);
+    }
+
+    @Test
+    public void notifySupported_streamsWithoutPolling() {
+        transport.notifySupported = true;
+        streamer.start();
+        streamer.onNotificationsEnabled(true);
+
+        assertEquals(SensorStreamer.Mode.STREAMING, streamer.getMode());
+        assertEquals(1, transport.enableCount);
+
+        streamer.onCharacteristicChanged(new byte[]{1});
+        streamer.onCharacteristicChanged(new byte[]{2});
+        assertEquals(2, frames.size());
+        assertEquals(0, transport.readCount);
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void notifyUnsupported_fallsBackToPolling() {
+        transport.notifySupported = false;
+        streamer.start();
+
+        assertEquals(SensorStreamer.Mode.POLLING, streamer.getMode());
+        scheduler.runPending();
+        assertEquals(1, transport.readCount);
+
+        streamer.onCharacteristicRead(new byte[]{1}, true);
+        assertEquals(1, frames.size());
+    }
+
+    @Test
+    public void cccdWriteFailure_fallsBackToPolling() {
+        transport.notifySupported = true;
+        streamer.start();
+        streamer.onNotificationsEnabled(false);
+
+        assertEquals(SensorStreamer.Mode.POLLING, streamer.getMode());
+        scheduler.runPending();
+        assertEquals(1, transport.readCount);
+    }
+
+    @Test
+    public void polling_skipsTickWhileReadOutstanding() {
+        transport.notifySupported = false;
+        streamer.start();
+
+        scheduler.runPending();
+        scheduler.runPending();
+        scheduler.runPending();
+        assertEquals(1, transport.readCount);
+
+        streamer.onCharacteristicRead(new byte[]{1}, true);
+        scheduler.runPending();
+        assertEquals(2, transport.readCount);
+    }
+
+    @Test
+    public void stop_disablesNotificationsAndDropsLateFrames() {
+        transport.notifySupported = true;
+        streamer.start();
+        streamer.stop();
+
+        assertEquals(SensorStreamer.Mode.IDLE, streamer.getMode());
+        assertEquals(1, transport.disableCount);
+
+        streamer.onCharacteristicChanged(new byte[]{1});
+        assertTrue(frames.isEmpty());
+    }
+
+    @Test
+    public void stop_cancelsPolling() {
+        transport.notifySupported = false;
+        streamer.start();
+        streamer.stop();
+
+        assertTrue(scheduler.tasks.isEmpty());
+        assertEquals(0, transport.disableCount);
+    }
+
+    // JVM 테스트용 가짜 GATT 전송 계층
+    static class FakeGattTransport implements GattTransport {
+        boolean notifySupported;
+        int enableCount;
+        int disableCount;
+        int readCount;
+
+        @Override
+        public boolean supportsNotify() {
+            return notifySupported;
+        }
+
+        @Override
+        public boolean enableNotifications() {
+            enableCount++;
+            return true;
+        }
+
+        @Override
+        public boolean disableNotifications() {
+            disableCount++;
+            return true;
+        }
+
+        @Override
+        public boolean requestRead() {
+            readCount++;
+            return true;
+        }
+
+        @Override
+        public boolean requestWrite(byte[] value, boolean withResponse) {
+            return true;
+        }
+    }
+
+    // 예약된 작업을 수동으로 실행하는 스케줄러
+    static class ManualScheduler implements SensorStreamer.Scheduler {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            tasks.add(task);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            tasks.remove(task);
+        }
+
+        void runPending() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : pending) {
+                task.run();
+            }
+        }
+    }
+}
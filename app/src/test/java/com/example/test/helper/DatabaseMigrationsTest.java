@@ -0,0 +1,178 @@
+package com.example.test.helper;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DatabaseMigrationsTest {
+
+    // 앱에 포함된 버전 1 데이터베이스 (단위 테스트의 작업 디렉터리는 app 모듈)
+    private static final File ASSET_DB = new File("src/main/assets/EXBR_DB.db");
+
+    private final List<Integer> applied = new ArrayList<>();
+    private File dbFile;
+    private Connection connection;
+    private final DatabaseMigrations.Migration[] migrations = {
+            db -> applied.add(2),
+            db -> applied.add(3),
+            db -> applied.add(4),
+    };
+
+    @Test
+    public void migrate_appliesStepsInOrder() {
+        DatabaseMigrations.migrate(null, 1, 4, migrations);
+
+        assertEquals(Arrays.asList(2, 3, 4), applied);
+    }
+
+    @Test
+    public void migrate_startsFromInstalledVersion() {
+        DatabaseMigrations.migrate(null, 3, 4, migrations);
+
+        assertEquals(Arrays.asList(4), applied);
+    }
+
+    @Test
+    public void migrate_rejectsUnknownVersions() {
+        assertThrows(IllegalStateException.class, () -> DatabaseMigrations.migrate(null, 0, 2, migrations));
+        assertThrows(IllegalStateException.class, () -> DatabaseMigrations.migrate(null, 1, 5, migrations));
+        assertThrows(IllegalStateException.class, () -> DatabaseMigrations.migrate(null, 3, 2, migrations));
+        assertTrue(applied.isEmpty());
+    }
+
+    @Test
+    public void realMigrations_upgradeAssetSchemaToLatest() throws Exception {
+        openAssetCopy();
+        execute("INSERT INTO tb_device (device_mac, created_at) VALUES ('AA:BB', '2024-01-01')");
+        execute("INSERT INTO tb_sensing (device_mac, middle_flex_sensor, middle_pressure_sensor, ring_flex_sensor, ring_pressure_sensor, "
+                + "pinky_flex_sensor, acceleration, gyroscope, magnetic_field, timestamp) VALUES ('AA:BB', 1, 2, 3, 4, 5, 6, 7, 8, '2024-01-01')");
+        execute("INSERT INTO tb_deep_learning (model_idx, sex, device_mac, model_name, analisys_result, prediction_rate, created_at) "
+                + "VALUES (7, '남', 'AA:BB', 'model', 'result', 0.5, 1)");
+
+        DatabaseMigrations.migrate(new JdbcSchema(connection), DatabaseMigrations.ASSET_VERSION, DatabaseMigrations.LATEST_VERSION);
+
+        // 2: sex 컬럼, analisys_result -> analysis_result (기존 행 유지), device_mac 인덱스
+        assertTrue(columns("tb_sensing").contains("sex"));
+        Set<String> deepLearning = columns("tb_deep_learning");
+        assertTrue(deepLearning.contains("analysis_result"));
+        assertFalse(deepLearning.contains("analisys_result"));
+        assertEquals("result", queryString("SELECT analysis_result FROM tb_deep_learning WHERE model_idx = 7"));
+        assertEquals("idx_deep_learning_device_mac", queryString(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'tb_deep_learning'"));
+        assertEquals(new HashSet<>(Arrays.asList("idx_sensing_device_mac", "idx_sensing_session_device")), indexes("tb_sensing"));
+
+        // 3: 기존 센싱 데이터는 세션 0
+        assertEquals("0", queryString("SELECT session_idx FROM tb_sensing"));
+        assertEquals("0", queryString("SELECT session_idx FROM tb_sensing_session WHERE device_mac IS NULL AND discarded = 0"));
+
+        // 4: 보관 파일 컬럼
+        assertTrue(columns("tb_sensing_session").containsAll(Arrays.asList(
+                "session_idx", "device_mac", "started_at", "discarded", "ended_at", "sex", "archive_path", "archived_count")));
+        assertEquals("0", queryString("SELECT archived_count FROM tb_sensing_session WHERE session_idx = 0"));
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+        if (dbFile != null) {
+            dbFile.delete();
+        }
+    }
+
+    private void openAssetCopy() throws IOException, SQLException {
+        dbFile = File.createTempFile("EXBR_DB", ".db");
+        Files.copy(ASSET_DB.toPath(), dbFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getPath());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            assertTrue(sql, result.next());
+            return result.getString(1);
+        }
+    }
+
+    private Set<String> columns(String table) throws SQLException {
+        return names("PRAGMA table_info(" + table + ")");
+    }
+
+    private Set<String> indexes(String table) throws SQLException {
+        return names("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = '" + table + "'");
+    }
+
+    private Set<String> names(String sql) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                names.add(result.getString("name"));
+            }
+        }
+        return names;
+    }
+
+    // 마이그레이션 SQL을 JDBC SQLite 연결에서 실행
+    private static class JdbcSchema implements DatabaseMigrations.Schema {
+        private final Connection connection;
+
+        JdbcSchema(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void execSQL(String sql) {
+            execSQL(sql, new Object[0]);
+        }
+
+        @Override
+        public void execSQL(String sql, Object[] bindArgs) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < bindArgs.length; i++) {
+                    statement.setObject(i + 1, bindArgs[i]);
+                }
+                statement.execute();
+            } catch (SQLException e) {
+                throw new IllegalStateException(sql, e);
+            }
+        }
+
+        @Override
+        public boolean hasColumn(String table, String column) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+                while (result.next()) {
+                    if (column.equals(result.getString("name"))) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
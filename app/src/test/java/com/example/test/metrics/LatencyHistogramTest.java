@@ -0,0 +1,43 @@
+package com.example.test.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void bucketBounds_areContiguous() {
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.lowerBound(i)));
+            assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.upperBound(i)));
+        }
+    }
+
+    @Test
+    public void percentile_isWithinBucketError() {
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 1e-9);
+        assertEquals(500, histogram.getPercentile(50), 500 * 0.125);
+        assertEquals(990, histogram.getPercentile(99), 990 * 0.125);
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void reset_clearsValues() {
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+}
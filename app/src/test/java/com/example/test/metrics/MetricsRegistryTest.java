@@ -0,0 +1,88 @@
+package com.example.test.metrics;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    public void sameName_returnsSameMetric() {
+        Counter counter = registry.counter("samples");
+        counter.add(3);
+
+        assertSame(counter, registry.counter("samples"));
+        assertSame(registry.histogram("decode_ns"), registry.histogram("decode_ns"));
+        assertEquals(3, registry.counter("samples").get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sameName_differentType_rejected() {
+        registry.counter("samples");
+        registry.histogram("samples");
+    }
+
+    @Test
+    public void appendTo_sortedByName() {
+        long[] depth = {7};
+        registry.gauge("b.queue_depth", () -> depth[0]);
+        registry.counter("a.samples").add(5);
+        registry.histogram("c.flush_us").record(100);
+        registry.histogram("d.empty_us");
+
+        String text = format(null, 0);
+
+        assertEquals("a.samples 5\n"
+                + "b.queue_depth 7\n"
+                + "c.flush_us count=1 mean=100.0 p50=100 p99=100 max=100\n"
+                + "d.empty_us count=0\n", text);
+    }
+
+    @Test
+    public void appendTo_reportsCounterRateSinceLastCall() {
+        Counter counter = registry.counter("samples");
+        Map<String, Long> lastCounts = new HashMap<>();
+        counter.add(100);
+        assertEquals("samples 100\n", format(lastCounts, 0));
+
+        counter.add(200);
+        // 0.5초 동안 200 증가
+        assertEquals("samples 300 (400.0/s)\n", format(lastCounts, 500_000_000L));
+    }
+
+    @Test
+    public void reset_keepsGauges() {
+        registry.counter("samples").add(5);
+        registry.histogram("flush_us").record(10);
+        registry.gauge("queue_depth", () -> 2);
+
+        registry.reset();
+
+        assertEquals("flush_us count=0\nqueue_depth 2\nsamples 0\n", format(null, 0));
+    }
+
+    @Test
+    public void remove_onlyIfStillRegistered() {
+        LongSupplier first = () -> 1;
+        LongSupplier second = () -> 2;
+        registry.gauge("queue_depth", first);
+        registry.gauge("queue_depth", second);
+
+        registry.remove("queue_depth", first);
+        assertEquals("queue_depth 2\n", format(null, 0));
+        registry.remove("queue_depth", second);
+        assertEquals("", format(null, 0));
+    }
+
+    private String format(Map<String, Long> lastCounts, long elapsedNanos) {
+        StringBuilder out = new StringBuilder();
+        registry.appendTo(out, lastCounts, elapsedNanos);
+        return out.toString();
+    }
+}
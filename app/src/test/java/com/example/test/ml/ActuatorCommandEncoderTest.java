@@ -0,0 +1,71 @@
+package com.example.test.ml;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ActuatorCommandEncoderTest {
+
+    private final ActuatorCommandEncoder encoder = new ActuatorCommandEncoder();
+
+    @Test
+    public void update_keepsLegacyCommandFormat() {
+        float first = 0.5f;
+        float second = -1.234f;
+        assertTrue(encoder.update(first, second));
+        // 기존 ActualActivity의 문자열 연결과 같은 결과
+        assertEquals("SENSOR_CONTROL:" + first + "," + second, encoder.getCommand());
+        assertEquals("SENSOR_CONTROL:0.5,-1.234", encoder.getCommand());
+    }
+
+    @Test
+    public void update_skipsChangesWithinTolerance() {
+        assertTrue(encoder.update(0.5f, 0.2f));
+        byte[] bytes = encoder.getCommandBytes();
+
+        assertFalse(encoder.update(0.505f, 0.195f));
+        assertSame(bytes, encoder.getCommandBytes());
+        assertEquals("SENSOR_CONTROL:0.5,0.2", encoder.getCommand());
+
+        // 마지막으로 보낸 값 기준이므로 작은 변화가 쌓이면 새 명령
+        assertFalse(encoder.update(0.509f, 0.2f));
+        assertTrue(encoder.update(0.52f, 0.2f));
+        assertEquals("SENSOR_CONTROL:0.52,0.2", encoder.getCommand());
+    }
+
+    @Test
+    public void commandBytes_matchUtf8Command() {
+        encoder.update(-0.125f, 1e-5f);
+
+        assertArrayEquals(encoder.getCommand().getBytes(StandardCharsets.UTF_8), encoder.getCommandBytes());
+    }
+
+    @Test
+    public void zeroTolerance_sendsEveryChange() {
+        ActuatorCommandEncoder exact = new ActuatorCommandEncoder(0f);
+        assertTrue(exact.update(0.501f, 0.2f));
+        assertFalse(exact.update(0.501f, 0.2f));
+        assertTrue(exact.update(0.502f, 0.2f));
+    }
+
+    @Test
+    public void nan_isTreatedAsChange() {
+        assertTrue(encoder.update(0.5f, 0.5f));
+        assertTrue(encoder.update(Float.NaN, 0.5f));
+        assertFalse(encoder.update(Float.NaN, 0.5f));
+        assertTrue(encoder.update(0.5f, 0.5f));
+    }
+
+    @Test
+    public void reset_forcesNextCommand() {
+        encoder.update(1f, 1f);
+        encoder.reset();
+
+        assertNull(encoder.getCommand());
+        assertNull(encoder.getCommandBytes());
+        assertTrue(encoder.update(1f, 1f));
+        assertEquals("SENSOR_CONTROL:1.0,1.0", encoder.getCommand());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.test.ml;
+
+import com.example.test.sensor.SensorFrame;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class ModelTrainerTest {
+
+    private static final int HORIZON = 2;
+
+    private final FakeModel model = new FakeModel(4);
+    private final ModelTrainer trainer = new ModelTrainer(model, HORIZON);
+    private final File checkpoint = new File("model.ckpt");
+
+    @Test
+    public void train_runsFullBatchesPerEpochAndSaves() throws Exception {
+        // 4 + 4 + 3 샘플 -> 목표가 있는 9개 샘플 -> 배치 2개 (나머지 1개는 제외)
+        ModelTrainer.BatchSource source = chunks(4, 4, 3);
+        List<Float> losses = new ArrayList<>();
+
+        ModelTrainer.Result result = trainer.train(source, 3, checkpoint,
+                (epoch, epochs, loss, samplesPerSecond) -> losses.add(loss));
+
+        assertEquals(6, model.trainSteps);
+        assertEquals(3, losses.size());
+        assertEquals(0.5f, result.loss, 1e-6f);
+        assertSame(checkpoint, model.savedTo);
+    }
+
+    @Test
+    public void train_labelsEachSampleWithFutureTargetChannels() throws Exception {
+        // chunk 경계를 넘어 샘플 0~3을 입력, 샘플 2~5를 목표로 사용
+        trainer.train(chunks(3, 3), 1, checkpoint, null);
+
+        // 샘플 i의 채널 c 값은 i * 10 + c
+        assertEquals(0f, model.lastInputs[0], 1e-6f);
+        assertEquals(30 + SensorFrame.CHANNEL_COUNT - 1, model.lastInputs[model.lastInputs.length - 1], 1e-6f);
+        assertEquals(20 + SensorFrame.MIDDLE_PRESSURE, model.lastTargets[0], 1e-6f);
+        assertEquals(20 + SensorFrame.RING_PRESSURE, model.lastTargets[1], 1e-6f);
+        assertEquals(50 + SensorFrame.RING_PRESSURE, model.lastTargets[7], 1e-6f);
+    }
+
+    @Test
+    public void train_reportsPredictionRateAgainstFutureSamples() throws Exception {
+        // 현재 값을 그대로 출력하면 horizon 뒤의 목표와 맞지 않음
+        assertEquals(0f, trainer.train(chunks(4, 4), 1, checkpoint, null).predictionRate, 1e-6f);
+
+        model.outputOffset = HORIZON * 10;
+        assertEquals(1f, trainer.train(chunks(4, 4), 1, checkpoint, null).predictionRate, 1e-6f);
+    }
+
+    @Test
+    public void cancel_stopsTrainingWithoutSaving() throws Exception {
+        ModelTrainer.BatchSource source = chunks(4, 4, 4, 2);
+        try {
+            trainer.train(source, 5, checkpoint, (epoch, epochs, loss, samplesPerSecond) -> trainer.cancel());
+            fail();
+        } catch (CancellationException expected) {
+            // 첫 에폭 이후 중단
+        }
+        assertEquals(3, model.trainSteps);
+        assertNull(model.savedTo);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void train_rejectsDataSmallerThanOneBatch() throws Exception {
+        // 목표가 있는 샘플은 3개
+        trainer.train(chunks(5), 1, checkpoint, null);
+    }
+
+    // chunk마다 지정한 개수의 샘플을 전달하는 소스 (샘플 번호는 chunk를 넘어 이어짐)
+    private static ModelTrainer.BatchSource chunks(int... sizes) {
+        return consumer -> {
+            int total = 0;
+            for (int rows : sizes) {
+                ByteBuffer chunk = ByteBuffer.allocateDirect(rows * SensorFrame.CHANNEL_COUNT * 4).order(ByteOrder.nativeOrder());
+                for (int i = 0; i < rows; i++) {
+                    for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                        chunk.putFloat((total + i) * 10 + channel);
+                    }
+                }
+                chunk.flip();
+                consumer.onChunk(chunk, rows);
+                total += rows;
+            }
+            return total;
+        };
+    }
+
+    private static class FakeModel implements TrainableModel {
+        final int batchSize;
+        int trainSteps;
+        float[] lastInputs;
+        float[] lastTargets;
+        float outputOffset;
+        File savedTo;
+        final float[] output = new float[GesturePredictor.OUTPUT_SIZE];
+
+        FakeModel(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public float train(ByteBuffer x, ByteBuffer y) {
+            trainSteps++;
+            lastInputs = new float[x.remaining() / 4];
+            for (int i = 0; i < lastInputs.length; i++) {
+                lastInputs[i] = x.getFloat(i * 4);
+            }
+            lastTargets = new float[y.remaining() / 4];
+            for (int i = 0; i < lastTargets.length; i++) {
+                lastTargets[i] = y.getFloat(i * 4);
+            }
+            return 0.5f;
+        }
+
+        @Override
+        public float[] infer(ByteBuffer x) {
+            output[0] = x.getFloat(SensorFrame.MIDDLE_PRESSURE * 4) + outputOffset;
+            output[1] = x.getFloat(SensorFrame.RING_PRESSURE * 4) + outputOffset;
+            return output;
+        }
+
+        @Override
+        public void save(File checkpoint) {
+            savedTo = checkpoint;
+        }
+    }
+}
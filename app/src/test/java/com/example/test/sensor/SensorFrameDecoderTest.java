@@ -0,0 +1,88 @@
+package com.example.test.sensor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SensorFrameDecoderTest {
+
+    private final SensorFrameDecoder decoder = new SensorFrameDecoder();
+    private final SensorFrame frame = new SensorFrame();
+
+    @Test
+    public void decode_readsBigEndianChannelsInColumnOrder() {
+        byte[] data = packet(1, 2, 3, 4, 5, 6, 7, 8);
+
+        assertTrue(decoder.decode(data, frame));
+        assertEquals(1, frame.getMiddleFlexSensor());
+        assertEquals(2, frame.getMiddlePressureSensor());
+        assertEquals(3, frame.getRingFlexSensor());
+        assertEquals(4, frame.getRingPressureSensor());
+        assertEquals(5, frame.getPinkyFlexSensor());
+        assertEquals(6, frame.getAcceleration());
+        assertEquals(7, frame.getGyroscope());
+        assertEquals(8, frame.getMagneticField());
+        assertEquals(1, decoder.getDecodedCount());
+    }
+
+    @Test
+    public void decode_treatsFlexAndPressureAsUnsigned() {
+        byte[] data = packet(0xFFFF, 0x8000, 0, 0, 0, 0, 0, 0);
+
+        assertTrue(decoder.decode(data, frame));
+        assertEquals(65535, frame.getMiddleFlexSensor());
+        assertEquals(32768, frame.getMiddlePressureSensor());
+    }
+
+    @Test
+    public void decode_treatsImuChannelsAsSigned() {
+        byte[] data = packet(0, 0, 0, 0, 0, 0xFFFF, 0x8000, 0x7FFF);
+
+        assertTrue(decoder.decode(data, frame));
+        assertEquals(-1, frame.getAcceleration());
+        assertEquals(-32768, frame.getGyroscope());
+        assertEquals(32767, frame.getMagneticField());
+    }
+
+    @Test
+    public void decode_rejectsWrongLengthWithoutTouchingFrame() {
+        assertTrue(decoder.decode(packet(9, 9, 9, 9, 9, 9, 9, 9), frame));
+
+        assertFalse(decoder.decode(new byte[15], frame));
+        assertFalse(decoder.decode(new byte[17], frame));
+        assertFalse(decoder.decode(null, frame));
+        assertEquals(9, frame.getMiddleFlexSensor());
+        assertEquals(3, decoder.getInvalidCount());
+    }
+
+    @Test
+    public void decode_honoursOffset() {
+        byte[] packet = packet(10, 20, 30, 40, 50, 60, 70, 80);
+        byte[] data = new byte[packet.length + 4];
+        System.arraycopy(packet, 0, data, 4, packet.length);
+
+        assertTrue(decoder.decode(data, 4, SensorFrameDecoder.FRAME_LENGTH, frame));
+        assertEquals(10, frame.getMiddleFlexSensor());
+        assertEquals(80, frame.getMagneticField());
+        assertFalse(decoder.decode(data, 8, SensorFrameDecoder.FRAME_LENGTH, frame));
+    }
+
+    @Test
+    public void copyTo_writesChannelsAsFloats() {
+        decoder.decode(packet(1, 2, 3, 4, 5, 6, 7, 0xFFFF), frame);
+        float[] out = new float[SensorFrame.CHANNEL_COUNT + 1];
+
+        frame.copyTo(out, 1);
+        assertEquals(1f, out[1], 0f);
+        assertEquals(-1f, out[8], 0f);
+    }
+
+    static byte[] packet(int... values) {
+        byte[] data = new byte[values.length * 2];
+        for (int i = 0; i < values.length; i++) {
+            data[i * 2] = (byte) (values[i] >> 8);
+            data[i * 2 + 1] = (byte) values[i];
+        }
+        return data;
+    }
+}
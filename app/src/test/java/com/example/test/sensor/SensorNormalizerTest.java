@@ -0,0 +1,55 @@
+package com.example.test.sensor;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class SensorNormalizerTest {
+
+    @Test
+    public void rangeBuilder_mapsObservedRangeToUnitInterval() {
+        SensorNormalizer.RangeBuilder range = new SensorNormalizer.RangeBuilder();
+        range.add(new int[]{100, -50, 7, 0, 0, 0, 0, 0});
+        range.add(new int[]{300, 50, 7, 0, 0, 0, 0, 0});
+
+        SensorNormalizer normalizer = range.build();
+
+        assertEquals(2, range.getCount());
+        assertEquals(0f, normalizer.normalize(0, 100), 0f);
+        assertEquals(0.5f, normalizer.normalize(0, 200), 1e-6f);
+        assertEquals(1f, normalizer.normalize(1, 50), 1e-6f);
+        // 값이 하나뿐인 채널
+        assertEquals(0f, normalizer.normalize(2, 7), 0f);
+    }
+
+    @Test
+    public void emptyRange_isRaw() {
+        SensorNormalizer normalizer = new SensorNormalizer.RangeBuilder().build();
+
+        assertTrue(normalizer.isRaw());
+        assertEquals(4095f, normalizer.normalize(0, 4095), 0f);
+    }
+
+    @Test
+    public void writeTo_read_roundTrip() throws IOException {
+        SensorNormalizer normalizer = SensorNormalizer.fromRange(
+                new int[]{0, -10, 0, 0, 0, 0, 0, 0}, new int[]{4000, 10, 1, 1, 1, 1, 1, 1});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        normalizer.writeTo(out);
+
+        SensorNormalizer read = SensorNormalizer.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertFalse(read.isRaw());
+        assertEquals(normalizer.toString(), read.toString());
+        assertEquals(0.25f, read.normalize(0, 1000), 1e-6f);
+    }
+
+    @Test(expected = IOException.class)
+    public void read_rejectsOtherFiles() throws IOException {
+        SensorNormalizer.read(new ByteArrayInputStream(new byte[16]));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.test.sensor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SensorPacketDecoderTest {
+
+    private final SensorPacketDecoder decoder = new SensorPacketDecoder();
+    private final List<int[]> samples = new ArrayList<>();
+    private final List<Long> timestamps = new ArrayList<>();
+    private final SensorPacketDecoder.SampleListener listener = (frame, timestampMicros) -> {
+        int[] values = new int[SensorFrame.CHANNEL_COUNT];
+        for (int channel = 0; channel < values.length; channel++) {
+            values[channel] = frame.get(channel);
+        }
+        samples.add(values);
+        timestamps.add(timestampMicros);
+    };
+
+    @Test
+    public void legacyFrame_isDecodedWithArrivalTime() {
+        assertTrue(decoder.decode(SensorFrameDecoderTest.packet(1, 2, 3, 4, 5, -6, 7, 8), 5_000, listener));
+
+        assertEquals(1, samples.size());
+        assertEquals(-6, samples.get(0)[SensorFrame.ACCELERATION]);
+        assertEquals(5_000L, (long) timestamps.get(0));
+        assertEquals(1, decoder.getLegacyPacketCount());
+    }
+
+    @Test
+    public void packedPacket_spreadsDeviceTimeOverSamples() {
+        byte[] data = packed(7, 1_000_000, 2_000, 3);
+
+        assertTrue(decoder.decode(data, 50_000_000, listener));
+
+        assertEquals(3, samples.size());
+        assertEquals(2, samples.get(2)[SensorFrame.MIDDLE_FLEX]);
+        // 마지막 샘플이 수신 시각에 맞춰짐
+        assertEquals(49_996_000L, (long) timestamps.get(0));
+        assertEquals(49_998_000L, (long) timestamps.get(1));
+        assertEquals(50_000_000L, (long) timestamps.get(2));
+    }
+
+    @Test
+    public void packedPacket_keepsDeviceClockAcrossPackets() {
+        decoder.decode(packed(1, 1_000_000, 1_000, 2), 10_000_000, listener);
+        // 수신이 늦어져도 기기 시각 간격을 유지
+        decoder.decode(packed(2, 1_002_000, 1_000, 2), 10_300_000, listener);
+
+        assertEquals(10_001_000L, (long) timestamps.get(2));
+    }
+
+    @Test
+    public void duplicatePacket_isDropped() {
+        decoder.decode(packed(5, 0, 1_000, 2), 1_000_000, listener);
+        assertTrue(decoder.decode(packed(5, 0, 1_000, 2), 1_001_000, listener));
+
+        assertEquals(2, samples.size());
+        assertEquals(1, decoder.getSequenceTracker().getDuplicateCount());
+    }
+
+    @Test
+    public void gap_isCountedAsLoss() {
+        decoder.decode(packed(1, 0, 1_000, 1), 1_000_000, listener);
+        decoder.decode(packed(4, 3_000, 1_000, 1), 1_003_000, listener);
+
+        assertEquals(2, decoder.getSequenceTracker().getLostCount());
+    }
+
+    @Test
+    public void malformedPacket_isRejected() {
+        byte[] data = packed(1, 0, 1_000, 2);
+        data[1] = 3;
+
+        assertFalse(decoder.decode(data, 0, listener));
+        assertFalse(decoder.decode(new byte[]{2, 1}, 0, listener));
+        assertEquals(2, decoder.getInvalidPacketCount());
+        assertTrue(samples.isEmpty());
+    }
+
+    // 샘플 i의 모든 채널 값은 i
+    static byte[] packed(int sequence, long firstMicros, int intervalMicros, int count) {
+        byte[] data = new byte[SensorPacketDecoder.HEADER_LENGTH + count * SensorFrameDecoder.FRAME_LENGTH];
+        data[0] = SensorPacketDecoder.VERSION;
+        data[1] = (byte) count;
+        data[2] = (byte) (sequence >> 8);
+        data[3] = (byte) sequence;
+        data[4] = (byte) (firstMicros >> 24);
+        data[5] = (byte) (firstMicros >> 16);
+        data[6] = (byte) (firstMicros >> 8);
+        data[7] = (byte) firstMicros;
+        data[8] = (byte) (intervalMicros >> 8);
+        data[9] = (byte) intervalMicros;
+        for (int i = 0; i < count; i++) {
+            int[] values = new int[SensorFrame.CHANNEL_COUNT];
+            Arrays.fill(values, i);
+            System.arraycopy(SensorFrameDecoderTest.packet(values), 0, data,
+                    SensorPacketDecoder.HEADER_LENGTH + i * SensorFrameDecoder.FRAME_LENGTH, SensorFrameDecoder.FRAME_LENGTH);
+        }
+        return data;
+    }
+}
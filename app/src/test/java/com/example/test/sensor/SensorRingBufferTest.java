@@ -0,0 +1,87 @@
+package com.example.test.sensor;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class SensorRingBufferTest {
+
+    private final SensorFrameDecoder decoder = new SensorFrameDecoder();
+    private final SensorFrame frame = new SensorFrame();
+
+    @Test
+    public void capacity_isRoundedUpToPowerOfTwo() {
+        assertEquals(8, new SensorRingBuffer(5).getCapacity());
+        assertEquals(8, new SensorRingBuffer(8).getCapacity());
+    }
+
+    @Test
+    public void readLatest_returnsSamplesInTimeOrder() {
+        SensorRingBuffer buffer = new SensorRingBuffer(4);
+        for (int i = 1; i <= 3; i++) {
+            write(buffer, i);
+        }
+
+        float[] out = new float[2 * SensorFrame.CHANNEL_COUNT];
+        assertTrue(buffer.readLatest(2, out, 0));
+        assertEquals(2f, out[0], 0f);
+        assertEquals(3f, out[SensorFrame.CHANNEL_COUNT], 0f);
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    public void write_overwritesOldestWhenFull() {
+        SensorRingBuffer buffer = new SensorRingBuffer(4);
+        for (int i = 1; i <= 6; i++) {
+            write(buffer, i);
+        }
+
+        assertEquals(4, buffer.size());
+        assertEquals(6, buffer.getWrittenCount());
+        assertEquals(Integer.MIN_VALUE, buffer.get(1, SensorFrame.MIDDLE_FLEX));
+        assertEquals(3, buffer.get(2, SensorFrame.MIDDLE_FLEX));
+        assertEquals(6, buffer.get(5, SensorFrame.MIDDLE_FLEX));
+        assertEquals(105L, buffer.getTimestamp(5));
+    }
+
+    @Test
+    public void read_rejectsMissingOrOverwrittenRange() {
+        SensorRingBuffer buffer = new SensorRingBuffer(4);
+        write(buffer, 1);
+
+        float[] out = new float[4 * SensorFrame.CHANNEL_COUNT];
+        assertFalse(buffer.readLatest(2, out, 0));
+        for (int i = 2; i <= 8; i++) {
+            write(buffer, i);
+        }
+        assertFalse(buffer.read(0, 4, out, 0));
+        assertFalse(buffer.readLatest(5, out, 0));
+        assertTrue(buffer.read(4, 4, out, 0));
+        assertEquals(5f, out[0], 0f);
+    }
+
+    @Test
+    public void readLatest_fillsDirectBufferAsFloats() {
+        SensorRingBuffer buffer = new SensorRingBuffer(4);
+        write(buffer, 7);
+        write(buffer, 8);
+
+        ByteBuffer window = SensorRingBuffer.allocateWindow(2);
+        assertTrue(window.isDirect());
+        assertTrue(buffer.readLatest(2, window));
+        assertEquals(window.capacity(), window.position());
+
+        window.rewind();
+        assertEquals(7f, window.getFloat(), 0f);
+        assertEquals(-7f, window.getFloat(SensorFrame.ACCELERATION * 4), 0f);
+        assertEquals(8f, window.getFloat(SensorFrame.CHANNEL_COUNT * 4), 0f);
+    }
+
+    private void write(SensorRingBuffer buffer, int value) {
+        byte[] packet = SensorFrameDecoderTest.packet(value, 0, 0, 0, 0, -value & 0xFFFF, 0, 0);
+        decoder.decode(packet, frame);
+        buffer.write(frame, 100 + buffer.getWrittenCount());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.test.sensor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SequenceTrackerTest {
+
+    private final SequenceTracker tracker = new SequenceTracker();
+
+    @Test
+    public void record_countsGapsAsLost() {
+        assertEquals(SequenceTracker.Result.IN_ORDER, tracker.record(10));
+        assertEquals(SequenceTracker.Result.IN_ORDER, tracker.record(11));
+        assertEquals(SequenceTracker.Result.GAP, tracker.record(14));
+
+        assertEquals(3, tracker.getReceivedCount());
+        assertEquals(2, tracker.getLostCount());
+        assertEquals(0.4, tracker.getLossRate(), 1e-9);
+    }
+
+    @Test
+    public void record_detectsDuplicatesAndLateArrivals() {
+        tracker.record(1);
+        tracker.record(3);
+
+        assertEquals(SequenceTracker.Result.DUPLICATE, tracker.record(3));
+        assertEquals(SequenceTracker.Result.REORDERED, tracker.record(2));
+        assertEquals(SequenceTracker.Result.DUPLICATE, tracker.record(2));
+
+        assertEquals(0, tracker.getLostCount());
+        assertEquals(2, tracker.getDuplicateCount());
+        assertEquals(1, tracker.getReorderedCount());
+    }
+
+    @Test
+    public void record_handlesWrapAround() {
+        tracker.record(65534);
+        assertEquals(SequenceTracker.Result.IN_ORDER, tracker.record(65535));
+        assertEquals(SequenceTracker.Result.IN_ORDER, tracker.record(0));
+        assertEquals(SequenceTracker.Result.GAP, tracker.record(2));
+
+        assertEquals(1, tracker.getLostCount());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.test.sensor;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class SlidingWindowTest {
+
+    // 첫 채널 0~4095 -> 0~1
+    private static final SensorNormalizer NORMALIZER = SensorNormalizer.fromRange(
+            new int[SensorFrame.CHANNEL_COUNT], new int[]{4095, 1, 1, 1, 1, 1, 1, 1});
+
+    private final SensorFrameDecoder decoder = new SensorFrameDecoder();
+    private final SensorFrame frame = new SensorFrame();
+    private final SensorRingBuffer ring = new SensorRingBuffer(16);
+
+    @Test
+    public void next_waitsForFullWindow() {
+        SlidingWindow window = new SlidingWindow(ring, 4, 2, NORMALIZER);
+        ByteBuffer out = SensorRingBuffer.allocateWindow(4);
+
+        for (int i = 0; i < 3; i++) {
+            write(i);
+            assertFalse(window.next(out));
+        }
+        write(3);
+        assertTrue(window.next(out));
+        assertEquals(out.capacity(), out.position());
+    }
+
+    @Test
+    public void next_emitsOncePerHop() {
+        SlidingWindow window = new SlidingWindow(ring, 4, 3, NORMALIZER);
+        ByteBuffer out = SensorRingBuffer.allocateWindow(4);
+        int emitted = 0;
+
+        for (int i = 0; i < 13; i++) {
+            write(i);
+            out.clear();
+            if (window.next(out)) {
+                emitted++;
+            }
+        }
+        // 4번째 샘플에서 첫 윈도우, 이후 3개마다 (7, 10, 13번째)
+        assertEquals(4, emitted);
+    }
+
+    @Test
+    public void next_writesNormalizedWindowInTimeOrder() {
+        SlidingWindow window = new SlidingWindow(ring, 2, 1, NORMALIZER);
+        ByteBuffer out = SensorRingBuffer.allocateWindow(2);
+
+        write(4095);
+        write(0);
+        assertTrue(window.next(out));
+
+        out.rewind();
+        assertEquals(1f, out.getFloat(0), 1e-6f);
+        assertEquals(0f, out.getFloat(SensorFrame.CHANNEL_COUNT * 4), 1e-6f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsWindowLargerThanRing() {
+        new SlidingWindow(ring, 17, 1, NORMALIZER);
+    }
+
+    private void write(int value) {
+        decoder.decode(SensorFrameDecoderTest.packet(value, 0, 0, 0, 0, 0, 0, 0), frame);
+        ring.write(frame, 0);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.test.storage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SensingPipelineTest {
+
+    @Test
+    public void close_writesAllQueuedSamples() {
+        FakeSink sink = new FakeSink(4);
+        RecordingListener listener = new RecordingListener();
+        SensingPipeline pipeline = new SensingPipeline(sink, new SensingCounter(), listener);
+        pipeline.start();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pipeline.offer(sample(i)));
+        }
+        pipeline.close();
+
+        assertEquals(10, sink.stored.size());
+        assertEquals(10, pipeline.getWrittenCount());
+        assertEquals(10, pipeline.getEnqueuedCount());
+        assertEquals(0, pipeline.getDroppedCount());
+        assertTrue(sink.closed);
+        assertEquals(10, listener.flushedTotal);
+    }
+
+    @Test
+    public void fullQueue_dropsWithoutBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        FakeSink sink = new FakeSink(100);
+        SensingPipeline pipeline = new SensingPipeline(sink, new SensingCounter(), new RecordingListener(), 2);
+        pipeline.start();
+
+        // 작성 스레드를 멈춰 대기열이 비워지지 않게 함
+        pipeline.submit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        assertTrue(pipeline.offer(sample(0)));
+        assertTrue(pipeline.offer(sample(1)));
+        assertFalse(pipeline.offer(sample(2)));
+        assertEquals(1, pipeline.getDroppedCount());
+        assertEquals(2, pipeline.getQueueDepth());
+
+        release.countDown();
+        pipeline.close();
+        assertEquals(2, sink.stored.size());
+    }
+
+    @Test
+    public void reset_discardsBufferedSamplesBeforeTask() {
+        FakeSink sink = new FakeSink(100);
+        SensingPipeline pipeline = new SensingPipeline(sink, new SensingCounter(), new RecordingListener());
+        List<Integer> bufferedAtReset = new ArrayList<>();
+        pipeline.start();
+
+        pipeline.offer(sample(0));
+        pipeline.offer(sample(1));
+        pipeline.reset(() -> bufferedAtReset.add(sink.buffered.size()));
+        pipeline.offer(sample(2));
+        pipeline.close();
+
+        assertEquals(1, bufferedAtReset.size());
+        assertEquals(0, (int) bufferedAtReset.get(0));
+        assertEquals(1, sink.stored.size());
+        assertEquals(2, sink.stored.get(0).getMiddleFlexSensor());
+    }
+
+    @Test
+    public void counter_tracksWrittenSamplesPerDevice() {
+        SensingCounter counter = new SensingCounter();
+        counter.seed("AA:BB", 100);
+        SensingPipeline pipeline = new SensingPipeline(new FakeSink(10), counter, new RecordingListener());
+        pipeline.start();
+
+        pipeline.offer(sample(0));
+        pipeline.offer(sample(1));
+        pipeline.offer(new SensingSample("CC:DD", "여", 0, 0, 0, 0, 0, 0, 0, 0, "2024-01-01 00:00:00"));
+        pipeline.close();
+
+        assertEquals(102, counter.get("AA:BB"));
+        assertEquals(1, counter.get("CC:DD"));
+    }
+
+    @Test
+    public void counter_excludesSamplesUntilFlushSucceeds() throws InterruptedException {
+        SensingCounter counter = new SensingCounter();
+        counter.seed("AA:BB", 100);
+        FakeSink sink = new FakeSink(2);
+        sink.failingFlushes = 1;
+        SensingPipeline pipeline = new SensingPipeline(sink, counter, new RecordingListener());
+        pipeline.start();
+
+        pipeline.offer(sample(0));
+        pipeline.offer(sample(1));
+        // 첫 저장이 실패한 뒤 작성 스레드에서 개수 확인
+        int[] countAfterFailure = new int[1];
+        CountDownLatch checked = new CountDownLatch(1);
+        pipeline.submit(() -> {
+            countAfterFailure[0] = counter.get("AA:BB");
+            checked.countDown();
+        });
+        assertTrue(checked.await(1, TimeUnit.SECONDS));
+        assertEquals(100, countAfterFailure[0]);
+        assertEquals(1, pipeline.getErrorCount());
+
+        pipeline.close();
+        assertEquals(102, counter.get("AA:BB"));
+    }
+
+    @Test
+    public void reset_clearsCounter() {
+        SensingCounter counter = new SensingCounter();
+        counter.seed("AA:BB", 100);
+        SensingPipeline pipeline = new SensingPipeline(new FakeSink(10), counter, new RecordingListener());
+        pipeline.start();
+
+        pipeline.offer(sample(0));
+        pipeline.reset(() -> { });
+        pipeline.offer(sample(1));
+        pipeline.close();
+
+        assertEquals(1, counter.get("AA:BB"));
+    }
+
+    @Test
+    public void sinkError_isReportedAndWriterKeepsRunning() {
+        FakeSink sink = new FakeSink(1);
+        RecordingListener listener = new RecordingListener();
+        SensingPipeline pipeline = new SensingPipeline(sink, new SensingCounter(), listener);
+        pipeline.start();
+
+        pipeline.submit(() -> {
+            throw new IllegalStateException("disk full");
+        });
+        pipeline.offer(sample(0));
+        pipeline.close();
+
+        assertEquals(1, pipeline.getErrorCount());
+        assertEquals(1, listener.errors.size());
+        assertEquals(1, sink.stored.size());
+    }
+
+    private static SensingSample sample(int value) {
+        return new SensingSample("AA:BB", "남", value, 0, 0, 0, 0, 0, 0, 0, "2024-01-01 00:00:00");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class FakeSink implements SensingSink {
+        final int batchSize;
+        final List<SensingSample> buffered = new ArrayList<>();
+        final List<SensingSample> stored = new ArrayList<>();
+        boolean closed;
+        // 남은 횟수만큼 flush 실패 (버퍼는 유지)
+        int failingFlushes;
+
+        FakeSink(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void write(SensingSample sample) {
+            buffered.add(sample);
+        }
+
+        @Override
+        public int flush() {
+            if (failingFlushes > 0) {
+                failingFlushes--;
+                throw new IllegalStateException("disk full");
+            }
+            int flushed = buffered.size();
+            stored.addAll(buffered);
+            buffered.clear();
+            return flushed;
+        }
+
+        @Override
+        public boolean isFlushDue() {
+            return buffered.size() >= batchSize;
+        }
+
+        @Override
+        public void clear() {
+            buffered.clear();
+        }
+
+        @Override
+        public void close() {
+            flush();
+            closed = true;
+        }
+    }
+
+    static class RecordingListener implements SensingPipeline.Listener {
+        int flushedTotal;
+        final List<RuntimeException> errors = new ArrayList<>();
+
+        @Override
+        public void onFlushed(int flushedCount) {
+            flushedTotal += flushedCount;
+        }
+
+        @Override
+        public void onError(RuntimeException e) {
+            errors.add(e);
+        }
+    }
+}
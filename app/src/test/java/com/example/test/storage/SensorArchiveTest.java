@@ -0,0 +1,158 @@
+package com.example.test.storage;
+
+import com.example.test.sensor.SensorFrame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SensorArchiveTest {
+
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    @Test
+    public void roundTrip_acrossBlocks() throws IOException {
+        int sampleCount = SensorArchiveFormat.BLOCK_SIZE * 2 + 17;
+        byte[] archive = write(sampleCount);
+
+        try (SensorArchiveReader reader = new SensorArchiveReader(new ByteArrayInputStream(archive))) {
+            int[] values = new int[SensorFrame.CHANNEL_COUNT];
+            for (int i = 0; i < sampleCount; i++) {
+                assertTrue(reader.next(values));
+                assertArrayEquals(sample(i), values);
+                assertEquals(START_MILLIS + i * 10L, reader.getTimestampMillis());
+            }
+            assertFalse(reader.next(values));
+        }
+    }
+
+    @Test
+    public void finish_writesEverythingBeforeClose() throws IOException {
+        boolean[] closed = new boolean[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        SensorArchiveWriter writer = new SensorArchiveWriter(out);
+        writer.append(sample(0), START_MILLIS);
+        writer.finish();
+        byte[] finished = out.toByteArray();
+
+        // finish 뒤 close는 스트림만 닫고 더 쓰지 않음
+        assertFalse(closed[0]);
+        writer.close();
+        assertTrue(closed[0]);
+        assertArrayEquals(finished, out.toByteArray());
+        try (SensorArchiveReader reader = new SensorArchiveReader(new ByteArrayInputStream(finished))) {
+            assertTrue(reader.next(new int[SensorFrame.CHANNEL_COUNT]));
+        }
+    }
+
+    @Test
+    public void compressesSlowlyChangingSamples() throws IOException {
+        int sampleCount = 6000;
+        byte[] archive = write(sampleCount);
+
+        // 샘플당 timestamp + 8채널 int(36바이트)보다 훨씬 작아야 함
+        assertTrue(archive.length < sampleCount * 12);
+    }
+
+    @Test
+    public void extremeValues_roundTrip() throws IOException {
+        int[][] samples = {
+                {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 1, 4095, -32768, 32767},
+                {Integer.MAX_VALUE, Integer.MIN_VALUE, -1, 0, 0, 0, 32767, -32768},
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SensorArchiveWriter writer = new SensorArchiveWriter(out)) {
+            writer.append(samples[0], Long.MAX_VALUE);
+            writer.append(samples[1], Long.MIN_VALUE);
+        }
+
+        try (SensorArchiveReader reader = new SensorArchiveReader(new ByteArrayInputStream(out.toByteArray()))) {
+            int[] values = new int[SensorFrame.CHANNEL_COUNT];
+            assertTrue(reader.next(values));
+            assertArrayEquals(samples[0], values);
+            assertEquals(Long.MAX_VALUE, reader.getTimestampMillis());
+            assertTrue(reader.next(values));
+            assertArrayEquals(samples[1], values);
+            assertEquals(Long.MIN_VALUE, reader.getTimestampMillis());
+            assertFalse(reader.next(values));
+        }
+    }
+
+    @Test
+    public void emptyArchive_hasNoSamples() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SensorArchiveWriter(out).close();
+
+        try (SensorArchiveReader reader = new SensorArchiveReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertFalse(reader.next(new int[SensorFrame.CHANNEL_COUNT]));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void badMagic_rejected() throws IOException {
+        new SensorArchiveReader(new ByteArrayInputStream(new byte[]{'E', 'X', 'S', 'B', 1}));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedBlock_rejected() throws IOException {
+        byte[] archive = write(100);
+        byte[] truncated = Arrays.copyOf(archive, archive.length - 3);
+
+        try (SensorArchiveReader reader = new SensorArchiveReader(new ByteArrayInputStream(truncated))) {
+            int[] values = new int[SensorFrame.CHANNEL_COUNT];
+            while (reader.next(values)) {
+                // 끝까지 읽기
+            }
+        }
+    }
+
+    @Test
+    public void zigzag_mapsSmallMagnitudesToSmallValues() {
+        assertEquals(0, SensorArchiveFormat.zigzagEncode(0));
+        assertEquals(1, SensorArchiveFormat.zigzagEncode(-1));
+        assertEquals(2, SensorArchiveFormat.zigzagEncode(1));
+        for (long value : new long[]{Long.MIN_VALUE, Long.MAX_VALUE, -300, 300}) {
+            assertEquals(value, SensorArchiveFormat.zigzagDecode(SensorArchiveFormat.zigzagEncode(value)));
+        }
+    }
+
+    @Test
+    public void parseMillis_invertsFormat() throws ParseException {
+        SensingTimestampFormatter formatter = new SensingTimestampFormatter();
+        for (long millis : new long[]{START_MILLIS, START_MILLIS + 7, START_MILLIS + 999, START_MILLIS + 1001}) {
+            assertEquals(millis, formatter.parseMillis(formatter.format(millis * 1000)));
+        }
+        // 밀리초가 없는 예전 값
+        String legacy = formatter.format(START_MILLIS * 1000).substring(0, 19);
+        assertEquals(START_MILLIS, formatter.parseMillis(legacy));
+    }
+
+    private static byte[] write(int sampleCount) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SensorArchiveWriter writer = new SensorArchiveWriter(out)) {
+            for (int i = 0; i < sampleCount; i++) {
+                writer.append(sample(i), START_MILLIS + i * 10L);
+            }
+            assertEquals(sampleCount, writer.getSampleCount());
+        }
+        return out.toByteArray();
+    }
+
+    // 천천히 변하는 센서 값 (IMU 채널은 음수 포함)
+    private static int[] sample(int i) {
+        return new int[]{
+                2000 + (i % 50), 1500 - (i % 30), 2100 + (i % 40), 1400, 1900 + (i % 20),
+                -200 + (i % 70), 50 - (i % 90), -900 + (i % 15)};
+    }
+}
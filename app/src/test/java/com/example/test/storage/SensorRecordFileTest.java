@@ -0,0 +1,126 @@
+package com.example.test.storage;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SensorRecordFileTest {
+
+    private static final long START_MILLIS = 1_700_000_000_000L;
+    private static final SensorNormalizer NORMALIZER = SensorNormalizer.fromRange(
+            new int[SensorFrame.CHANNEL_COUNT], new int[]{4095, 4095, 4095, 4095, 4095, 4095, 4095, 4095});
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void randomAccess_readsWrittenSamples() throws IOException {
+        File path = write(1000);
+
+        try (SensorRecordFile records = SensorRecordFile.open(path)) {
+            assertEquals(1000, records.getSampleCount());
+            int[] values = new int[SensorFrame.CHANNEL_COUNT];
+            for (int i : new int[]{0, 1, 511, 999}) {
+                records.read(i, values);
+                assertArrayEquals(sample(i), values);
+                assertEquals(sample(i)[SensorFrame.GYROSCOPE], records.get(i, SensorFrame.GYROSCOPE));
+                assertEquals(START_MILLIS + i * 10L, records.getTimestampMillis(i));
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void read_outOfRange_throws() throws IOException {
+        try (SensorRecordFile records = SensorRecordFile.open(write(3))) {
+            records.getTimestampMillis(3);
+        }
+    }
+
+    @Test
+    public void indexOf_findsTimeRange() throws IOException {
+        try (SensorRecordFile records = SensorRecordFile.open(write(100))) {
+            assertEquals(0, records.indexOf(START_MILLIS - 1));
+            assertEquals(0, records.indexOf(START_MILLIS));
+            assertEquals(5, records.indexOf(START_MILLIS + 41));
+            assertEquals(5, records.indexOf(START_MILLIS + 50));
+            assertEquals(100, records.indexOf(START_MILLIS + 10_000));
+        }
+    }
+
+    @Test
+    public void forEachChunk_normalizesRangeInChunks() throws IOException {
+        int chunkSize = 16;
+        ByteBuffer chunk = ByteBuffer.allocateDirect(chunkSize * SensorFrame.CHANNEL_COUNT * 4).order(ByteOrder.nativeOrder());
+        List<Integer> sizes = new ArrayList<>();
+        List<Float> firstValues = new ArrayList<>();
+
+        try (SensorRecordFile records = SensorRecordFile.open(write(100))) {
+            int total = records.forEachChunk(10, 50, chunk, NORMALIZER, (buffer, rows) -> {
+                sizes.add(rows);
+                firstValues.add(buffer.getFloat(0));
+            });
+            assertEquals(40, total);
+        }
+
+        assertEquals(Arrays.asList(16, 16, 8), sizes);
+        for (int i = 0; i < sizes.size(); i++) {
+            int index = 10 + i * chunkSize;
+            assertEquals(NORMALIZER.normalize(0, sample(index)[0]), firstValues.get(i), 0f);
+        }
+    }
+
+    @Test
+    public void emptyFile_hasNoSamples() throws IOException {
+        try (SensorRecordFile records = SensorRecordFile.open(write(0))) {
+            assertEquals(0, records.getSampleCount());
+            assertEquals(0, records.indexOf(START_MILLIS));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedRecord_rejected() throws IOException {
+        File path = write(10);
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        SensorRecordFile.open(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void badMagic_rejected() throws IOException {
+        File path = write(1);
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.write('X');
+        }
+        SensorRecordFile.open(path);
+    }
+
+    private File write(int sampleCount) throws IOException {
+        File path = folder.newFile();
+        try (SensorRecordFileWriter writer = new SensorRecordFileWriter(path)) {
+            for (int i = 0; i < sampleCount; i++) {
+                writer.append(sample(i), START_MILLIS + i * 10L);
+            }
+        }
+        assertEquals(SensorRecordFile.HEADER_LENGTH + (long) sampleCount * SensorRecordFile.RECORD_LENGTH, path.length());
+        return path;
+    }
+
+    private static int[] sample(int i) {
+        return new int[]{i, 4095 - i, i * 2, 7, -i, 32767 - i, -32768 + i, i % 3};
+    }
+}
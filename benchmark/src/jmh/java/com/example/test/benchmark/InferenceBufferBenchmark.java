@@ -0,0 +1,119 @@
+package com.example.test.benchmark;
+
+import com.example.test.ml.ActuatorCommandEncoder;
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorFrameDecoder;
+import com.example.test.sensor.SensorNormalizer;
+import com.example.test.sensor.SensorRingBuffer;
+import com.example.test.sensor.SensorSampleStore;
+import com.example.test.sensor.SlidingWindow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 실시간 추론 경로에서 모델 실행(TFLite)을 뺀 나머지 비용 측정 (패킷 하나 기준)
+// 모델 출력은 입력 버퍼 값으로 대신합니다.
+// legacyPerPacket: 기존 ActualActivity.processSensorData 방식 (패킷마다 버퍼/출력 배열/명령 문자열 생성)
+// windowed: 디코드 -> 링 버퍼 -> 슬라이딩 윈도우(hop = Window.length / 4) -> 명령 인코더 (현재 방식)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InferenceBufferBenchmark {
+
+    private static final int PACKET_COUNT = 1024;
+    // InferenceSettings.DEFAULT_WINDOW_HOP_DIVISOR (기본 설정)
+    private static final int WINDOW_HOP_DIVISOR = 4;
+    // 무작위 패킷이 가질 수 있는 전체 범위 (채널별 부호 여부에 따라 int16/uint16)
+    private static final SensorNormalizer NORMALIZER = fullRange();
+
+    // 윈도우 모델 입력 길이 (windowed에서만 사용)
+    @State(Scope.Thread)
+    public static class Window {
+        @Param({"32", "128"})
+        public int length;
+
+        final SensorFrameDecoder decoder = new SensorFrameDecoder();
+        final SensorFrame frame = new SensorFrame();
+        final ActuatorCommandEncoder encoder = new ActuatorCommandEncoder();
+        SensorRingBuffer ring;
+        SlidingWindow slidingWindow;
+        ByteBuffer input;
+        long timestamp;
+
+        @Setup
+        public void setUp() {
+            ring = new SensorRingBuffer(SensorSampleStore.DEFAULT_CAPACITY);
+            slidingWindow = new SlidingWindow(ring, length, Math.max(1, length / WINDOW_HOP_DIVISOR), NORMALIZER);
+            input = SensorRingBuffer.allocateWindow(length);
+        }
+    }
+
+    private static SensorNormalizer fullRange() {
+        int[] min = new int[SensorFrame.CHANNEL_COUNT];
+        int[] max = new int[SensorFrame.CHANNEL_COUNT];
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            boolean signed = SensorFrameDecoder.isSigned(channel);
+            min[channel] = signed ? Short.MIN_VALUE : 0;
+            max[channel] = signed ? Short.MAX_VALUE : 0xFFFF;
+        }
+        return SensorNormalizer.fromRange(min, max);
+    }
+
+    private byte[][] packets;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        packets = new byte[PACKET_COUNT][SensorFrameDecoder.FRAME_LENGTH];
+        for (byte[] packet : packets) {
+            random.nextBytes(packet);
+        }
+    }
+
+    @Benchmark
+    public String legacyPerPacket() {
+        byte[] data = nextPacket();
+        ByteBuffer inputBuffer = ByteBuffer.allocateDirect(data.length * 4).order(ByteOrder.nativeOrder());
+        for (byte b : data) {
+            inputBuffer.putFloat(b);
+        }
+        float[][] output = new float[1][2];
+        output[0][0] = inputBuffer.getFloat(0);
+        output[0][1] = inputBuffer.getFloat(4);
+        return "SENSOR_CONTROL:" + output[0][0] + "," + output[0][1];
+    }
+
+    @Benchmark
+    public String windowed(Window window) {
+        if (!window.decoder.decode(nextPacket(), window.frame)) {
+            return null;
+        }
+        window.ring.write(window.frame, window.timestamp += 5);
+        window.input.clear();
+        if (!window.slidingWindow.next(window.input)) {
+            return null;
+        }
+        // 마지막 샘플의 두 채널을 모델 출력으로 사용
+        int last = (window.length - 1) * SensorFrame.CHANNEL_COUNT * 4;
+        window.encoder.update(window.input.getFloat(last), window.input.getFloat(last + 4));
+        return window.encoder.getCommand();
+    }
+
+    private byte[] nextPacket() {
+        byte[] packet = packets[index];
+        index = (index + 1) & (PACKET_COUNT - 1);
+        return packet;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.test.benchmark;
+
+import com.example.test.ble.FrameCapture;
+import com.example.test.ble.FrameCaptureWriter;
+import com.example.test.ble.GattTransport;
+import com.example.test.ble.ReplayGattTransport;
+import com.example.test.ble.SensorStreamer;
+import com.example.test.ml.ActuatorCommandEncoder;
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorFrameDecoder;
+import com.example.test.sensor.SensorNormalizer;
+import com.example.test.sensor.SensorPacketDecoder;
+import com.example.test.sensor.SensorRingBuffer;
+import com.example.test.sensor.SensorSampleStore;
+import com.example.test.sensor.SlidingWindow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 기록한 패킷을 ReplayGattTransport로 재생하는 전체 경로 비용 측정 (패킷 하나 기준)
+// 재생 -> SensorStreamer -> 패킷 디코더 -> 링 버퍼 -> 슬라이딩 윈도우 -> 명령 인코더 -> 명령 쓰기
+// 모델 실행(TFLite)은 빼고 윈도우 마지막 샘플의 두 채널을 모델 출력으로 사용합니다.
+// 한 번 실행할 때 기록 전체를 재생하며, 재생용 transport/streamer 생성 비용도 포함됩니다.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReplayPipelineBenchmark {
+
+    private static final int PACKET_COUNT = 256;
+    private static final int SAMPLE_INTERVAL_MICROS = 5000;
+    private static final int WINDOW_LENGTH = 32;
+    // InferenceSettings.DEFAULT_WINDOW_HOP_DIVISOR (기본 설정)
+    private static final int WINDOW_HOP_DIVISOR = 4;
+
+    // 1이면 기존 16바이트 패킷, 14는 MTU 247에서 보낼 수 있는 최대 묶음
+    @Param({"1", "14"})
+    public int samplesPerPacket;
+
+    private final ImmediateScheduler scheduler = new ImmediateScheduler();
+    private final SensorPacketDecoder decoder = new SensorPacketDecoder();
+    private final ActuatorCommandEncoder encoder = new ActuatorCommandEncoder();
+    private final ByteBuffer input = SensorRingBuffer.allocateWindow(WINDOW_LENGTH);
+    private final SensorPacketDecoder.SampleListener sampleListener = this::onSample;
+    private final ReplayGattTransport.Listener replayListener = new ReplayGattTransport.Listener() {
+        @Override
+        public void onWrite(byte[] value, boolean withResponse) {
+            writtenBytes += value.length;
+        }
+
+        @Override
+        public void onReplayFinished() {
+        }
+    };
+    private FrameCapture capture;
+    private SensorRingBuffer ring;
+    private SlidingWindow window;
+    private GattTransport transport;
+    private long arrivalMicros;
+    private long writtenBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FrameCaptureWriter writer = new FrameCaptureWriter(out)) {
+            for (int i = 0; i < PACKET_COUNT; i++) {
+                byte[] packet = samplesPerPacket == 1 ? legacyPacket(random) : packedPacket(random, i);
+                writer.write(packet, (i + 1L) * samplesPerPacket * SAMPLE_INTERVAL_MICROS);
+            }
+        }
+        capture = FrameCapture.read(new ByteArrayInputStream(out.toByteArray()));
+        ring = new SensorRingBuffer(SensorSampleStore.DEFAULT_CAPACITY);
+        window = new SlidingWindow(ring, WINDOW_LENGTH, WINDOW_LENGTH / WINDOW_HOP_DIVISOR, fullRange());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKET_COUNT)
+    public long replay() {
+        // 재생마다 순번이 0부터 다시 시작하므로 디코더 상태를 초기화
+        decoder.reset();
+        ReplayGattTransport replay = new ReplayGattTransport(capture, scheduler, ReplayGattTransport.UNTHROTTLED, replayListener);
+        SensorStreamer streamer = new SensorStreamer(replay, scheduler, this::onFrame);
+        replay.setCallback(new StreamerCallback(streamer));
+        transport = replay;
+        streamer.start();
+        scheduler.runAll();
+        return writtenBytes;
+    }
+
+    private void onFrame(byte[] value) {
+        arrivalMicros += (long) samplesPerPacket * SAMPLE_INTERVAL_MICROS;
+        decoder.decode(value, arrivalMicros, sampleListener);
+    }
+
+    // ActualActivity.processSensorSample와 같은 순서
+    private void onSample(SensorFrame frame, long timestampMicros) {
+        ring.write(frame, timestampMicros / 1000);
+        input.clear();
+        if (!window.next(input)) {
+            return;
+        }
+        int last = (WINDOW_LENGTH - 1) * SensorFrame.CHANNEL_COUNT * 4;
+        if (encoder.update(input.getFloat(last), input.getFloat(last + 4))) {
+            transport.requestWrite(encoder.getCommandBytes(), true);
+        }
+    }
+
+    private static SensorNormalizer fullRange() {
+        int[] min = new int[SensorFrame.CHANNEL_COUNT];
+        int[] max = new int[SensorFrame.CHANNEL_COUNT];
+        for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+            boolean signed = SensorFrameDecoder.isSigned(channel);
+            min[channel] = signed ? Short.MIN_VALUE : 0;
+            max[channel] = signed ? Short.MAX_VALUE : 0xFFFF;
+        }
+        return SensorNormalizer.fromRange(min, max);
+    }
+
+    private static byte[] legacyPacket(Random random) {
+        byte[] packet = new byte[SensorFrameDecoder.FRAME_LENGTH];
+        random.nextBytes(packet);
+        return packet;
+    }
+
+    // 묶음 패킷 (SensorPacketDecoder 헤더 형식, 순번과 기기 시각이 이어짐)
+    private byte[] packedPacket(Random random, int sequence) {
+        byte[] packet = new byte[SensorPacketDecoder.HEADER_LENGTH + samplesPerPacket * SensorFrameDecoder.FRAME_LENGTH];
+        random.nextBytes(packet);
+        long deviceMicros = (long) sequence * samplesPerPacket * SAMPLE_INTERVAL_MICROS;
+        packet[0] = SensorPacketDecoder.VERSION;
+        packet[1] = (byte) samplesPerPacket;
+        packet[2] = (byte) (sequence >> 8);
+        packet[3] = (byte) sequence;
+        packet[4] = (byte) (deviceMicros >> 24);
+        packet[5] = (byte) (deviceMicros >> 16);
+        packet[6] = (byte) (deviceMicros >> 8);
+        packet[7] = (byte) deviceMicros;
+        packet[8] = (byte) (SAMPLE_INTERVAL_MICROS >> 8);
+        packet[9] = (byte) SAMPLE_INTERVAL_MICROS;
+        return packet;
+    }
+
+    // GattSession.transportCallback처럼 결과를 SensorStreamer에 전달
+    private static class StreamerCallback implements GattTransport.Callback {
+        private final SensorStreamer streamer;
+
+        StreamerCallback(SensorStreamer streamer) {
+            this.streamer = streamer;
+        }
+
+        @Override
+        public void onNotificationStateWritten(boolean success) {
+            streamer.onNotificationsEnabled(success);
+        }
+
+        @Override
+        public void onCharacteristicRead(byte[] value, boolean success) {
+            streamer.onCharacteristicRead(value, success);
+        }
+
+        @Override
+        public void onCharacteristicWrite(boolean success) {
+        }
+
+        @Override
+        public void onCharacteristicChanged(byte[] value) {
+            streamer.onCharacteristicChanged(value);
+        }
+    }
+
+    // 예약 시각과 관계없이 순서대로 실행하는 스케줄러 (UNTHROTTLED 재생용)
+    private static class ImmediateScheduler implements SensorStreamer.Scheduler {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            tasks.addLast(task);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            tasks.removeIf(queued -> queued == task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.pollFirst()) != null) {
+                task.run();
+            }
+        }
+    }
+}
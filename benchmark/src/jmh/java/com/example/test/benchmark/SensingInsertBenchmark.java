@@ -0,0 +1,153 @@
+package com.example.test.benchmark;
+
+import com.example.test.storage.SensingTimestampFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// tb_sensing 저장 비용 측정 (샘플 한 개 기준)
+// 안드로이드 SQLiteDatabase 대신 JVM SQLite 드라이버(sqlite-jdbc)를 사용하며, 스키마와 pragma는 앱과 같게 맞춥니다.
+// perRowInsert: 샘플마다 문장을 만들고 자동 커밋 (기존 insertSensingData의 execSQL 방식)
+// batchedInsert: Batch.size개씩 한 트랜잭션에서 같은 문장을 재사용 (SensingBatchWriter 방식)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SensingInsertBenchmark {
+
+    private static final int ROWS_PER_INVOCATION = 1000;
+    private static final int CHANNEL_COUNT = 8;
+    private static final String DEVICE_MAC = "AA:BB:CC:DD:EE:FF";
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    // DatabaseHelper.INSERT_SENSING_SQL과 같은 문장
+    private static final String INSERT_SENSING_SQL = "INSERT INTO tb_sensing (device_mac, sex, middle_flex_sensor, middle_pressure_sensor, ring_flex_sensor, " +
+            "ring_pressure_sensor, pinky_flex_sensor, acceleration, gyroscope, magnetic_field, timestamp, session_idx) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 트랜잭션 하나에 넣는 샘플 수 (SensingBatchWriter.DEFAULT_BATCH_SIZE = 200)
+    @State(Scope.Thread)
+    public static class Batch {
+        @Param({"50", "200", "1000"})
+        public int size;
+    }
+
+    private File databaseFile;
+    private Connection connection;
+    private PreparedStatement insert;
+    private int[][] samples;
+    private String[] timestamps;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        databaseFile = File.createTempFile("sensing", ".db");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            // DatabaseHelper.onConfigure와 같은 설정
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("PRAGMA synchronous = NORMAL");
+            statement.execute("PRAGMA cache_size = -8192");
+            // 마이그레이션 3 이후 스키마 (외래 키 제외)
+            statement.execute("CREATE TABLE tb_sensing (\n" +
+                    "  sensing_idx INTEGER PRIMARY KEY NOT NULL,\n" +
+                    "  device_mac VARCHAR(50) NOT NULL,\n" +
+                    "  middle_flex_sensor INTEGER NOT NULL,\n" +
+                    "  middle_pressure_sensor INTEGER NOT NULL,\n" +
+                    "  ring_flex_sensor INTEGER NOT NULL,\n" +
+                    "  ring_pressure_sensor INTEGER NOT NULL,\n" +
+                    "  pinky_flex_sensor INTEGER NOT NULL,\n" +
+                    "  acceleration INTEGER NOT NULL,\n" +
+                    "  gyroscope INTEGER NOT NULL,\n" +
+                    "  magnetic_field INTEGER NOT NULL,\n" +
+                    "  timestamp TIMESTAMP NOT NULL,\n" +
+                    "  sex VARCHAR(10),\n" +
+                    "  session_idx INTEGER NOT NULL DEFAULT 0\n" +
+                    ")");
+            statement.execute("CREATE INDEX idx_sensing_device_mac ON tb_sensing (device_mac)");
+            statement.execute("CREATE INDEX idx_sensing_session_device ON tb_sensing (session_idx, device_mac)");
+        }
+        insert = connection.prepareStatement(INSERT_SENSING_SQL);
+
+        Random random = new Random(42);
+        SensingTimestampFormatter formatter = new SensingTimestampFormatter();
+        samples = new int[ROWS_PER_INVOCATION][CHANNEL_COUNT];
+        timestamps = new String[ROWS_PER_INVOCATION];
+        for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+            for (int channel = 0; channel < CHANNEL_COUNT; channel++) {
+                samples[i][channel] = random.nextInt(4096);
+            }
+            timestamps[i] = formatter.format((START_MILLIS + i * 5L) * 1000);
+        }
+    }
+
+    // 테이블이 계속 커지지 않도록 반복마다 비움
+    @TearDown(Level.Iteration)
+    public void clear() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM tb_sensing");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        connection.close();
+        databaseFile.delete();
+        new File(databaseFile.getPath() + "-wal").delete();
+        new File(databaseFile.getPath() + "-shm").delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void perRowInsert() throws SQLException {
+        connection.setAutoCommit(true);
+        for (int i = 0; i < samples.length; i++) {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SENSING_SQL)) {
+                bind(statement, i);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void batchedInsert(Batch batch) throws SQLException {
+        connection.setAutoCommit(false);
+        for (int i = 0; i < samples.length; i++) {
+            bind(insert, i);
+            insert.executeUpdate();
+            if ((i + 1) % batch.size == 0 || i == samples.length - 1) {
+                connection.commit();
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, int index) throws SQLException {
+        statement.setString(1, DEVICE_MAC);
+        statement.setString(2, "남");
+        for (int channel = 0; channel < CHANNEL_COUNT; channel++) {
+            statement.setInt(channel + 3, samples[index][channel]);
+        }
+        statement.setString(11, timestamps[index]);
+        statement.setLong(12, 1);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.test.benchmark;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorFrameDecoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 16바이트 센서 패킷 디코딩 비용 측정
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SensorFrameDecoderBenchmark {
+
+    private static final int PACKET_COUNT = 1024;
+
+    private final SensorFrameDecoder decoder = new SensorFrameDecoder();
+    private final SensorFrame frame = new SensorFrame();
+    private final float[] features = new float[SensorFrame.CHANNEL_COUNT];
+    private byte[][] packets;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        packets = new byte[PACKET_COUNT][SensorFrameDecoder.FRAME_LENGTH];
+        for (byte[] packet : packets) {
+            random.nextBytes(packet);
+        }
+    }
+
+    // 디코딩만
+    @Benchmark
+    public SensorFrame decode() {
+        decoder.decode(nextPacket(), frame);
+        return frame;
+    }
+
+    // 디코딩 후 모델 입력용 float 배열로 복사
+    @Benchmark
+    public float[] decodeToFeatures() {
+        decoder.decode(nextPacket(), frame);
+        frame.copyTo(features, 0);
+        return features;
+    }
+
+    // 기존 WorkActivity 방식 (패킷마다 int 8개를 직접 조합)
+    @Benchmark
+    public int inlineUnpack() {
+        byte[] data = nextPacket();
+        int sum = 0;
+        for (int i = 0; i < SensorFrameDecoder.FRAME_LENGTH; i += 2) {
+            sum += (data[i] << 8) | (data[i + 1] & 0xFF);
+        }
+        return sum;
+    }
+
+    private byte[] nextPacket() {
+        byte[] packet = packets[index];
+        index = (index + 1) & (PACKET_COUNT - 1);
+        return packet;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.test.benchmark;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorFrameDecoder;
+import com.example.test.sensor.SensorPacketDecoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 패킷 디코더 비용 측정 (패킷 하나 기준, 묶음 패킷은 samplesPerPacket개 샘플 포함)
+// samplesPerPacket = 1이면 기존 16바이트 패킷, 그 이상이면 묶음 패킷 (14는 MTU 247에서 보낼 수 있는 최대 샘플 수)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SensorPacketDecoderBenchmark {
+
+    private static final int PACKET_COUNT = 1024;
+    private static final int SAMPLE_INTERVAL_MICROS = 5000;
+
+    @Param({"1", "14"})
+    public int samplesPerPacket;
+
+    private final SensorPacketDecoder decoder = new SensorPacketDecoder();
+    private byte[][] packets;
+    private int index;
+    private int sequence;
+    private long arrivalMicros;
+    private Blackhole blackhole;
+    private final SensorPacketDecoder.SampleListener sink = this::consume;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        Random random = new Random(42);
+        packets = new byte[PACKET_COUNT][];
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            packets[i] = samplesPerPacket == 1 ? legacyPacket(random) : packedPacket(random);
+        }
+    }
+
+    @Benchmark
+    public boolean decode() {
+        byte[] packet = packets[index];
+        index = (index + 1) & (PACKET_COUNT - 1);
+        arrivalMicros += (long) samplesPerPacket * SAMPLE_INTERVAL_MICROS;
+        if (samplesPerPacket > 1) {
+            stamp(packet);
+        }
+        return decoder.decode(packet, arrivalMicros, sink);
+    }
+
+    private void consume(SensorFrame frame, long timestampMicros) {
+        blackhole.consume(frame.get(SensorFrame.MIDDLE_PRESSURE));
+        blackhole.consume(timestampMicros);
+    }
+
+    private static byte[] legacyPacket(Random random) {
+        byte[] packet = new byte[SensorFrameDecoder.FRAME_LENGTH];
+        random.nextBytes(packet);
+        return packet;
+    }
+
+    // 묶음 패킷 (SensorPacketDecoder 헤더 형식, 순번과 기기 시각은 stamp에서 기록)
+    private byte[] packedPacket(Random random) {
+        byte[] packet = new byte[SensorPacketDecoder.HEADER_LENGTH + samplesPerPacket * SensorFrameDecoder.FRAME_LENGTH];
+        random.nextBytes(packet);
+        packet[0] = SensorPacketDecoder.VERSION;
+        packet[1] = (byte) samplesPerPacket;
+        packet[8] = (byte) (SAMPLE_INTERVAL_MICROS >> 8);
+        packet[9] = (byte) SAMPLE_INTERVAL_MICROS;
+        return packet;
+    }
+
+    // 실제 스트림처럼 순번과 기기 시각이 이어지도록 기록 (손실/재동기화 경로를 타지 않음)
+    private void stamp(byte[] packet) {
+        long deviceMicros = (long) sequence * samplesPerPacket * SAMPLE_INTERVAL_MICROS;
+        packet[2] = (byte) (sequence >> 8);
+        packet[3] = (byte) sequence;
+        packet[4] = (byte) (deviceMicros >> 24);
+        packet[5] = (byte) (deviceMicros >> 16);
+        packet[6] = (byte) (deviceMicros >> 8);
+        packet[7] = (byte) deviceMicros;
+        sequence++;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.test.benchmark;
+
+import com.example.test.sensor.SensorFrame;
+import com.example.test.sensor.SensorNormalizer;
+import com.example.test.storage.SensorArchiveReader;
+import com.example.test.storage.SensorArchiveWriter;
+import com.example.test.storage.SensorRecordFile;
+import com.example.test.storage.SensorRecordFileWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 학습 입력 버퍼를 만드는 비용 측정 (샘플 한 개 기준, 전체 데이터 한 번 읽기)
+// legacyFloatList: 기존 RunningActivity 방식 (샘플마다 float[] 생성 -> 배열 변환 -> 전체 크기 direct 버퍼)
+// archiveStream: 보관 파일(SensorArchiveReader)을 풀어 chunk로 정규화
+// mappedRecords: 메모리 매핑한 레코드 파일(SensorRecordFile)에서 chunk로 정규화 (에폭 학습 경로)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrainingBufferBenchmark {
+
+    // 학습 시작 기준(6000개)의 10배
+    private static final int SAMPLE_COUNT = 60_000;
+    private static final int CHUNK_SIZE = 512;
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private int[][] samples;
+    private File archiveFile;
+    private File recordFile;
+    private SensorRecordFile records;
+    private ByteBuffer chunk;
+    private SensorNormalizer normalizer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // 천천히 변하는 센서 값 (실제 기록과 비슷한 압축률)
+        Random random = new Random(42);
+        samples = new int[SAMPLE_COUNT][SensorFrame.CHANNEL_COUNT];
+        int[] current = new int[SensorFrame.CHANNEL_COUNT];
+        SensorNormalizer.RangeBuilder range = new SensorNormalizer.RangeBuilder();
+        for (int[] sample : samples) {
+            for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                current[channel] += random.nextInt(21) - 10;
+                sample[channel] = current[channel];
+            }
+            range.add(sample);
+        }
+        // SensingDataLoader.createSnapshot과 같이 데이터에서 구한 범위
+        normalizer = range.build();
+
+        archiveFile = File.createTempFile("training", ".exsa");
+        try (SensorArchiveWriter writer = new SensorArchiveWriter(new BufferedOutputStream(new FileOutputStream(archiveFile)))) {
+            for (int i = 0; i < SAMPLE_COUNT; i++) {
+                writer.append(samples[i], START_MILLIS + i * 5L);
+            }
+        }
+        recordFile = File.createTempFile("training", SensorRecordFile.FILE_EXTENSION);
+        try (SensorRecordFileWriter writer = new SensorRecordFileWriter(recordFile)) {
+            for (int i = 0; i < SAMPLE_COUNT; i++) {
+                writer.append(samples[i], START_MILLIS + i * 5L);
+            }
+        }
+        records = SensorRecordFile.open(recordFile);
+        chunk = ByteBuffer.allocateDirect(CHUNK_SIZE * SensorFrame.CHANNEL_COUNT * 4).order(ByteOrder.nativeOrder());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        records.close();
+        archiveFile.delete();
+        recordFile.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_COUNT)
+    public ByteBuffer legacyFloatList() {
+        List<float[]> dataList = new ArrayList<>();
+        for (int[] sample : samples) {
+            float[] data = new float[SensorFrame.CHANNEL_COUNT];
+            for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                data[channel] = sample[channel];
+            }
+            dataList.add(data);
+        }
+        float[][] dataArray = dataList.toArray(new float[dataList.size()][]);
+        ByteBuffer inputBuffer = ByteBuffer.allocateDirect(dataArray.length * dataArray[0].length * 4).order(ByteOrder.nativeOrder());
+        for (float[] data : dataArray) {
+            for (float value : data) {
+                inputBuffer.putFloat(value);
+            }
+        }
+        return inputBuffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_COUNT)
+    public void archiveStream(Blackhole blackhole) throws IOException {
+        int[] values = new int[SensorFrame.CHANNEL_COUNT];
+        int rows = 0;
+        chunk.clear();
+        try (SensorArchiveReader reader = new SensorArchiveReader(new BufferedInputStream(new FileInputStream(archiveFile)))) {
+            while (reader.next(values)) {
+                for (int channel = 0; channel < SensorFrame.CHANNEL_COUNT; channel++) {
+                    chunk.putFloat(normalizer.normalize(channel, values[channel]));
+                }
+                if (++rows == CHUNK_SIZE) {
+                    chunk.flip();
+                    blackhole.consume(chunk.getFloat(0));
+                    chunk.clear();
+                    rows = 0;
+                }
+            }
+        }
+        blackhole.consume(rows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_COUNT)
+    public int mappedRecords(Blackhole blackhole) {
+        return records.forEachChunk(0, records.getSampleCount(), chunk, normalizer,
+                (buffer, rows) -> blackhole.consume(buffer.getFloat(0)));
+    }
+}